@@ -0,0 +1,215 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import edu.wisc.union.websiteBackend.FlywayConfig;
+import edu.wisc.union.websiteBackend.HibernateBatchingConfig;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenre;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtering the board game catalog through {@code BoardGameRepository.findFiltered} itself, with Hibernate on an
+ * in-memory H2 database whose schema comes from the Flyway migrations, against the equivalent predicate in Java.
+ * The second-level and query caches are off, so every call reaches the database. {@code sqlGenreSubstring} is
+ * the substring match on the genre text that the genre join replaced; the repository no longer has it, so it
+ * runs as plain SQL against the same tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogFilterBenchmark {
+
+    private static final String GENRE_SUBSTRING_SQL = "SELECT * FROM board_games b " +
+            "WHERE LOWER(b.genre) LIKE LOWER(CONCAT('%', ?, '%')) ORDER BY b.name";
+
+    private static final Sort BY_NAME = Sort.by("name");
+
+    // Only what findFiltered needs: the data source, the migrations, Hibernate and the repositories
+    @Configuration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, FlywayAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @Import({FlywayConfig.class, HibernateBatchingConfig.class})
+    @EnableJpaRepositories(basePackageClasses = BoardGameRepository.class)
+    @EntityScan(basePackageClasses = BoardGame.class)
+    static class Persistence {
+    }
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<BoardGame> catalog;
+    private List<Set<String>> catalogGenres;
+    private ConfigurableApplicationContext context;
+    private BoardGameRepository repository;
+    private Connection connection;
+    private PreparedStatement genreSubstring;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        catalog = CatalogFixtures.boardGames(size);
+        catalogGenres = catalog.stream().map(game -> BoardGameGenre.split(game.getGenre()).keySet()).toList();
+        // Command-line arguments, so they win over application.yaml
+        context = new SpringApplicationBuilder(Persistence.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--spring.datasource.url=jdbc:h2:mem:filter" + size + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--logging.level.root=WARN");
+        repository = context.getBean(BoardGameRepository.class);
+        connection = context.getBean(DataSource.class).getConnection();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO board_games (id, name, min_playtime, max_playtime, min_player_count, max_player_count, " +
+                        "available_copies, genre, box_image_url, description, quantity, checkout_count, internal_notes) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (BoardGame game : catalog) {
+                insert.setLong(1, game.getId());
+                insert.setString(2, game.getName());
+                insert.setInt(3, game.getMinPlaytime());
+                insert.setInt(4, game.getMaxPlaytime());
+                insert.setInt(5, game.getMinPlayerCount());
+                insert.setInt(6, game.getMaxPlayerCount());
+                insert.setInt(7, game.getAvailableCopies());
+                insert.setString(8, game.getGenre());
+                insert.setString(9, game.getBoxImageUrl());
+                insert.setString(10, game.getDescription());
+                insert.setInt(11, game.getQuantity());
+                insert.setInt(12, game.getCheckoutCount());
+                insert.setString(13, game.getInternalNotes());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        Map<String, Long> genreIds = new HashMap<>();
+        try (PreparedStatement insertGenre = connection.prepareStatement(
+                "INSERT INTO board_game_genres (id, name, name_key) VALUES (?, ?, ?)");
+             PreparedStatement insertLink = connection.prepareStatement(
+                     "INSERT INTO board_game_genre_links (board_game_id, genre_id) VALUES (?, ?)")) {
+            for (int i = 0; i < catalog.size(); i++) {
+                for (Map.Entry<String, String> genre : BoardGameGenre.split(catalog.get(i).getGenre()).entrySet()) {
+                    Long genreId = genreIds.get(genre.getKey());
+                    if (genreId == null) {
+                        genreId = (long) genreIds.size() + 1;
+                        genreIds.put(genre.getKey(), genreId);
+                        insertGenre.setLong(1, genreId);
+                        insertGenre.setString(2, genre.getValue());
+                        insertGenre.setString(3, genre.getKey());
+                        insertGenre.executeUpdate();
+                    }
+                    insertLink.setLong(1, catalog.get(i).getId());
+                    insertLink.setLong(2, genreId);
+                    insertLink.addBatch();
+                }
+            }
+            insertLink.executeBatch();
+        }
+        genreSubstring = connection.prepareStatement(GENRE_SUBSTRING_SQL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<BoardGame> repositoryNoFilter() {
+        return repository.findFiltered(null, null, null, null, null, BY_NAME);
+    }
+
+    @Benchmark
+    public List<BoardGame> repositoryGenreAndPlayers() {
+        return repository.findFiltered(null, BoardGameGenre.key("strategy"), null, null, 4, BY_NAME);
+    }
+
+    @Benchmark
+    public List<BoardGame> repositoryGenre() {
+        return repository.findFiltered(null, BoardGameGenre.key("strategy"), null, null, null, BY_NAME);
+    }
+
+    @Benchmark
+    public void sqlGenreSubstring(Blackhole blackhole) throws SQLException {
+        genreSubstring.setString(1, "strategy");
+        try (ResultSet resultSet = genreSubstring.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getLong(1));
+                blackhole.consume(resultSet.getString(2));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<BoardGame> repositoryNameSearch() {
+        return repository.findFiltered("catan", null, 30, 120, null, BY_NAME);
+    }
+
+    @Benchmark
+    public List<BoardGame> javaNoFilter() {
+        return filter(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<BoardGame> javaGenreAndPlayers() {
+        return filter(null, "strategy", null, null, 4);
+    }
+
+    @Benchmark
+    public List<BoardGame> javaNameSearch() {
+        return filter("catan", null, 30, 120, null);
+    }
+
+    private List<BoardGame> filter(String name, String genre, Integer minPlayTime, Integer maxPlayTime, Integer playerCount) {
+        String nameNeedle = name == null ? null : name.toLowerCase(Locale.ROOT);
+        String genreKey = genre == null ? null : BoardGameGenre.key(genre);
+        List<BoardGame> result = new ArrayList<>();
+        for (int i = 0; i < catalog.size(); i++) {
+            BoardGame game = catalog.get(i);
+            if (nameNeedle != null && (game.getName() == null || !game.getName().toLowerCase(Locale.ROOT).contains(nameNeedle)))
+                continue;
+            if (genreKey != null && !catalogGenres.get(i).contains(genreKey))
+                continue;
+            if (minPlayTime != null && (game.getMinPlaytime() == null || game.getMinPlaytime() < minPlayTime))
+                continue;
+            if (maxPlayTime != null && (game.getMaxPlaytime() == null || game.getMaxPlaytime() > maxPlayTime))
+                continue;
+            if (playerCount != null && (game.getMinPlayerCount() == null || game.getMaxPlayerCount() == null
+                    || game.getMinPlayerCount() > playerCount || game.getMaxPlayerCount() < playerCount))
+                continue;
+            result.add(game);
+        }
+        result.sort(Comparator.comparing(BoardGame::getName));
+        return result;
+    }
+}
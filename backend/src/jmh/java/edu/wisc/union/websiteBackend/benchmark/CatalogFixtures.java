@@ -0,0 +1,84 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.Console;
+import edu.wisc.union.websiteBackend.jpa.ConsoleGame;
+import edu.wisc.union.websiteBackend.jpa.ConsoleGenre;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic catalogs, so numbers from different runs and releases are comparable.
+ */
+final class CatalogFixtures {
+
+    static final String[] GENRES = {
+            "Strategy", "Party", "Card", "Cooperative", "Deck Building", "Family",
+            "Abstract", "Dice", "Worker Placement", "Bluffing", "Trivia", "Word"
+    };
+
+    private static final String[] WORDS = {
+            "Catan", "Ticket", "Ride", "Pandemic", "Azul", "Codenames", "Wingspan", "Splendor",
+            "Carcassonne", "Dominion", "Root", "Scythe", "Cascadia", "Patchwork", "Hanabi", "Dixit"
+    };
+
+    private CatalogFixtures() {
+    }
+
+    static List<BoardGame> boardGames(int size) {
+        Random random = new Random(42);
+        List<BoardGame> games = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            BoardGame game = new BoardGame();
+            game.setId((long) i + 1);
+            game.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+            int minPlaytime = 10 + random.nextInt(12) * 10;
+            game.setMinPlaytime(minPlaytime);
+            game.setMaxPlaytime(minPlaytime + random.nextInt(6) * 15);
+            int minPlayers = 1 + random.nextInt(4);
+            game.setMinPlayerCount(minPlayers);
+            game.setMaxPlayerCount(minPlayers + random.nextInt(6));
+            game.setQuantity(1 + random.nextInt(3));
+            game.setAvailableCopies(random.nextInt(game.getQuantity() + 1));
+            game.setGenre(GENRES[random.nextInt(GENRES.length)] + ", " + GENRES[random.nextInt(GENRES.length)]);
+            game.setBoxImageUrl("https://cf.geekdo-images.com/box/" + i + ".jpg");
+            game.setDescription("A game of " + WORDS[random.nextInt(WORDS.length)].toLowerCase()
+                    + " and " + WORDS[random.nextInt(WORDS.length)].toLowerCase() + ", with \"quotes\", commas and more.");
+            game.setCheckoutCount(random.nextInt(200));
+            game.setInternalNotes(random.nextInt(4) == 0 ? "Missing a die" : null);
+            games.add(game);
+        }
+        return games;
+    }
+
+    static List<ConsoleGame> consoleGames(int size) {
+        Random random = new Random(7);
+        List<Console> consoles = new ArrayList<>();
+        for (String name : new String[]{"Switch", "PS5", "Xbox Series X", "PC", "Wii U"}) {
+            Console console = new Console();
+            console.setId((long) consoles.size() + 1);
+            console.setName(name);
+            consoles.add(console);
+        }
+        List<ConsoleGenre> genres = new ArrayList<>();
+        for (String name : GENRES) {
+            genres.add(new ConsoleGenre((long) genres.size() + 1, name));
+        }
+
+        List<ConsoleGame> games = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ConsoleGame game = new ConsoleGame();
+            game.setId((long) i + 1);
+            game.setName(WORDS[random.nextInt(WORDS.length)] + " Adventures " + i);
+            game.setBoxImageUrl("https://cdn.akamai.steamstatic.com/steam/apps/" + i + "/header.jpg");
+            game.setReleaseDate("20" + (10 + random.nextInt(15)) + "-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10));
+            game.setDescription("Console game number " + i);
+            game.setConsoles(List.of(consoles.get(random.nextInt(consoles.size())), consoles.get(random.nextInt(consoles.size()))));
+            game.setGenres(List.of(genres.get(random.nextInt(genres.size())), genres.get(random.nextInt(genres.size()))));
+            games.add(game);
+        }
+        return games;
+    }
+}
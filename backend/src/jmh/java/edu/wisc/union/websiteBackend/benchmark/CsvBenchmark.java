@@ -0,0 +1,62 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import edu.wisc.union.websiteBackend.controllers.games.BoardGameCsv;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CSV export ({@code downloadCsv}) and import ({@code importBoardGames}) paths, without the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvBenchmark {
+
+    private static final String IMPORT_HEADER = "Name,Quantity,Min Players,Max Players,Min Playtime,Max Playtime," +
+            "Times Checked Out,Genres,Quick Description,Box Art URL,Notes\n";
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private List<BoardGame> games;
+    private byte[] importSheet;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        games = CatalogFixtures.boardGames(size);
+
+        StringBuilder sheet = new StringBuilder(IMPORT_HEADER);
+        for (BoardGame game : games) {
+            sheet.append(game.getName()).append(',')
+                    .append(game.getQuantity()).append(',')
+                    .append(game.getMinPlayerCount()).append(',')
+                    .append(game.getMaxPlayerCount()).append(',')
+                    .append(game.getMinPlaytime()).append(',')
+                    .append(game.getMaxPlaytime()).append(',')
+                    .append(game.getCheckoutCount()).append(',')
+                    .append('"').append(game.getGenre()).append("\",")
+                    .append('"').append(game.getDescription().replace("\"", "\"\"")).append("\",")
+                    .append(game.getBoxImageUrl()).append(',')
+                    .append(game.getInternalNotes() == null ? "" : game.getInternalNotes())
+                    .append('\n');
+        }
+        importSheet = sheet.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] render() {
+        return BoardGameCsv.write(games);
+    }
+
+    @Benchmark
+    public List<BoardGame> parse() throws IOException {
+        return BoardGameCsv.parse(new InputStreamReader(new ByteArrayInputStream(importSheet), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,55 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import edu.wisc.union.websiteBackend.auth.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue ({@code /api/auth/login}) and the two validation paths: {@link JwtUtil#validateToken}
+ * and the Nimbus decoder the resource server runs on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtDecoder jwtDecoder;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        setField("signingKey", "benchmark-signing-key-benchmark-signing-key-0123456789");
+        setField("expirationTime", 3_600_000L);
+        jwtDecoder = jwtUtil.jwtDecoder();
+        token = jwtUtil.generateToken("host", JwtUtil.AccessLevel.HOST);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("host", JwtUtil.AccessLevel.HOST);
+    }
+
+    @Benchmark
+    public Claims validate() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return jwtDecoder.decode(token);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtUtil.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtUtil, value);
+    }
+}
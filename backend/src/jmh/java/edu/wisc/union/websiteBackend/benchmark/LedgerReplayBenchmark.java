@@ -0,0 +1,93 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import edu.wisc.union.websiteBackend.ledger.CheckoutProjection;
+import edu.wisc.union.websiteBackend.ledger.LedgerProjection;
+import edu.wisc.union.websiteBackend.ledger.LedgerRecord;
+import edu.wisc.union.websiteBackend.ledger.LedgerStore;
+import edu.wisc.union.websiteBackend.ledger.TurnoverProjection;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup cost of the checkout ledger: replaying every record into a fresh projection against reading the
+ * latest snapshot and replaying the records after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LedgerReplayBenchmark {
+    private static final int GAMES = 2_000;
+    private static final int TAIL = 1_000;
+
+    @Param({"100000", "1000000"})
+    public int records;
+
+    private Path full;
+    private Path snapshotted;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        full = Files.createTempDirectory("ledger-full");
+        snapshotted = Files.createTempDirectory("ledger-snapshotted");
+        fill(full, records, false);
+        fill(snapshotted, records, true);
+    }
+
+    // The same seed gives both stores the same records; five years of game nights arrive as HISTORY records
+    private static void fill(Path directory, int records, boolean snapshot) throws IOException {
+        Random random = new Random(42);
+        int firstNight = (int) LocalDate.now().minusYears(5).toEpochDay();
+        try (LedgerStore store = LedgerStore.open(directory, 1 << 18, projections())) {
+            for (int i = 0; i < records; i++) {
+                long gameId = 1 + random.nextInt(GAMES);
+                switch (random.nextInt(3)) {
+                    case 0 -> store.append(LedgerRecord.Type.CHECKOUT, gameId, 1, 0);
+                    case 1 -> store.append(LedgerRecord.Type.RETURN, gameId, 1, 0);
+                    default -> store.append(LedgerRecord.Type.HISTORY, gameId, 1, firstNight + random.nextInt(5 * 365));
+                }
+                if (snapshot && i == records - TAIL) {
+                    store.snapshot(1);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public long replayEverything() throws IOException {
+        try (LedgerStore store = LedgerStore.open(full, 1 << 18, projections())) {
+            return store.lastSequence();
+        }
+    }
+
+    @Benchmark
+    public long snapshotAndTail() throws IOException {
+        try (LedgerStore store = LedgerStore.open(snapshotted, 1 << 18, projections())) {
+            return store.lastSequence();
+        }
+    }
+
+    // Those of the CheckoutLedger
+    private static List<LedgerProjection> projections() {
+        return List.of(new CheckoutProjection(), new TurnoverProjection());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (Path directory : List.of(full, snapshotted)) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The statements behind the name check, the game night stats and the bulk write paths, against a file-backed H2
+ * database laid out either the way {@code ddl-auto} created it before any tuning ({@code baseline}) or with the
+ * generated {@code name_lower} column and its index, the index on the checkout date, JDBC batching and the
+ * {@code h2prod} settings ({@code tuned}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersistenceTuningBenchmark {
+    private static final int NIGHTS = 365;
+    private static final int GAMES_PER_NIGHT = 100;
+    private static final int IMPORT_ROWS = 50;
+
+    @Param({"baseline", "tuned"})
+    public String schema;
+
+    @Param({"10000"})
+    public int size;
+
+    private Path directory;
+    private Connection connection;
+    private PreparedStatement existsByName;
+    private PreparedStatement nightStats;
+    private PreparedStatement insertGame;
+    private PreparedStatement checkoutGame;
+    private PreparedStatement countCheckout;
+    private final AtomicLong nextId = new AtomicLong(1_000_000);
+    private int lookup;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        boolean tuned = schema.equals("tuned");
+        directory = Files.createTempDirectory("wud-h2-bench");
+        String url = "jdbc:h2:file:" + directory.resolve("db")
+                + (tuned ? ";CACHE_SIZE=65536;WRITE_DELAY=1000" : "");
+        connection = DriverManager.getConnection(url, "sa", "");
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE board_games (id BIGINT PRIMARY KEY, name VARCHAR(255), " +
+                    (tuned ? "name_lower VARCHAR(255) GENERATED ALWAYS AS (LOWER(name)), " : "") +
+                    "min_playtime INT, max_playtime INT, min_player_count INT, max_player_count INT, " +
+                    "available_copies INT, genre VARCHAR(255), quantity INT, checkout_count INT)");
+            // The key order Hibernate created in release 1.2.0, which leaves date ranges to the index
+            statement.execute("CREATE TABLE board_game_checkout (board_game_id BIGINT NOT NULL, " +
+                    "date DATE NOT NULL, count INT NOT NULL, PRIMARY KEY (board_game_id, date))");
+            if (tuned) {
+                statement.execute("CREATE INDEX idx_board_games_name_lower ON board_games (name_lower)");
+                statement.execute("CREATE INDEX idx_board_game_checkout_date ON board_game_checkout (date)");
+            }
+        }
+
+        insertGame = connection.prepareStatement("INSERT INTO board_games (id, name, min_playtime, max_playtime, " +
+                "min_player_count, max_player_count, available_copies, genre, quantity, checkout_count) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        for (BoardGame game : CatalogFixtures.boardGames(size)) {
+            bindGame(game, game.getId());
+            insertGame.addBatch();
+        }
+        insertGame.executeBatch();
+
+        try (PreparedStatement insertCheckout = connection.prepareStatement(
+                "INSERT INTO board_game_checkout VALUES (?, ?, ?)")) {
+            LocalDate first = LocalDate.of(2024, 1, 1);
+            for (int night = 0; night < NIGHTS; night++) {
+                for (int game = 0; game < GAMES_PER_NIGHT; game++) {
+                    insertCheckout.setLong(1, 1 + (night * 37L + game * 101L) % size);
+                    insertCheckout.setDate(2, Date.valueOf(first.plusDays(night)));
+                    insertCheckout.setInt(3, 1 + (night + game) % 4);
+                    insertCheckout.addBatch();
+                }
+                insertCheckout.executeBatch();
+            }
+        }
+
+        existsByName = connection.prepareStatement(tuned
+                ? "SELECT COUNT(*) > 0 FROM board_games WHERE name_lower = LOWER(?)"
+                : "SELECT COUNT(*) > 0 FROM board_games WHERE LOWER(name) = LOWER(?)");
+        nightStats = connection.prepareStatement("SELECT date, SUM(count) FROM board_game_checkout " +
+                "WHERE date >= ? AND date <= ? GROUP BY date");
+        checkoutGame = connection.prepareStatement("UPDATE board_games SET available_copies = available_copies - 1, " +
+                "checkout_count = checkout_count + 1 WHERE id = ?");
+        countCheckout = connection.prepareStatement("MERGE INTO board_game_checkout (board_game_id, date, count) " +
+                "KEY (board_game_id, date) VALUES (?, CURRENT_DATE, 1)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public boolean existsByName() throws SQLException {
+        existsByName.setString(1, "CATAN ROOT " + (lookup++ % size));
+        try (ResultSet resultSet = existsByName.executeQuery()) {
+            resultSet.next();
+            return resultSet.getBoolean(1);
+        }
+    }
+
+    @Benchmark
+    public long weekStats() throws SQLException {
+        LocalDate start = LocalDate.of(2024, 1, 1).plusDays(lookup++ % (NIGHTS - 7));
+        nightStats.setDate(1, Date.valueOf(start));
+        nightStats.setDate(2, Date.valueOf(start.plusDays(6)));
+        long total = 0;
+        try (ResultSet resultSet = nightStats.executeQuery()) {
+            while (resultSet.next()) {
+                total += resultSet.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * One CSV import chunk in a transaction: a statement per row without batching, one JDBC batch with it.
+     */
+    @Benchmark
+    public void importChunk() throws SQLException {
+        boolean batched = schema.equals("tuned");
+        connection.setAutoCommit(false);
+        try {
+            for (BoardGame game : CatalogFixtures.boardGames(IMPORT_ROWS)) {
+                bindGame(game, nextId.getAndIncrement());
+                if (batched) {
+                    insertGame.addBatch();
+                } else {
+                    insertGame.executeUpdate();
+                }
+            }
+            if (batched) {
+                insertGame.executeBatch();
+            }
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * A checkout as two auto-committed statements, so every call pays for a commit.
+     */
+    @Benchmark
+    public void checkoutCommit() throws SQLException {
+        long id = 1 + lookup++ % size;
+        checkoutGame.setLong(1, id);
+        checkoutGame.executeUpdate();
+        countCheckout.setLong(1, id);
+        countCheckout.executeUpdate();
+    }
+
+    private void bindGame(BoardGame game, long id) throws SQLException {
+        insertGame.setLong(1, id);
+        insertGame.setString(2, game.getName());
+        insertGame.setInt(3, game.getMinPlaytime());
+        insertGame.setInt(4, game.getMaxPlaytime());
+        insertGame.setInt(5, game.getMinPlayerCount());
+        insertGame.setInt(6, game.getMaxPlayerCount());
+        insertGame.setInt(7, game.getAvailableCopies());
+        insertGame.setString(8, game.getGenre());
+        insertGame.setInt(9, game.getQuantity());
+        insertGame.setInt(10, game.getCheckoutCount());
+    }
+}
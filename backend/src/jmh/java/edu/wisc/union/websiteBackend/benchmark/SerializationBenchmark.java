@@ -0,0 +1,84 @@
+package edu.wisc.union.websiteBackend.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.games.BoardGameBinary;
+import edu.wisc.union.websiteBackend.controllers.games.PublicBoardGameJson;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.ConsoleGame;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entity graphs returned by {@code /api/games} and {@code /api/consoles/games},
+ * the anonymous {@code /api/games} listing assembled from cached fragments by {@link PublicBoardGameJson},
+ * and the {@link BoardGameBinary} kiosk catalog, encoded and decoded. Run with {@code -prof gc} to compare
+ * allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<BoardGame> boardGames;
+    private List<ConsoleGame> consoleGames;
+    private PublicBoardGameJson publicJson;
+    private byte[] publicJsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boardGames = CatalogFixtures.boardGames(size);
+        consoleGames = CatalogFixtures.consoleGames(size);
+        publicJson = new PublicBoardGameJson(objectMapper);
+        publicJsonBytes = publicJson.write(boardGames, publicJson.generation());
+        binaryBytes = BoardGameBinary.write(boardGames);
+    }
+
+    @Benchmark
+    public byte[] boardGameList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(boardGames);
+    }
+
+    @Benchmark
+    public byte[] boardGameListPublic() {
+        return publicJson.write(boardGames, publicJson.generation());
+    }
+
+    // Every fragment rendered again, as after a change to every game
+    @Benchmark
+    public byte[] boardGameListPublicUncached() {
+        publicJson.onCatalogChanged(CatalogChangedEvent.all(CatalogChangedEvent.Entity.BOARD_GAME, false));
+        return publicJson.write(boardGames, publicJson.generation());
+    }
+
+    @Benchmark
+    public List<BoardGame> boardGameListPublicDecode() throws IOException {
+        return objectMapper.readValue(publicJsonBytes, new TypeReference<>() {
+        });
+    }
+
+    @Benchmark
+    public byte[] boardGameListBinary() {
+        return BoardGameBinary.write(boardGames);
+    }
+
+    @Benchmark
+    public List<BoardGame> boardGameListBinaryDecode() {
+        return BoardGameBinary.read(binaryBytes);
+    }
+
+    @Benchmark
+    public byte[] consoleGameGraph() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(consoleGames);
+    }
+}
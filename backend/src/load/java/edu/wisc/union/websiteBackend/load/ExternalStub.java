@@ -0,0 +1,62 @@
+package edu.wisc.union.websiteBackend.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Stands in for BoardGameGeek, VideoGameGeek and Steam so the load run never leaves the machine.
+ * Every response is canned JSON in the shape the real services return, after a fixed delay.
+ */
+class ExternalStub implements AutoCloseable {
+    private static final long DELAY_MILLIS = 40;
+
+    private final HttpServer server;
+
+    ExternalStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/search/boardgame", exchange -> respond(exchange,
+                "{\"items\":[{\"id\":\"13\",\"name\":\"Catan\",\"yearpublished\":\"1995\"}," +
+                        "{\"id\":\"822\",\"name\":\"Carcassonne\",\"yearpublished\":\"2000\"}]}"));
+        server.createContext("/api/geekitems", exchange -> respond(exchange,
+                "{\"item\":{\"name\":\"Catan\",\"minplayers\":3,\"maxplayers\":4,\"minplaytime\":60," +
+                        "\"maxplaytime\":120,\"short_description\":\"Trade and build\",\"imageurl\":\"http://127.0.0.1/catan.jpg\"," +
+                        "\"topimageurl\":\"http://127.0.0.1/catan-top.jpg\"}}"));
+        server.createContext("/actions/SearchApps/", exchange -> respond(exchange,
+                "[{\"appid\":\"620\",\"name\":\"Portal 2\",\"logo\":\"http://127.0.0.1/portal2.jpg\"}]"));
+        server.createContext("/api/appdetails", exchange -> respond(exchange,
+                "{\"620\":{\"success\":true,\"data\":{\"name\":\"Portal 2\",\"short_description\":\"Puzzles\"," +
+                        "\"header_image\":\"http://127.0.0.1/portal2.jpg\",\"genres\":[{\"description\":\"Puzzle\"}]," +
+                        "\"release_date\":{\"date\":\"18 Apr, 2011\"}}}}"));
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        try {
+            Thread.sleep(DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,161 @@
+package edu.wisc.union.websiteBackend.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wisc.union.websiteBackend.WudGamesWebsiteBackendApplication;
+import edu.wisc.union.websiteBackend.controllers.games.BoardGameGenres;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Boots the backend on a random port against a throw-away {@link LoadDatabase} (H2 by default, PostgreSQL with
+ * {@code --database=postgres}), seeds a catalog and plays a {@link GameNightScenario} against it. Run with {@code mvn verify -Pload}; see the load profile in the pom
+ * for the knobs.
+ */
+public class GameNightLoad {
+    private static final String[] GENRES = {"Strategy", "Party", "Card", "Cooperative", "Family", "Dice", "Bluffing"};
+    private static final String[] NAMES = {"Catan", "Ticket to Ride", "Codenames", "Azul", "Wingspan", "Carcassonne",
+            "Pandemic", "Splendor", "Dixit", "Cascadia"};
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        String text;
+        try (ExternalStub stub = new ExternalStub()) {
+            switch (options.getCompare()) {
+                case THREADS -> {
+                    // Same scenario against a fresh database with each request threading model
+                    LoadReport platform = runOnce(options, stub, "platform threads", HttpClient.Version.HTTP_2,
+                            Map.of("spring.threads.virtual.enabled", "false"));
+                    LoadReport virtual = runOnce(options, stub, "virtual threads", HttpClient.Version.HTTP_2,
+                            Map.of("spring.profiles.active", "virtual-threads"));
+                    text = platform.format() + System.lineSeparator() + virtual.format() + System.lineSeparator()
+                            + LoadReport.compare(platform, virtual);
+                }
+                case TRANSPORT -> {
+                    // Same scenario with uncompressed HTTP/1.1, then with gzip over h2c
+                    LoadReport plain = runOnce(options, stub, "HTTP/1.1 uncompressed", HttpClient.Version.HTTP_1_1,
+                            Map.of("transport.compression.enabled", "false", "transport.http2.enabled", "false"));
+                    LoadReport tuned = runOnce(options, stub, "h2c gzip", HttpClient.Version.HTTP_2,
+                            Map.of("transport.compression.enabled", "true", "transport.http2.enabled", "true"));
+                    text = plain.format() + System.lineSeparator() + tuned.format() + System.lineSeparator()
+                            + LoadReport.compare(plain, tuned);
+                }
+                default -> text = runOnce(options, stub, "default", HttpClient.Version.HTTP_2, Map.of()).format();
+            }
+        }
+
+        System.out.println(text);
+        Files.createDirectories(options.getReport().toAbsolutePath().getParent());
+        Files.writeString(options.getReport(), text);
+        System.exit(0);
+    }
+
+    static LoadReport runOnce(LoadOptions options, ExternalStub stub, String label, HttpClient.Version version,
+                              Map<String, String> overrides) throws Exception {
+        try (LoadDatabase database = LoadDatabase.start(options.getDatabase())) {
+            return runOnce(options, stub, label + " on " + options.getDatabase(), version, database, overrides);
+        }
+    }
+
+    private static LoadReport runOnce(LoadOptions options, ExternalStub stub, String label, HttpClient.Version version,
+                                      LoadDatabase database, Map<String, String> overrides) throws Exception {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.putAll(database.properties());
+        // The schema comes from the Flyway migrations; Hibernate only checks it matches the entities
+        properties.put("spring.jpa.hibernate.ddl-auto", "validate");
+        properties.put("spring.jpa.open-in-view", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("jwt.signing.key", "load-test-signing-key-load-test-signing-key-0123456789");
+        properties.put("jwt.expiration.time", "3600000");
+        // Every simulated guest connects from the same address, so per-client limits would only measure themselves
+        properties.put("admission.enabled", "false");
+        properties.put("audit.directory", "target/load/audit");
+        // The ledger follows the throw-away database, so it starts empty as well
+        properties.put("ledger.directory", Files.createTempDirectory("wud-load-ledger").toString());
+        properties.put("users[0].username", "host");
+        properties.put("users[0].password", "host");
+        properties.put("users[0].level", "HOST");
+        properties.put("users[1].username", "admin");
+        properties.put("users[1].password", "admin");
+        properties.put("users[1].level", "ADMIN");
+        for (String source : List.of("bgg", "vgg", "geekdo", "steam-store", "steam-community")) {
+            properties.put("external." + source + ".url", stub.baseUrl());
+        }
+        properties.putAll(overrides);
+        if (database.profile() != null) {
+            properties.merge("spring.profiles.active", database.profile(), (scenario, db) -> db + "," + scenario);
+        }
+
+        // Command line arguments outrank any application.yaml lying around on the classpath
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WudGamesWebsiteBackendApplication.class)
+                .run(args);
+        try {
+            Map<Long, Integer> quantities = seed(context.getBean(BoardGameRepository.class),
+                    context.getBean(BoardGameGenres.class), options.getGames());
+            String baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+
+            // HTTP/2 is tried with an h2c upgrade and falls back to HTTP/1.1 if the server declines
+            HttpClient http = HttpClient.newBuilder().version(version).build();
+            String hostToken = login(http, baseUrl, "host");
+            String adminToken = login(http, baseUrl, "admin");
+            return new GameNightScenario(http, baseUrl, options, hostToken, adminToken, quantities)
+                    .run(label, Threading.VIRTUAL.isActive(context.getEnvironment()));
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Map<Long, Integer> seed(BoardGameRepository repository, BoardGameGenres genres, int count) {
+        Random random = new Random(42);
+        List<BoardGame> games = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BoardGame game = new BoardGame();
+            game.setName(NAMES[random.nextInt(NAMES.length)] + " " + i);
+            int minPlaytime = 15 + random.nextInt(8) * 15;
+            game.setMinPlaytime(minPlaytime);
+            game.setMaxPlaytime(minPlaytime + random.nextInt(4) * 15);
+            int minPlayers = 1 + random.nextInt(4);
+            game.setMinPlayerCount(minPlayers);
+            game.setMaxPlayerCount(minPlayers + random.nextInt(5));
+            game.setQuantity(1 + random.nextInt(3));
+            game.setAvailableCopies(game.getQuantity());
+            game.setCheckoutCount(0);
+            game.setGenre(GENRES[random.nextInt(GENRES.length)] + ", " + GENRES[random.nextInt(GENRES.length)]);
+            game.setDescription("Seeded for load testing");
+            games.add(game);
+        }
+
+        genres.link(games);
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (BoardGame game : repository.saveAll(games)) {
+            quantities.put(game.getId(), game.getQuantity());
+        }
+        return quantities;
+    }
+
+    private static String login(HttpClient http, String baseUrl, String user) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + user + "\",\"password\":\"" + user + "\"}"))
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + user + " failed with " + response.statusCode());
+        }
+        return new ObjectMapper().readTree(response.body()).get("token").asText();
+    }
+}
@@ -0,0 +1,269 @@
+package edu.wisc.union.websiteBackend.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * One game night against a running backend: anonymous guests browsing the catalog, hosts checking out and
+ * returning stacks of games, a host dashboard polling stats and the occasional closing-time return-all.
+ * <p>
+ * The expected availability of every game is tracked client side from the responses the server gave, so
+ * that at the end any difference with what the server stored can be reported as lost updates. Return-all
+ * takes an exclusive lock on that bookkeeping so the expectation is always well defined.
+ * <p>
+ * Like a browser, every client accepts gzip; the report counts response bytes as they came over the wire.
+ */
+class GameNightScenario {
+    private static final String[] BROWSE_FILTERS = {
+            "", "", "", "?genre=Strategy", "?playerCount=4", "?name=cat", "?minPlayTime=30&maxPlayTime=90",
+            "?genre=Party&playerCount=6", "?name=ride&genre=Family"
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http;
+    private final String baseUrl;
+    private final LoadOptions options;
+    private final String hostToken;
+    private final String adminToken;
+    private final List<Long> gameIds;
+    private final Map<Long, Integer> quantities;
+    private final Map<Long, AtomicInteger> expectedAvailable = new ConcurrentHashMap<>();
+    private final LongAdder expectedCheckouts = new LongAdder();
+    private final ReadWriteLock bookkeeping = new ReentrantReadWriteLock();
+    private final Set<HttpClient.Version> versions = EnumSet.noneOf(HttpClient.Version.class);
+
+    private final LatencyRecorder browse = new LatencyRecorder("browse");
+    private final LatencyRecorder lookup = new LatencyRecorder("lookup");
+    private final LatencyRecorder checkout = new LatencyRecorder("checkout");
+    private final LatencyRecorder giveBack = new LatencyRecorder("return");
+    private final LatencyRecorder stats = new LatencyRecorder("stats");
+    private final LatencyRecorder returnAll = new LatencyRecorder("return-all");
+
+    private volatile boolean running = true;
+
+    GameNightScenario(HttpClient http, String baseUrl, LoadOptions options, String hostToken, String adminToken,
+                      Map<Long, Integer> quantities) {
+        this.http = http;
+        this.baseUrl = baseUrl;
+        this.options = options;
+        this.hostToken = hostToken;
+        this.adminToken = adminToken;
+        this.quantities = quantities;
+        this.gameIds = new ArrayList<>(quantities.keySet());
+        quantities.forEach((id, quantity) -> expectedAvailable.put(id, new AtomicInteger(quantity)));
+    }
+
+    LoadReport run(String label, boolean serverVirtualThreads) throws Exception {
+        boolean virtualThreads = true;
+        ExecutorService clients;
+        try {
+            // Java 21+; the harness still runs on 17 with a platform thread per client
+            clients = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            clients = Executors.newCachedThreadPool();
+            virtualThreads = false;
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < options.getBrowsers(); i++) {
+            clients.submit(this::guest);
+        }
+        for (int i = 0; i < options.getHosts(); i++) {
+            clients.submit(this::host);
+        }
+        clients.submit(this::dashboard);
+        clients.submit(this::closingTime);
+
+        Thread.sleep(options.getDuration().toMillis());
+        running = false;
+        clients.shutdown();
+        clients.awaitTermination(1, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        LoadReport report = new LoadReport(label, options, serverVirtualThreads, virtualThreads, seconds,
+                Set.copyOf(versions));
+        for (LatencyRecorder recorder : List.of(browse, lookup, checkout, giveBack, stats, returnAll)) {
+            report.add(recorder.summarize(seconds));
+        }
+        verify(report);
+        return report;
+    }
+
+    private void guest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            int roll = random.nextInt(100);
+            if (roll < 3) {
+                call(lookup, get("/api/bgg/search?gameName=catan", null));
+            } else if (roll < 5) {
+                call(lookup, get("/api/consoles/steam/search?name=portal", null));
+            } else {
+                call(browse, get("/api/games" + BROWSE_FILTERS[random.nextInt(BROWSE_FILTERS.length)], null));
+            }
+            pause(random.nextInt(10, 60));
+        }
+    }
+
+    private void host() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            List<Long> stack = new ArrayList<>();
+            bookkeeping.readLock().lock();
+            try {
+                int burst = random.nextInt(1, 5);
+                for (int i = 0; i < burst; i++) {
+                    Long id = gameIds.get(random.nextInt(gameIds.size()));
+                    if (call(checkout, post("/api/games/" + id + "/checkout", hostToken)) == 200) {
+                        expectedAvailable.get(id).decrementAndGet();
+                        expectedCheckouts.increment();
+                        stack.add(id);
+                    }
+                }
+            } finally {
+                bookkeeping.readLock().unlock();
+            }
+
+            pause(random.nextInt(100, 500));
+
+            bookkeeping.readLock().lock();
+            try {
+                for (Long id : stack) {
+                    if (call(giveBack, post("/api/games/" + id + "/return", hostToken)) == 200) {
+                        expectedAvailable.get(id).incrementAndGet();
+                    }
+                }
+            } finally {
+                bookkeeping.readLock().unlock();
+            }
+            pause(random.nextInt(50, 200));
+        }
+    }
+
+    private void dashboard() {
+        while (running) {
+            call(stats, get("/api/games/stats", hostToken));
+            pause(options.getStatsInterval().toMillis());
+        }
+    }
+
+    private void closingTime() {
+        pause(options.getReturnAllInterval().toMillis());
+        while (running) {
+            bookkeeping.writeLock().lock();
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/games/return-all"))
+                        .header("Authorization", "Bearer " + hostToken)
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+                if (call(returnAll, request) == 200) {
+                    quantities.forEach((id, quantity) -> expectedAvailable.get(id).set(quantity));
+                }
+            } finally {
+                bookkeeping.writeLock().unlock();
+            }
+            pause(options.getReturnAllInterval().toMillis());
+        }
+    }
+
+    private void verify(LoadReport report) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = http.send(get("/api/games", adminToken), HttpResponse.BodyHandlers.ofByteArray());
+        long availabilityDrift = 0;
+        int gamesDrifted = 0;
+        long storedCheckouts = 0;
+        for (JsonNode game : objectMapper.readTree(body(response))) {
+            long id = game.get("id").asLong();
+            int actual = game.get("availableCopies").asInt();
+            int expected = expectedAvailable.get(id).get();
+            if (actual != expected) {
+                gamesDrifted++;
+                availabilityDrift += Math.abs(actual - expected);
+            }
+            storedCheckouts += game.get("checkoutCount").asLong();
+        }
+        JsonNode stats = objectMapper.readTree(
+                body(http.send(get("/api/games/stats", adminToken), HttpResponse.BodyHandlers.ofByteArray())));
+
+        report.lostUpdates(gamesDrifted, availabilityDrift, expectedCheckouts.sum(), storedCheckouts,
+                stats.get("totalCheckouts").asLong());
+    }
+
+    private int call(LatencyRecorder recorder, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            recorder.record(System.nanoTime() - start);
+            recorder.received(response.body().length);
+            synchronized (versions) {
+                versions.add(response.version());
+            }
+            int status = response.statusCode();
+            if (status >= 500 || (status >= 300 && status < 400)) {
+                recorder.error();
+            } else if (status >= 400) {
+                recorder.rejected();
+            }
+            return status;
+        } catch (IOException e) {
+            recorder.error();
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    // The client does not decompress by itself
+    private static InputStream body(HttpResponse<byte[]> response) throws IOException {
+        InputStream body = new ByteArrayInputStream(response.body());
+        boolean gzipped = response.headers().firstValue("Content-Encoding").filter("gzip"::equalsIgnoreCase).isPresent();
+        return gzipped ? new GZIPInputStream(body) : body;
+    }
+
+    private HttpRequest get(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private HttpRequest post(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package edu.wisc.union.websiteBackend.load;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-request latencies and outcomes for one operation of the scenario.
+ */
+class LatencyRecorder {
+    private final String operation;
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private long[] samples = new long[1024];
+    private int size;
+
+    LatencyRecorder(String operation) {
+        this.operation = operation;
+    }
+
+    synchronized void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    /** A request the server answered with an expected 4xx, e.g. checking out a game with no copies left. */
+    void rejected() {
+        rejected.increment();
+    }
+
+    /** Body bytes of a response as they came over the wire, i.e. still compressed. */
+    void received(long count) {
+        bytes.add(count);
+    }
+
+    void error() {
+        errors.increment();
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return new Summary(operation, size, size / seconds, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                rejected.sum(), errors.sum(), size == 0 ? 0 : bytes.sum() / (double) size);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    record Summary(String operation, long count, double throughput, double p50, double p90, double p99,
+                   double max, long rejected, long errors, double bytesPerRequest) {
+    }
+}
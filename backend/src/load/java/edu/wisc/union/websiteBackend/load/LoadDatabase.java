@@ -0,0 +1,89 @@
+package edu.wisc.union.websiteBackend.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A throw-away database for one load run: an H2 file in a temp directory, or a real PostgreSQL server started
+ * from the embedded binaries. Either way the schema comes from the Flyway migrations, so a run also checks
+ * that the migrations and the entities agree.
+ */
+abstract class LoadDatabase implements AutoCloseable {
+
+    static LoadDatabase start(String kind) throws IOException {
+        return switch (kind) {
+            case "h2" -> new H2();
+            case "postgres" -> new Postgres();
+            default -> throw new IllegalArgumentException("Unknown database " + kind + ", expected h2 or postgres");
+        };
+    }
+
+    /**
+     * @return the application properties that point the backend at this database
+     */
+    abstract Map<String, String> properties();
+
+    /**
+     * @return the Spring profile to activate for this database, or null for the defaults
+     */
+    abstract String profile();
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    private static final class H2 extends LoadDatabase {
+        private final String url;
+
+        H2() throws IOException {
+            url = "jdbc:h2:file:" + Files.createTempDirectory("wud-load").resolve("load").toAbsolutePath();
+        }
+
+        @Override
+        Map<String, String> properties() {
+            Map<String, String> properties = new LinkedHashMap<>();
+            properties.put("spring.datasource.url", url);
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            return properties;
+        }
+
+        @Override
+        String profile() {
+            return null;
+        }
+    }
+
+    private static final class Postgres extends LoadDatabase {
+        private final EmbeddedPostgres postgres;
+
+        Postgres() throws IOException {
+            // initdb refuses to run as root, so run the harness as an ordinary user for this one
+            postgres = EmbeddedPostgres.builder().start();
+        }
+
+        @Override
+        Map<String, String> properties() {
+            Map<String, String> properties = new LinkedHashMap<>();
+            properties.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres"));
+            properties.put("spring.datasource.username", "postgres");
+            properties.put("spring.datasource.password", "");
+            return properties;
+        }
+
+        @Override
+        String profile() {
+            return "postgres";
+        }
+
+        @Override
+        public void close() throws IOException {
+            postgres.close();
+        }
+    }
+}
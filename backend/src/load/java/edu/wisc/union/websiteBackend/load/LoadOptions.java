@@ -0,0 +1,68 @@
+package edu.wisc.union.websiteBackend.load;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options for {@link GameNightLoad}, given as {@code --name=value}.
+ */
+@Getter
+class LoadOptions {
+    private final int games;
+    private final Duration duration;
+    private final int browsers;
+    private final int hosts;
+    private final Duration statsInterval;
+    private final Duration returnAllInterval;
+    private final Path report;
+    private final Comparison compare;
+    private final String database;
+
+    private LoadOptions(Map<String, String> values) {
+        games = Integer.parseInt(values.getOrDefault("games", "500"));
+        duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("seconds", "30")));
+        browsers = Integer.parseInt(values.getOrDefault("browsers", "48"));
+        hosts = Integer.parseInt(values.getOrDefault("hosts", "8"));
+        statsInterval = Duration.ofMillis(Long.parseLong(values.getOrDefault("stats-interval-ms", "2000")));
+        returnAllInterval = Duration.ofMillis(Long.parseLong(values.getOrDefault("return-all-interval-ms", "15000")));
+        report = Path.of(values.getOrDefault("report", "target/load/load-report.txt"));
+        compare = Comparison.parse(values.getOrDefault("compare", "false"));
+        database = values.getOrDefault("database", "h2");
+    }
+
+    /**
+     * What to run the scenario twice to compare, if anything.
+     */
+    enum Comparison {
+        NONE,
+        /** Platform against virtual request threads; also {@code true}. */
+        THREADS,
+        /** Plain HTTP/1.1 against compressed responses over h2c. */
+        TRANSPORT;
+
+        static Comparison parse(String value) {
+            return switch (value.toLowerCase()) {
+                case "false", "none" -> NONE;
+                case "true", "threads" -> THREADS;
+                case "transport" -> TRANSPORT;
+                default -> throw new IllegalArgumentException("Unknown comparison " + value);
+            };
+        }
+    }
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return new LoadOptions(values);
+    }
+}
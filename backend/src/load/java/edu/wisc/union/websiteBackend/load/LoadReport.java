@@ -0,0 +1,103 @@
+package edu.wisc.union.websiteBackend.load;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput, latency percentiles, error counts and lost-update counts of one scenario run.
+ */
+class LoadReport {
+    private final String label;
+    private final LoadOptions options;
+    private final boolean serverVirtualThreads;
+    private final boolean virtualThreads;
+    private final double seconds;
+    private final Set<HttpClient.Version> versions;
+    private final List<LatencyRecorder.Summary> summaries = new ArrayList<>();
+
+    private int gamesDrifted;
+    private long availabilityDrift;
+    private long expectedCheckouts;
+    private long storedCheckouts;
+    private long statsCheckouts;
+
+    LoadReport(String label, LoadOptions options, boolean serverVirtualThreads, boolean virtualThreads, double seconds,
+               Set<HttpClient.Version> versions) {
+        this.label = label;
+        this.options = options;
+        this.serverVirtualThreads = serverVirtualThreads;
+        this.virtualThreads = virtualThreads;
+        this.seconds = seconds;
+        this.versions = versions;
+    }
+
+    void add(LatencyRecorder.Summary summary) {
+        summaries.add(summary);
+    }
+
+    void lostUpdates(int gamesDrifted, long availabilityDrift, long expectedCheckouts, long storedCheckouts,
+                     long statsCheckouts) {
+        this.gamesDrifted = gamesDrifted;
+        this.availabilityDrift = availabilityDrift;
+        this.expectedCheckouts = expectedCheckouts;
+        this.storedCheckouts = storedCheckouts;
+        this.statsCheckouts = statsCheckouts;
+    }
+
+    long totalErrors() {
+        return summaries.stream().mapToLong(LatencyRecorder.Summary::errors).sum();
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        long requests = summaries.stream().mapToLong(LatencyRecorder.Summary::count).sum();
+        out.append(String.format("== Game night load: %s ==%n", label));
+        out.append(String.format("games=%d browsers=%d hosts=%d duration=%.1fs server-threads=%s client-threads=%s%n",
+                options.getGames(), options.getBrowsers(), options.getHosts(), seconds,
+                serverVirtualThreads ? "virtual" : "platform", virtualThreads ? "virtual" : "platform"));
+        out.append(String.format("protocol: %s%n", versions.stream().map(Enum::name).sorted()
+                .collect(Collectors.joining(", "))));
+        out.append(String.format("total: %d requests, %.1f req/s, %d errors, %.1f MB received%n%n", requests,
+                requests / seconds, totalErrors(), megabytes()));
+        out.append(String.format("%-12s %9s %9s %9s %9s %9s %9s %9s %9s %7s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "KB/req", "rejected", "errors"));
+        for (LatencyRecorder.Summary s : summaries) {
+            out.append(String.format("%-12s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.1f %9d %7d%n",
+                    s.operation(), s.count(), s.throughput(), s.p50(), s.p90(), s.p99(), s.max(),
+                    s.bytesPerRequest() / 1024, s.rejected(), s.errors()));
+        }
+        out.append(String.format("%nlost updates:%n"));
+        out.append(String.format("  availableCopies: %d games off by %d copies in total%n", gamesDrifted, availabilityDrift));
+        out.append(String.format("  checkoutCount:   %d acknowledged, %d stored (%d lost)%n",
+                expectedCheckouts, storedCheckouts, expectedCheckouts - storedCheckouts));
+        out.append(String.format("  daily counts:    %d acknowledged, %d in stats (%d lost)%n",
+                expectedCheckouts, statsCheckouts, expectedCheckouts - statsCheckouts));
+        return out.toString();
+    }
+
+    private double megabytes() {
+        return summaries.stream().mapToDouble(s -> s.bytesPerRequest() * s.count()).sum() / (1024 * 1024);
+    }
+
+    /**
+     * Side-by-side throughput, latency and response size of two runs of the same scenario.
+     */
+    static String compare(LoadReport baseline, LoadReport candidate) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("== %s vs %s ==%n", baseline.label, candidate.label));
+        out.append(String.format("%-12s %11s %11s %11s %11s %11s %11s %11s %11s%n", "operation", "req/s", "req/s",
+                "p50 ms", "p50 ms", "p99 ms", "p99 ms", "KB/req", "KB/req"));
+        for (int i = 0; i < baseline.summaries.size(); i++) {
+            LatencyRecorder.Summary a = baseline.summaries.get(i);
+            LatencyRecorder.Summary b = candidate.summaries.get(i);
+            out.append(String.format("%-12s %11.1f %11.1f %11.2f %11.2f %11.2f %11.2f %11.1f %11.1f%n",
+                    a.operation(), a.throughput(), b.throughput(), a.p50(), b.p50(), a.p99(), b.p99(),
+                    a.bytesPerRequest() / 1024, b.bytesPerRequest() / 1024));
+        }
+        out.append(String.format("received: %.1f MB vs %.1f MB%n", baseline.megabytes(), candidate.megabytes()));
+        return out.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package db.migration;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenre;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits every game's genre text into {@code board_game_genres} and {@code board_game_genre_links}, the way
+ * {@link BoardGameGenre#split(String)} does for games saved later. Walks the games by id a page at a time and
+ * writes each page's links as one JDBC batch, so large catalogs never sit in memory at once.
+ * <p>
+ * Flyway only finds Java migrations in the vendor location it scans, hence one subclass per vendor.
+ */
+public abstract class BoardGameGenreBackfill extends BaseJavaMigration {
+    private static final int PAGE = 1000;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        Map<String, Long> genreIds = new HashMap<>();
+        long nextGenreId = 1;
+        long lastGameId = Long.MIN_VALUE;
+
+        try (PreparedStatement page = connection.prepareStatement(
+                "select id, genre from board_games where id > ? and genre is not null order by id fetch first " + PAGE + " rows only");
+             PreparedStatement insertGenre = connection.prepareStatement(
+                     "insert into board_game_genres (id, name, name_key) values (?, ?, ?)");
+             PreparedStatement insertLink = connection.prepareStatement(
+                     "insert into board_game_genre_links (board_game_id, genre_id) values (?, ?)")) {
+            while (true) {
+                page.setLong(1, lastGameId);
+                int games = 0;
+                int genres = 0;
+                try (ResultSet rows = page.executeQuery()) {
+                    while (rows.next()) {
+                        games++;
+                        lastGameId = rows.getLong("id");
+                        for (Map.Entry<String, String> name : BoardGameGenre.split(rows.getString("genre")).entrySet()) {
+                            Long genreId = genreIds.get(name.getKey());
+                            if (genreId == null) {
+                                genreId = nextGenreId++;
+                                genreIds.put(name.getKey(), genreId);
+                                insertGenre.setLong(1, genreId);
+                                insertGenre.setString(2, name.getValue());
+                                insertGenre.setString(3, name.getKey());
+                                insertGenre.addBatch();
+                                genres++;
+                            }
+                            insertLink.setLong(1, lastGameId);
+                            insertLink.setLong(2, genreId);
+                            insertLink.addBatch();
+                        }
+                    }
+                }
+                if (genres > 0) {
+                    insertGenre.executeBatch();
+                }
+                insertLink.executeBatch();
+                if (games < PAGE) {
+                    break;
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter sequence board_game_genres_seq restart with " + nextGenreId);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package db.migration.h2;
+
+import db.migration.BoardGameGenreBackfill;
+
+public class V8__Link_board_game_genres extends BoardGameGenreBackfill {
+}
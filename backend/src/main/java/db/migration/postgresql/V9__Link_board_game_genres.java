@@ -0,0 +1,6 @@
+package db.migration.postgresql;
+
+import db.migration.BoardGameGenreBackfill;
+
+public class V9__Link_board_game_genres extends BoardGameGenreBackfill {
+}
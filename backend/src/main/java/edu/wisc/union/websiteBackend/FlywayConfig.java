@@ -0,0 +1,53 @@
+package edu.wisc.union.websiteBackend;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Flyway owns the schema; Hibernate only validates it. Migrations live per database vendor under
+ * {@code db/migration/h2} and {@code db/migration/postgresql} because generated columns and search indexes are
+ * spelled differently on each. An explicit {@code spring.flyway.locations} is left alone.
+ * <p>
+ * Databases created by release 1.2.0 through {@code ddl-auto: update} have tables but no Flyway history; they
+ * are baselined at V1 (the 1.2.0 schema) so only the later migrations run against them.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final String DEFAULT_LOCATION = "classpath:db/migration";
+
+    @Bean
+    public FlywayConfigurationCustomizer vendorMigrationsCustomizer(
+            @Value("${spring.flyway.baseline-on-migrate:true}") boolean baselineOnMigrate) {
+        return configuration -> {
+            Location[] locations = configuration.getLocations();
+            if (locations.length == 1 && DEFAULT_LOCATION.equals(locations[0].getDescriptor())) {
+                configuration.locations(DEFAULT_LOCATION + "/" + vendor(configuration.getDataSource()));
+            }
+            configuration.baselineOnMigrate(baselineOnMigrate);
+        };
+    }
+
+    private static String vendor(DataSource dataSource) {
+        try {
+            String url = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getURL);
+            DatabaseDriver driver = DatabaseDriver.fromJdbcUrl(url);
+            if (driver == DatabaseDriver.UNKNOWN) {
+                throw new IllegalStateException("No migrations for database " + url
+                        + "; set spring.flyway.locations explicitly");
+            }
+            return driver.getId();
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Unable to determine the database vendor for migrations", e);
+        }
+    }
+}
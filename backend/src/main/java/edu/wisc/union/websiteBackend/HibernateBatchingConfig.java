@@ -0,0 +1,28 @@
+package edu.wisc.union.websiteBackend;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JDBC batching for the bulk write paths (CSV import, return-all, checkout bookkeeping). Statements are grouped
+ * per table so consecutive inserts and updates can share one batch, and the batch size matches the sequences'
+ * allocationSize so a full batch of new rows costs one sequence call. Anything set explicitly under
+ * {@code spring.jpa.properties} wins over these defaults.
+ */
+@Configuration
+public class HibernateBatchingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateBatchingCustomizer(
+            @Value("${hibernate-batching.batch-size:50}") int batchSize) {
+        return hibernateProperties -> {
+            hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+            hibernateProperties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.ORDER_UPDATES, true);
+            hibernateProperties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package edu.wisc.union.websiteBackend;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import edu.wisc.union.websiteBackend.jpa.CacheRegions;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level and query cache for the read-mostly entities, kept in bounded, expiring Caffeine caches.
+ * Hibernate keeps the cache consistent with the controllers' writes itself: saves and deletes update the
+ * entity regions (READ_WRITE), and any write to a table invalidates the cached query results that read it.
+ */
+@Slf4j
+@Configuration
+public class HibernateCacheConfig {
+    private static final String CAFFEINE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        // A private manager per application context, so two contexts in one JVM never share regions
+        CacheManager cacheManager = Caching.getCachingProvider(CAFFEINE_PROVIDER)
+                .getCacheManager(URI.create("wud-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : CacheRegions.ENTITY_REGIONS) {
+            createRegion(cacheManager, region, properties.region(region));
+        }
+        createRegion(cacheManager, CacheRegions.QUERY_RESULTS, properties.region(CacheRegions.QUERY_RESULTS));
+        cacheManager.createCache(CacheRegions.UPDATE_TIMESTAMPS, new CaffeineConfiguration<>().setStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(HibernateCacheProperties properties,
+                                                                  CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isEnabled());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isEnabled() && properties.isQueryCache());
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, properties.isStatistics());
+            // Statistics would otherwise log a "Session Metrics" block at INFO for every session
+            hibernateProperties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+            if (properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+                hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+                // Every region is created above; a missing one means an entity was annotated without being sized
+                hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            }
+        };
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, HibernateCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(region.getMaxEntries()))
+                .setStatisticsEnabled(true);
+        if (region.getTimeToLive() != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTimeToLive().toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+        log.debug("Hibernate cache region {}: {} entries, expires after {}", name, region.getMaxEntries(),
+                region.getTimeToLive());
+    }
+}
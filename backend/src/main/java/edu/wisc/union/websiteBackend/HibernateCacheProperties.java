@@ -0,0 +1,50 @@
+package edu.wisc.union.websiteBackend;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "hibernate-cache")
+@Data
+public class HibernateCacheProperties {
+    /**
+     * Cache Console, ConsoleGenre and BoardGame entities in memory between sessions.
+     */
+    private boolean enabled = true;
+    /**
+     * Also cache the results of the queries marked cacheable (catalog listings and lookups by name).
+     */
+    private boolean queryCache = true;
+    /**
+     * Collect Hibernate statistics, needed for the hit ratios at {@code /api/admin/cache}. Off by default, since
+     * counting costs a little on every session; turn it on while tuning the regions.
+     */
+    private boolean statistics = false;
+    /**
+     * Size and lifetime of every region not listed under {@link #regions}.
+     */
+    private Region defaults = new Region(10_000, Duration.ofMinutes(30));
+    /**
+     * Per-region overrides, keyed by region name (boardGame, console, consoleGenre, default-query-results-region).
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public Region region(String name) {
+        return regions.getOrDefault(name, defaults);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private long maxEntries;
+        private Duration timeToLive;
+    }
+}
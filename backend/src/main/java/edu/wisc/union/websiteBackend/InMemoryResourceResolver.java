@@ -0,0 +1,140 @@
+package edu.wisc.union.websiteBackend;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the bytes of resolved static resources in memory, so the frontend bundle is read from the classpath once
+ * rather than on every request. Entries are keyed by path and by the encodings the client accepts, so the gzip,
+ * brotli and identity variants chosen further down the chain are cached separately; headers the chain adds
+ * (Content-Encoding, Vary) are kept with the bytes. Only paths that resolve are cached, so the map holds at most
+ * the bundle's files times the encodings; unknown paths go down the chain every time.
+ */
+@Slf4j
+public class InMemoryResourceResolver implements ResourceResolver {
+    private final long maxFileSize;
+    private final Map<String, Resource> cache = new ConcurrentHashMap<>();
+
+    public InMemoryResourceResolver(long maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        String key = requestPath + "+encoding=" + acceptedEncodings(request);
+        Resource cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Resource resolved = chain.resolveResource(request, requestPath, locations);
+        if (resolved == null) {
+            return null;
+        }
+        Resource result = load(resolved);
+        cache.put(key, result);
+        return result;
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+
+    private Resource load(Resource resource) {
+        try {
+            long length = resource.contentLength();
+            if (length > maxFileSize) {
+                return resource;
+            }
+            byte[] bytes;
+            try (InputStream in = resource.getInputStream()) {
+                bytes = in.readAllBytes();
+            }
+            HttpHeaders headers = resource instanceof HttpResource httpResource
+                    ? httpResource.getResponseHeaders() : HttpHeaders.EMPTY;
+            return new InMemoryResource(resource.getFilename(), bytes, resource.lastModified(), headers);
+        } catch (IOException e) {
+            log.debug("Serving {} from the classpath: {}", resource, e.getMessage());
+            return resource;
+        }
+    }
+
+    private static String acceptedEncodings(HttpServletRequest request) {
+        String header = request != null ? request.getHeader(HttpHeaders.ACCEPT_ENCODING) : null;
+        if (header == null) {
+            return "";
+        }
+        header = header.toLowerCase(Locale.ROOT);
+        return (header.contains("br") ? "br," : "") + (header.contains("gzip") ? "gzip" : "");
+    }
+
+    private static final class InMemoryResource extends AbstractResource implements HttpResource {
+        private final String filename;
+        private final byte[] bytes;
+        private final long lastModified;
+        private final HttpHeaders headers;
+
+        private InMemoryResource(String filename, byte[] bytes, long lastModified, HttpHeaders headers) {
+            this.filename = filename;
+            this.bytes = bytes;
+            this.lastModified = lastModified;
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getDescription() {
+            return "in-memory copy of " + filename;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return bytes.length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public byte[] getContentAsByteArray() {
+            return bytes;
+        }
+
+        @Override
+        public HttpHeaders getResponseHeaders() {
+            return headers;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package edu.wisc.union.websiteBackend;
 
+import edu.wisc.union.websiteBackend.admission.AdmissionFilter;
+import edu.wisc.union.websiteBackend.admission.AdmissionProperties;
 import edu.wisc.union.websiteBackend.auth.JwtUtil;
 import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
@@ -17,6 +19,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
@@ -38,9 +41,11 @@ import java.util.Collections;
 
 public class SecurityConfig {
     private final JwtUtil jwtUtil;
+    private final AdmissionProperties admissionProperties;
 
-    public SecurityConfig(JwtUtil jwtUtil) {
+    public SecurityConfig(JwtUtil jwtUtil, AdmissionProperties admissionProperties) {
         this.jwtUtil = jwtUtil;
+        this.admissionProperties = admissionProperties;
     }
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -65,6 +70,10 @@ public class SecurityConfig {
                 .headers(headers -> headers.referrerPolicy(referrerPolicy -> referrerPolicy.policy(ReferrerPolicyHeaderWriter.ReferrerPolicy.SAME_ORIGIN)))
 
         ;
+        // Once the caller is known, so limits can follow the user rather than the address
+        if (admissionProperties.isEnabled()) {
+            http.addFilterAfter(new AdmissionFilter(admissionProperties, jwtUtil), AnonymousAuthenticationFilter.class);
+        }
 
         //.oauth2ResourceServer(oauth2 -> oauth2.jwt());
 //                .logout((logout) -> logout.logoutSuccessUrl("/")
@@ -0,0 +1,40 @@
+package edu.wisc.union.websiteBackend;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.util.List;
+
+/**
+ * Answers client-side routes of the React app ({@code /board-games/42}, {@code /video-games}, ...) with
+ * {@code index.html}. Any path that is not a file and has no extension in its last segment counts as a route;
+ * API paths never do, so unknown API calls still 404.
+ */
+public class SpaFallbackResourceResolver implements ResourceResolver {
+    private static final String INDEX = "index.html";
+
+    @Override
+    public Resource resolveResource(HttpServletRequest request, String requestPath,
+                                    List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null && isClientRoute(requestPath)) {
+            return chain.resolveResource(request, INDEX, locations);
+        }
+        return resource;
+    }
+
+    @Override
+    public String resolveUrlPath(String resourcePath, List<? extends Resource> locations, ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourcePath, locations);
+    }
+
+    static boolean isClientRoute(String path) {
+        if (path.startsWith("api/") || path.equals("api") || path.startsWith("assets/")) {
+            return false;
+        }
+        String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+        return !lastSegment.contains(".");
+    }
+}
@@ -0,0 +1,26 @@
+package edu.wisc.union.websiteBackend;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "static-assets")
+@Data
+public class StaticAssetProperties {
+    /**
+     * Cache lifetime of the fingerprinted files under {@code /assets/}, whose names change with their content.
+     */
+    private Duration assetsMaxAge = Duration.ofDays(365);
+    /**
+     * Keep the bytes of served frontend files in memory instead of reading them from the classpath each time.
+     */
+    private boolean memoryCache = true;
+    /**
+     * Files larger than this are always read from the classpath.
+     */
+    private DataSize memoryCacheMaxFileSize = DataSize.ofMegabytes(2);
+}
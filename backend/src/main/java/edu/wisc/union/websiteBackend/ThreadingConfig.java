@@ -0,0 +1,35 @@
+package edu.wisc.union.websiteBackend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Request, {@code @Async} and background job threading. With the {@code virtual-threads} profile (or
+ * {@code spring.threads.virtual.enabled=true}) on Java 21+, Tomcat, the application task executor and
+ * everything submitted to it run on virtual threads; otherwise the usual platform thread pools are used.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class ThreadingConfig {
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests and async work on virtual threads");
+        } else if (requested) {
+            // Spring Boot silently ignores the flag below Java 21
+            log.warn("Virtual threads were requested but the JVM is Java {}; using platform threads. " +
+                    "Build with -Pjava21 and run on Java 21 or newer.", JavaVersion.getJavaVersion());
+        }
+    }
+}
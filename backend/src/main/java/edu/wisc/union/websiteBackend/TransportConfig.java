@@ -0,0 +1,88 @@
+package edu.wisc.union.websiteBackend;
+
+import jakarta.servlet.ServletException;
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Connection-level settings of the embedded Tomcat: response compression, cleartext HTTP/2 and keep-alive, see
+ * {@link TransportProperties}.
+ * <p>
+ * Tomcat compresses by content type only, so the paths excluded from compression lose their
+ * {@code Accept-Encoding} header before they reach the application. Tomcat also never compresses a response
+ * with a strong ETag, which keeps it from re-encoding the box art and anything else that must stay
+ * byte-for-byte; responses that should be compressed despite an ETag use a weak one.
+ */
+@Configuration
+public class TransportConfig {
+
+    @Bean
+    public TomcatConnectorCustomizer transportConnectorCustomizer(TransportProperties properties) {
+        return connector -> {
+            ProtocolHandler handler = connector.getProtocolHandler();
+            if (!(handler instanceof AbstractHttp11Protocol<?> protocol)) {
+                return;
+            }
+            TransportProperties.Compression compression = properties.getCompression();
+            if (compression.isEnabled()) {
+                protocol.setCompression("on");
+                protocol.setCompressionMinSize((int) compression.getMinResponseSize().toBytes());
+                protocol.setCompressibleMimeType(String.join(",", compression.getMimeTypes()));
+            }
+            int keepAliveMillis = (int) properties.getKeepAlive().getTimeout().toMillis();
+            protocol.setKeepAliveTimeout(keepAliveMillis);
+            protocol.setMaxKeepAliveRequests(properties.getKeepAlive().getMaxRequests());
+
+            // Without TLS, the HTTP/2 upgrade protocol serves h2c; it takes its compression from the connector
+            if (properties.getHttp2().isEnabled()) {
+                Http2Protocol http2 = new Http2Protocol();
+                http2.setKeepAliveTimeout(keepAliveMillis);
+                http2.setMaxConcurrentStreams(properties.getHttp2().getMaxConcurrentStreams());
+                connector.addUpgradeProtocol(http2);
+            }
+        };
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> compressionExclusionCustomizer(
+            TransportProperties properties) {
+        return factory -> {
+            TransportProperties.Compression compression = properties.getCompression();
+            if (compression.isEnabled() && !compression.getExcludedPaths().isEmpty()) {
+                factory.addContextValves(new UncompressedPathsValve(compression.getExcludedPaths()));
+            }
+        };
+    }
+
+    static class UncompressedPathsValve extends ValveBase {
+        private final AntPathMatcher matcher = new AntPathMatcher();
+        private final List<String> patterns;
+
+        UncompressedPathsValve(List<String> patterns) {
+            super(true);
+            this.patterns = List.copyOf(patterns);
+        }
+
+        @Override
+        public void invoke(Request request, Response response) throws IOException, ServletException {
+            String path = request.getDecodedRequestURI().substring(request.getContextPath().length());
+            if (patterns.stream().anyMatch(pattern -> matcher.match(pattern, path))) {
+                request.getCoyoteRequest().getMimeHeaders().removeHeader("accept-encoding");
+            }
+            getNext().invoke(request, response);
+        }
+    }
+}
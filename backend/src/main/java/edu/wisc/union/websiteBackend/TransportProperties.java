@@ -0,0 +1,68 @@
+package edu.wisc.union.websiteBackend;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "transport")
+@Data
+public class TransportProperties {
+    private Compression compression = new Compression();
+    private Http2 http2 = new Http2();
+    private KeepAlive keepAlive = new KeepAlive();
+
+    @Data
+    public static class Compression {
+        /**
+         * Gzip responses for clients that accept it. Replaces {@code server.compression}, which is left alone
+         * when this is off.
+         */
+        private boolean enabled = true;
+        /**
+         * Responses known to be smaller than this are sent as they are.
+         */
+        private DataSize minResponseSize = DataSize.ofKilobytes(1);
+        /**
+         * Content types worth compressing. Images are already compressed and are never listed.
+         */
+        private List<String> mimeTypes = new ArrayList<>(List.of(
+                "application/json", "application/vnd.wudgames.catalog", "text/csv", "text/html", "text/css",
+                "text/plain", "text/javascript", "application/javascript", "image/svg+xml"));
+        /**
+         * Request paths (Ant patterns) never compressed, whatever their content type: streamed responses,
+         * which compression would hold back, and content that is already compressed.
+         */
+        private List<String> excludedPaths = new ArrayList<>(List.of("/api/images/**", "/api/search/everywhere"));
+    }
+
+    @Data
+    public static class Http2 {
+        /**
+         * Accept cleartext HTTP/2 (h2c), by upgrade or with prior knowledge, next to HTTP/1.1. Behind a proxy
+         * that terminates TLS, enable HTTP/2 there instead.
+         */
+        private boolean enabled = false;
+        /**
+         * Streams a client may have open at once on one connection.
+         */
+        private long maxConcurrentStreams = 100;
+    }
+
+    @Data
+    public static class KeepAlive {
+        /**
+         * How long an idle connection is kept open for the next request.
+         */
+        private Duration timeout = Duration.ofSeconds(20);
+        /**
+         * Requests served on one HTTP/1.1 connection before it is closed; -1 for no limit.
+         */
+        private int maxRequests = 100;
+    }
+}
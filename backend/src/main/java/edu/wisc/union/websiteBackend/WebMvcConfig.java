@@ -1,20 +1,54 @@
 package edu.wisc.union.websiteBackend;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
 @Configuration
 //@EnableWebMvc
 public class WebMvcConfig implements WebMvcConfigurer {
+    private static final String STATIC_LOCATION = "classpath:/static/";
+
+    private final StaticAssetProperties staticAssetProperties;
+
+    public WebMvcConfig(StaticAssetProperties staticAssetProperties) {
+        this.staticAssetProperties = staticAssetProperties;
+    }
 
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
-        // Forward all paths to index.html to handle client-side routing
         registry.addViewController("/").setViewName("forward:/index.html");
-        registry.addViewController("/board-games").setViewName("forward:/index.html");
-        registry.addViewController("/video-games").setViewName("forward:/index.html");
     }
-}
 
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Vite fingerprints everything under assets/, so a name never gets new content
+        ResourceChainRegistration assets = registry.addResourceHandler("/assets/**")
+                .addResourceLocations(STATIC_LOCATION + "assets/")
+                .setCacheControl(CacheControl.maxAge(staticAssetProperties.getAssetsMaxAge()).cachePublic().immutable())
+                .resourceChain(false);
+        addCompressedChain(assets);
+
+        // index.html and the unhashed public/ files must be revalidated so a deploy is picked up immediately.
+        // Client-side routes are forwarded to index.html (see SpaFallbackResourceResolver).
+        ResourceChainRegistration root = registry.addResourceHandler("/**")
+                .addResourceLocations(STATIC_LOCATION)
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(false)
+                .addResolver(new SpaFallbackResourceResolver());
+        addCompressedChain(root);
+    }
+
+    // Serve the .br/.gz files written by the frontend build to clients that accept them
+    private void addCompressedChain(ResourceChainRegistration chain) {
+        if (staticAssetProperties.isMemoryCache()) {
+            chain.addResolver(new InMemoryResourceResolver(staticAssetProperties.getMemoryCacheMaxFileSize().toBytes()));
+        }
+        chain.addResolver(new EncodedResourceResolver());
+    }
+}
@@ -0,0 +1,201 @@
+package edu.wisc.union.websiteBackend.admission;
+
+import edu.wisc.union.websiteBackend.auth.JwtUtil;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits each request against the first {@link AdmissionProperties.Group route group} its path matches: first
+ * the client's {@link TokenBucket} for its access level, then the group's {@link ConcurrencyGate}. A request
+ * turned away gets a 429 with {@code Retry-After} and error code A120, before any controller runs.
+ * <p>
+ * Sits after the authentication filters, so a signed-in host or admin is counted by user wherever they connect
+ * from, and everyone else by address.
+ */
+@Log4j2
+public class AdmissionFilter extends OncePerRequestFilter {
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final JwtUtil jwtUtil;
+    private final boolean trustForwardedFor;
+    private final List<RouteGroup> groups = new ArrayList<>();
+
+    public AdmissionFilter(AdmissionProperties properties, JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+        this.trustForwardedFor = properties.isTrustForwardedFor();
+        properties.getGroups().forEach((name, group) -> groups.add(new RouteGroup(name, group, properties.getMaxClients())));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        RouteGroup group = groups.stream()
+                .filter(g -> g.paths.stream().anyMatch(pattern -> matcher.match(pattern, path)))
+                .findFirst()
+                .orElse(null);
+        if (group == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        JwtUtil.AccessLevel level = jwtUtil.getCurrentAccessLevel();
+        if (level == null) {
+            level = JwtUtil.AccessLevel.ANONYMOUS;
+        }
+        String client = level == JwtUtil.AccessLevel.ANONYMOUS
+                ? clientAddress(request)
+                : jwtUtil.getCurrentUsername();
+        Duration wait = group.acquire(level, client);
+        if (!wait.isZero()) {
+            reject(response, group, client, wait, "Too many requests; try again shortly.");
+            return;
+        }
+
+        if (group.gate == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        boolean admitted;
+        try {
+            admitted = group.gate.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, group, client, Duration.ofSeconds(1), "The server is busy; try again shortly.");
+            return;
+        }
+
+        // A streamed response keeps its slot until the stream ends, not just until the handler returns
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                group.gate.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private String clientAddress(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                return forwardedFor.split(",", 2)[0].trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, RouteGroup group, String client, Duration wait, String message)
+            throws IOException {
+        long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        log.debug("Turned away {} in {} for {}s", client, group.name, seconds);
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{ \"errorCode\" : \"A120\", \"errorMessage\": \"" + message + "\"}");
+    }
+
+    private static final class RouteGroup {
+        private final String name;
+        private final List<String> paths;
+        private final Map<JwtUtil.AccessLevel, AdmissionProperties.Limit> limits = new EnumMap<>(JwtUtil.AccessLevel.class);
+        private final ConcurrencyGate gate;
+        private final int maxClients;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+
+        RouteGroup(String name, AdmissionProperties.Group group, int maxClients) {
+            this.name = name;
+            this.paths = List.copyOf(group.getPaths());
+            group.getLimits().forEach((level, limit) ->
+                    limits.put(JwtUtil.AccessLevel.valueOf(level.toUpperCase(Locale.ROOT)), limit));
+            this.gate = group.getMaxConcurrent() > 0
+                    ? new ConcurrencyGate(group.getMaxConcurrent(), group.getMaxQueued(), group.getQueueTimeout())
+                    : null;
+            this.maxClients = maxClients;
+        }
+
+        /**
+         * @return zero if the client may go ahead, otherwise how long until it may
+         */
+        Duration acquire(JwtUtil.AccessLevel level, String client) {
+            AdmissionProperties.Limit limit = limits.get(level);
+            if (limit == null) {
+                return Duration.ZERO;
+            }
+            // Keyed by level too, so a user whose level changes starts on the new limit
+            String key = level.name() + ':' + client;
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= maxClients) {
+                    forgetIdleClients();
+                }
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.getRequestsPerSecond(), limit.getBurst()));
+            }
+            return bucket.tryAcquire();
+        }
+
+        // A full bucket is the same as a new one, so dropping it loses nothing
+        private void forgetIdleClients() {
+            if (sweeping.compareAndSet(false, true)) {
+                try {
+                    buckets.values().removeIf(TokenBucket::isFull);
+                } finally {
+                    sweeping.set(false);
+                }
+            }
+        }
+    }
+
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package edu.wisc.union.websiteBackend.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "admission")
+@Data
+public class AdmissionProperties {
+    /**
+     * Rate-limit and queue requests per route group; see {@link AdmissionFilter}.
+     */
+    private boolean enabled = true;
+    /**
+     * Take the client's address from the first {@code X-Forwarded-For} entry. Only turn this on behind a
+     * reverse proxy that sets the header, or clients can pick their own address.
+     */
+    private boolean trustForwardedFor = false;
+    /**
+     * Clients tracked per group before idle ones are forgotten.
+     */
+    private int maxClients = 10_000;
+    /**
+     * Route groups, tried in order; the first whose paths match a request applies. Requests matching none
+     * are not limited.
+     */
+    private Map<String, Group> groups = new LinkedHashMap<>(defaultGroups());
+
+    @Data
+    public static class Group {
+        /**
+         * Ant patterns of the request paths in the group.
+         */
+        private List<String> paths = new ArrayList<>();
+        /**
+         * Rate per client, keyed by access level ({@code anonymous}, {@code host}, {@code admin}). Anonymous
+         * clients are counted per address, signed-in ones per user. A level without a limit is not rate-limited.
+         */
+        private Map<String, Limit> limits = new LinkedHashMap<>();
+        /**
+         * Requests of the group served at once, across all clients; 0 for no limit.
+         */
+        private int maxConcurrent = 0;
+        /**
+         * Requests allowed to wait for one of those slots. Any more are turned away at once.
+         */
+        private int maxQueued = 0;
+        /**
+         * How long a queued request waits for a slot before it is turned away.
+         */
+        private Duration queueTimeout = Duration.ofSeconds(1);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        private double requestsPerSecond;
+        private int burst;
+    }
+
+    // The third-party lookups spend our BGG/Steam quota and are the ones worth guarding closely; the rest of
+    // the API only needs a ceiling, loose enough for a venue's guests sharing one address
+    private static Map<String, Group> defaultGroups() {
+        Group lookups = new Group();
+        lookups.setPaths(new ArrayList<>(List.of("/api/bgg/**", "/api/consoles/steam/**", "/api/consoles/vgg/**",
+                "/api/search/**", "/api/lookup")));
+        lookups.getLimits().put("anonymous", new Limit(2, 10));
+        lookups.getLimits().put("host", new Limit(5, 20));
+        lookups.setMaxConcurrent(16);
+        lookups.setMaxQueued(32);
+
+        Group api = new Group();
+        api.setPaths(new ArrayList<>(List.of("/api/**")));
+        api.getLimits().put("anonymous", new Limit(50, 200));
+        api.getLimits().put("host", new Limit(50, 200));
+
+        Map<String, Group> groups = new LinkedHashMap<>();
+        groups.put("lookups", lookups);
+        groups.put("api", api);
+        return groups;
+    }
+}
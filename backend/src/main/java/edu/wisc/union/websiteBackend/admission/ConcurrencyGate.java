@@ -0,0 +1,45 @@
+package edu.wisc.union.websiteBackend.admission;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed number of slots with a bounded line in front of them. A request that finds the line full is turned
+ * away at once instead of adding to everyone's wait.
+ */
+class ConcurrencyGate {
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final long timeoutNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    ConcurrencyGate(int maxConcurrent, int maxQueued, Duration timeout) {
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * @return whether a slot was taken; if so it must be {@linkplain #release() released}
+     */
+    boolean enter() throws InterruptedException {
+        if (slots.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return slots.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    void release() {
+        slots.release();
+    }
+}
@@ -0,0 +1,70 @@
+package edu.wisc.union.websiteBackend.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code burst} requests and refilling at {@code ratePerSecond}. Callers
+ * either reserve a request and wait the returned time before sending it, so requests queue up in arrival order
+ * instead of spinning, or {@linkplain #tryAcquire() try} to take one and turn the request away if there is none.
+ * <p>
+ * Rather than a token count, the bucket stores when the next request would go out at the steady rate; each
+ * reservation moves that time one interval on, and may run up to {@code burst - 1} intervals ahead of it. An
+ * idle bucket is full again once that time has passed. One compare-and-set per reservation.
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("The rate must be positive and the burst at least 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+    }
+
+    /**
+     * Take one request from the bucket.
+     *
+     * @return how long to wait before sending it
+     */
+    public Duration reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = nextFree.get();
+            long start = Math.max(current, now);
+            if (nextFree.compareAndSet(current, start + intervalNanos)) {
+                return Duration.ofNanos(Math.max(0, start - toleranceNanos - now));
+            }
+        }
+    }
+
+    /**
+     * Take one request from the bucket if it holds one.
+     *
+     * @return zero if the request was taken, otherwise how long until the bucket will hold one
+     */
+    public Duration tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = nextFree.get();
+            long start = Math.max(current, now);
+            long wait = start - toleranceNanos - now;
+            if (wait > 0) {
+                return Duration.ofNanos(wait);
+            }
+            if (nextFree.compareAndSet(current, start + intervalNanos)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket is full, i.e. no different from a new one.
+     */
+    public boolean isFull() {
+        return nextFree.get() - System.nanoTime() <= 0;
+    }
+}
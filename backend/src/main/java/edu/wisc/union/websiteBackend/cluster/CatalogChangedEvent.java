@@ -0,0 +1,55 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by the controllers after every catalog write, and again locally when another node reports one
+ * ({@code remote = true}). Anything that caches catalog data in memory listens for it; the
+ * {@link CatalogInvalidator} forwards the local ones to the other nodes when cluster mode is on.
+ *
+ * @param entity what was written
+ * @param action whether the rows were saved (inserted or updated) or deleted
+ * @param ids    the ids written; empty when any row of that kind may have changed
+ * @param remote whether the write happened on another node
+ */
+public record CatalogChangedEvent(Entity entity, Action action, List<Long> ids, boolean remote) {
+
+    public enum Entity {
+        BOARD_GAME, CONSOLE, CONSOLE_GAME, CONSOLE_GENRE, STEAM_ACCOUNT
+    }
+
+    public enum Action {
+        SAVED, DELETED
+    }
+
+    public static CatalogChangedEvent saved(Entity entity, Long id) {
+        return new CatalogChangedEvent(entity, Action.SAVED, List.of(id), false);
+    }
+
+    public static CatalogChangedEvent saved(Entity entity, Collection<Long> ids) {
+        return new CatalogChangedEvent(entity, Action.SAVED, List.copyOf(ids), false);
+    }
+
+    public static CatalogChangedEvent deleted(Entity entity, Long id) {
+        return new CatalogChangedEvent(entity, Action.DELETED, List.of(id), false);
+    }
+
+    /**
+     * Every row of {@code entity} may have changed, e.g. after a node lost track of another's updates.
+     */
+    public static CatalogChangedEvent all(Entity entity, boolean remote) {
+        return new CatalogChangedEvent(entity, Action.SAVED, List.of(), remote);
+    }
+
+    /**
+     * This event, or {@link #all} if it names more than {@code maxIds} rows; for transports with a size limit.
+     */
+    public CatalogChangedEvent coarsened(int maxIds) {
+        return ids.size() > maxIds ? all(entity, remote) : this;
+    }
+
+    public boolean allRows() {
+        return ids.isEmpty();
+    }
+}
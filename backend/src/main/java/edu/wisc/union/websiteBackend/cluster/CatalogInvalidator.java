@@ -0,0 +1,109 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.Console;
+import edu.wisc.union.websiteBackend.jpa.ConsoleGenre;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the in-memory caches of every node in step with the catalog writes of the others. Local writes go out
+ * on the {@link InvalidationBus} once their transaction commits; writes reported by other nodes evict the
+ * affected second-level cache entries and all cached query results here, then are republished locally as
+ * remote {@link CatalogChangedEvent}s for any other cache to act on.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class CatalogInvalidator implements SmartLifecycle {
+    private final InvalidationBus bus;
+    private final ClusterProperties properties;
+    private final Cache cache;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private volatile Instant lastReceived;
+    private volatile boolean running;
+
+    public CatalogInvalidator(InvalidationBus bus, ClusterProperties properties,
+                              EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher) {
+        this.bus = bus;
+        this.properties = properties;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.eventPublisher = eventPublisher;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.remote()) {
+            bus.publish(event);
+            published.incrementAndGet();
+        }
+    }
+
+    void receive(CatalogChangedEvent event) {
+        evict(event);
+        received.incrementAndGet();
+        lastReceived = Instant.now();
+        eventPublisher.publishEvent(event);
+    }
+
+    private void evict(CatalogChangedEvent event) {
+        Class<?> entityClass = switch (event.entity()) {
+            case BOARD_GAME -> BoardGame.class;
+            case CONSOLE -> Console.class;
+            case CONSOLE_GENRE -> ConsoleGenre.class;
+            // Not cached itself, but listings that join it are
+            case CONSOLE_GAME -> null;
+            // Not cached; the rental index reloads it from the republished event
+            case STEAM_ACCOUNT -> null;
+        };
+        if (entityClass != null) {
+            if (event.allRows()) {
+                cache.evictEntityData(entityClass);
+            } else {
+                event.ids().forEach(id -> cache.evictEntityData(entityClass, id));
+            }
+        }
+        // Query results are invalidated per table by local writes only; the remote write is invisible to them
+        cache.evictQueryRegions();
+    }
+
+    public ClusterStatus status() {
+        return new ClusterStatus(properties.getNodeId(), properties.getBus(), published.get(), received.get(),
+                lastReceived);
+    }
+
+    public record ClusterStatus(String nodeId, ClusterProperties.BusType bus, long published, long received,
+                                Instant lastReceived) {
+    }
+
+    @Override
+    public void start() {
+        bus.start(this::receive);
+        running = true;
+        log.info("Cluster mode on: node {} on the {} bus", properties.getNodeId(), properties.getBus());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        bus.stop();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cluster", name = "enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    public InvalidationBus invalidationBus(ClusterProperties properties, ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        return switch (properties.getBus()) {
+            case IN_MEMORY -> new InMemoryInvalidationBus(properties.getInMemory().getChannel());
+            case JDBC -> new JdbcInvalidationBus(jdbcTemplate.getObject(), properties.getNodeId(), properties.getJdbc());
+            case MULTICAST -> new MulticastInvalidationBus(properties.getNodeId(), properties.getMulticast());
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+/**
+ * A {@link CatalogChangedEvent} on the wire, tagged with the sending node. {@code sequence} numbers a node's
+ * messages for transports that can lose them; a heartbeat repeats the last sequence without an event.
+ */
+record ClusterMessage(String origin, long sequence, CatalogChangedEvent.Entity entity,
+                      CatalogChangedEvent.Action action, List<Long> ids) {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static ClusterMessage of(String origin, long sequence, CatalogChangedEvent event) {
+        return new ClusterMessage(origin, sequence, event.entity(), event.action(), event.ids());
+    }
+
+    static ClusterMessage heartbeat(String origin, long sequence) {
+        return new ClusterMessage(origin, sequence, null, null, List.of());
+    }
+
+    boolean hasEvent() {
+        return entity != null;
+    }
+
+    CatalogChangedEvent event() {
+        return new CatalogChangedEvent(entity, action, ids == null ? List.of() : ids, true);
+    }
+
+    String toJson() {
+        try {
+            return MAPPER.writeValueAsString(this);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static ClusterMessage fromJson(String json) throws JsonProcessingException {
+        return MAPPER.readValue(json, ClusterMessage.class);
+    }
+}
@@ -0,0 +1,79 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+@ConfigurationProperties(prefix = "cluster")
+@Data
+public class ClusterProperties {
+    /**
+     * Tell the other backend nodes about catalog writes and apply theirs to the local caches. Needed as soon as
+     * more than one node serves the same database.
+     */
+    private boolean enabled = false;
+    /**
+     * How nodes reach each other: jdbc (an event table in the shared database), multicast (UDP on the LAN) or
+     * in-memory (nodes in the same JVM, for tests).
+     */
+    private BusType bus = BusType.JDBC;
+    /**
+     * This node's name on the bus; a new random one on every start unless set.
+     */
+    private String nodeId = UUID.randomUUID().toString();
+    private Jdbc jdbc = new Jdbc();
+    private Multicast multicast = new Multicast();
+    private InMemory inMemory = new InMemory();
+
+    public enum BusType {
+        IN_MEMORY, JDBC, MULTICAST
+    }
+
+    @Data
+    public static class Jdbc {
+        /**
+         * How often each node reads the event table; also the longest a remote write can stay invisible.
+         */
+        private Duration pollInterval = Duration.ofSeconds(1);
+        /**
+         * How far back each poll looks, to catch events committed out of id order. Must exceed the clock skew
+         * between nodes.
+         */
+        private Duration lookback = Duration.ofSeconds(30);
+        /**
+         * Events older than this are deleted from the table.
+         */
+        private Duration retention = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Multicast {
+        private String group = "239.255.42.99";
+        private int port = 45678;
+        /**
+         * Network interface to join the group on, e.g. eth0; the system default when unset.
+         */
+        private String networkInterface;
+        /**
+         * Router hops a datagram may cross; 1 keeps it on the local subnet.
+         */
+        private int timeToLive = 1;
+        /**
+         * How often each node announces its last sequence number, so peers notice a lost datagram even when no
+         * further writes follow it.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class InMemory {
+        /**
+         * Nodes in one JVM see each other's events only on the same channel.
+         */
+        private String channel = "default";
+    }
+}
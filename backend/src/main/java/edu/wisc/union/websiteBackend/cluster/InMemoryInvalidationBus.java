@@ -0,0 +1,45 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Connects the nodes started in one JVM, e.g. two application contexts in a test. Events are handed to the
+ * other nodes' receivers on the publishing thread.
+ */
+class InMemoryInvalidationBus implements InvalidationBus {
+    private static final Map<String, Set<InMemoryInvalidationBus>> CHANNELS = new ConcurrentHashMap<>();
+
+    private final String channel;
+    private volatile Consumer<CatalogChangedEvent> receiver;
+
+    InMemoryInvalidationBus(String channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(CatalogChangedEvent event) {
+        CatalogChangedEvent remote = new CatalogChangedEvent(event.entity(), event.action(), event.ids(), true);
+        for (InMemoryInvalidationBus node : CHANNELS.getOrDefault(channel, Set.of())) {
+            Consumer<CatalogChangedEvent> nodeReceiver = node.receiver;
+            if (node != this && nodeReceiver != null) {
+                nodeReceiver.accept(remote);
+            }
+        }
+    }
+
+    @Override
+    public void start(Consumer<CatalogChangedEvent> receiver) {
+        this.receiver = receiver;
+        CHANNELS.computeIfAbsent(channel, key -> new CopyOnWriteArraySet<>()).add(this);
+    }
+
+    @Override
+    public void stop() {
+        CHANNELS.getOrDefault(channel, Set.of()).remove(this);
+        receiver = null;
+    }
+}
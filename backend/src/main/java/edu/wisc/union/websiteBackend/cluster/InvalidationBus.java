@@ -0,0 +1,24 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries {@link CatalogChangedEvent}s between backend nodes. Delivery is at least once where the transport
+ * allows it; a bus that can lose messages must notice and deliver {@link CatalogChangedEvent#all} instead, so a
+ * receiver never keeps a stale entry for longer than its cache lifetime.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Send a local event to every other node. Must not block on the network for long; it runs after the
+     * writing request's transaction commits.
+     */
+    void publish(CatalogChangedEvent event);
+
+    /**
+     * Start delivering other nodes' events, marked remote, to {@code receiver}. A node never receives its own.
+     */
+    void start(Consumer<CatalogChangedEvent> receiver);
+
+    void stop();
+}
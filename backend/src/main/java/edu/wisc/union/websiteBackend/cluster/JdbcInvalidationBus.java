@@ -0,0 +1,134 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Passes events through the {@code cluster_events} table of the shared database, which every node polls. Needs
+ * nothing but the database the nodes already share, and loses nothing: a node that was briefly unreachable
+ * catches up on its next poll.
+ * <p>
+ * Ids are assigned at insert but become visible at commit, so a poll can see id 12 before id 11. Each poll
+ * therefore rereads the last {@code lookback} of events and skips the ids it already delivered.
+ */
+@Slf4j
+class JdbcInvalidationBus implements InvalidationBus {
+    /**
+     * Larger id lists are stored as "all rows"; keeps the payload inside its column.
+     */
+    private static final int MAX_IDS = 400;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId;
+    private final ClusterProperties.Jdbc properties;
+    /**
+     * Delivered (or own) event ids with their creation time, oldest first; pruned after {@code lookback}.
+     */
+    private final Map<Long, Instant> seen = new LinkedHashMap<>();
+
+    private volatile ScheduledExecutorService executor;
+    private Consumer<CatalogChangedEvent> receiver;
+    private Instant lastCleanup = Instant.EPOCH;
+
+    JdbcInvalidationBus(JdbcTemplate jdbcTemplate, String nodeId, ClusterProperties.Jdbc properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nodeId = nodeId;
+        this.properties = properties;
+    }
+
+    @Override
+    public void publish(CatalogChangedEvent event) {
+        // On the bus thread: the caller may still hold the committed request transaction's connection
+        ScheduledExecutorService busExecutor = executor;
+        if (busExecutor == null) {
+            return;
+        }
+        String payload = ClusterMessage.of(nodeId, 0, event.coarsened(MAX_IDS)).toJson();
+        busExecutor.execute(() -> {
+            try {
+                jdbcTemplate.update("insert into cluster_events (origin, created_at, payload) values (?, ?, ?)",
+                        nodeId, OffsetDateTime.now(ZoneOffset.UTC), payload);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish {} to the cluster: {}", event, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void start(Consumer<CatalogChangedEvent> receiver) {
+        this.receiver = receiver;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-jdbc-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Events from before this node started cannot concern its still empty caches
+        executor.execute(() -> poll(false));
+        long interval = properties.getPollInterval().toMillis();
+        executor.scheduleWithFixedDelay(() -> poll(true), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    private void poll(boolean deliver) {
+        try {
+            Instant now = Instant.now();
+            Instant since = now.minus(properties.getLookback());
+            jdbcTemplate.query("select id, origin, created_at, payload from cluster_events where created_at > ? order by id",
+                    row -> {
+                        long id = row.getLong("id");
+                        if (seen.containsKey(id)) {
+                            return;
+                        }
+                        seen.put(id, row.getObject("created_at", OffsetDateTime.class).toInstant());
+                        if (deliver && !nodeId.equals(row.getString("origin"))) {
+                            deliver(id, row.getString("payload"));
+                        }
+                    },
+                    OffsetDateTime.ofInstant(since, ZoneOffset.UTC));
+
+            for (Iterator<Instant> created = seen.values().iterator(); created.hasNext(); ) {
+                if (created.next().isBefore(since)) {
+                    created.remove();
+                }
+            }
+            if (lastCleanup.plus(properties.getRetention().dividedBy(10)).isBefore(now)) {
+                jdbcTemplate.update("delete from cluster_events where created_at < ?",
+                        OffsetDateTime.ofInstant(now.minus(properties.getRetention()), ZoneOffset.UTC));
+                lastCleanup = now;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not poll the cluster event table: {}", e.getMessage());
+        }
+    }
+
+    private void deliver(long id, String payload) {
+        try {
+            receiver.accept(ClusterMessage.fromJson(payload).event());
+        } catch (Exception e) {
+            log.warn("Could not apply cluster event {}: {}", id, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package edu.wisc.union.websiteBackend.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Sends events as UDP datagrams to a multicast group on the LAN: no shared table and sub-millisecond delivery,
+ * but datagrams can be lost. Every node numbers its messages and repeats its last number in a periodic
+ * heartbeat; a receiver that sees a number skipped, or a node restart, assumes it missed writes and delivers
+ * {@link CatalogChangedEvent#all} for every kind of entity.
+ */
+@Slf4j
+class MulticastInvalidationBus implements InvalidationBus {
+    /**
+     * Larger id lists are sent as "all rows" to stay well inside one unfragmented datagram.
+     */
+    private static final int MAX_IDS = 100;
+    private static final int MAX_DATAGRAM = 8192;
+
+    private final String nodeId;
+    private final ClusterProperties.Multicast properties;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+
+    private InetSocketAddress group;
+    private volatile MulticastSocket socket;
+    private ScheduledExecutorService heartbeat;
+
+    MulticastInvalidationBus(String nodeId, ClusterProperties.Multicast properties) {
+        this.nodeId = nodeId;
+        this.properties = properties;
+    }
+
+    @Override
+    public void publish(CatalogChangedEvent event) {
+        send(ClusterMessage.of(nodeId, sequence.incrementAndGet(), event.coarsened(MAX_IDS)));
+    }
+
+    @Override
+    public void start(Consumer<CatalogChangedEvent> receiver) {
+        try {
+            group = new InetSocketAddress(InetAddress.getByName(properties.getGroup()), properties.getPort());
+            NetworkInterface networkInterface = properties.getNetworkInterface() == null ? null
+                    : NetworkInterface.getByName(properties.getNetworkInterface());
+            socket = new MulticastSocket(properties.getPort());
+            socket.setTimeToLive(properties.getTimeToLive());
+            if (networkInterface != null) {
+                socket.setNetworkInterface(networkInterface);
+            }
+            socket.joinGroup(group, networkInterface);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not join multicast group " + properties.getGroup() + ":"
+                    + properties.getPort(), e);
+        }
+
+        Thread listener = new Thread(() -> listen(receiver), "cluster-multicast-bus");
+        listener.setDaemon(true);
+        listener.start();
+
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-multicast-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHeartbeatInterval().toMillis();
+        heartbeat.scheduleAtFixedRate(() -> send(ClusterMessage.heartbeat(nodeId, sequence.get())),
+                interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Cluster bus joined multicast group {} as node {}", group, nodeId);
+    }
+
+    @Override
+    public void stop() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+            heartbeat = null;
+        }
+        if (socket != null) {
+            // Unblocks the listener's receive
+            socket.close();
+            socket = null;
+        }
+    }
+
+    private void send(ClusterMessage message) {
+        MulticastSocket sending = socket;
+        if (sending == null) {
+            return;
+        }
+        byte[] bytes = message.toJson().getBytes(StandardCharsets.UTF_8);
+        try {
+            sending.send(new DatagramPacket(bytes, bytes.length, group));
+        } catch (IOException e) {
+            log.warn("Could not send cluster message: {}", e.getMessage());
+        }
+    }
+
+    private void listen(Consumer<CatalogChangedEvent> receiver) {
+        MulticastSocket listening = socket;
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (!listening.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                listening.receive(packet);
+                ClusterMessage message = ClusterMessage.fromJson(
+                        new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8));
+                if (nodeId.equals(message.origin())) {
+                    continue;
+                }
+                if (missedMessages(message)) {
+                    log.info("Lost messages from cluster node {}; dropping all cached catalog data", message.origin());
+                    for (CatalogChangedEvent.Entity entity : CatalogChangedEvent.Entity.values()) {
+                        receiver.accept(CatalogChangedEvent.all(entity, true));
+                    }
+                } else if (message.hasEvent()) {
+                    receiver.accept(message.event());
+                }
+            } catch (SocketException e) {
+                // closed by stop()
+            } catch (Exception e) {
+                log.warn("Could not apply cluster message: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean missedMessages(ClusterMessage message) {
+        Long last = lastSequence.put(message.origin(), message.sequence());
+        long expected = message.hasEvent() ? 1 : 0;
+        if (last == null) {
+            // A node we have not heard from, possibly one that started before us and already wrote
+            return message.sequence() > expected;
+        }
+        // Either a gap, or the sequence went backwards because the node restarted
+        return message.sequence() != last + expected;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.wisc.union.websiteBackend.controllers.admin;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Second-level cache statistics for tuning the {@code hibernate-cache.*} region sizes and lifetimes.
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheStatsController {
+    private final SessionFactory sessionFactory;
+    private final CacheManager hibernateCacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CacheStatsController(EntityManagerFactory entityManagerFactory, CacheManager hibernateCacheManager,
+                                ApplicationEventPublisher eventPublisher) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.hibernateCacheManager = hibernateCacheManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        List<RegionStats> regions = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.add(new RegionStats(region, estimatedSize(region), new Counts(regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount())));
+            }
+        }
+
+        return ResponseEntity.ok(new CacheStats(
+                statistics.isStatisticsEnabled(),
+                statistics.getStart(),
+                new Counts(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                        statistics.getSecondLevelCachePutCount()),
+                new Counts(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                        statistics.getQueryCachePutCount()),
+                statistics.getQueryExecutionCount(),
+                statistics.getEntityLoadCount(),
+                regions));
+    }
+
+    /**
+     * Start counting from zero, e.g. before a game night, without touching the cached data.
+     */
+    @DeleteMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> resetCacheStats() {
+        sessionFactory.getStatistics().clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Drop everything cached, e.g. after editing the database by hand. In cluster mode the other nodes drop
+     * theirs too.
+     */
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> evictAll() {
+        sessionFactory.getCache().evictAll();
+        for (CatalogChangedEvent.Entity entity : CatalogChangedEvent.Entity.values()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.all(entity, false));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // Hibernate's JCache regions don't report their size, so ask Caffeine directly
+    private Long estimatedSize(String region) {
+        Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        if (cache == null) {
+            return null;
+        }
+        try {
+            return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CacheStats {
+        private boolean statisticsEnabled;
+        private Instant collectingSince;
+        private Counts secondLevel;
+        private Counts queries;
+        private long databaseQueries;
+        private long entitiesLoadedFromDatabase;
+        private List<RegionStats> regions;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Counts {
+        private long hits;
+        private long misses;
+        private long puts;
+
+        public double getHitRatio() {
+            return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RegionStats {
+        private String region;
+        private Long elements;
+        private Counts counts;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.wisc.union.websiteBackend.controllers.admin;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogInvalidator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * This node's view of the cache invalidation bus; 404 when cluster mode is off.
+ */
+@RestController
+@RequestMapping("/api/admin/cluster")
+public class ClusterController {
+    private final ObjectProvider<CatalogInvalidator> catalogInvalidator;
+
+    public ClusterController(ObjectProvider<CatalogInvalidator> catalogInvalidator) {
+        this.catalogInvalidator = catalogInvalidator;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CatalogInvalidator.ClusterStatus> getClusterStatus() {
+        CatalogInvalidator invalidator = catalogInvalidator.getIfAvailable();
+        if (invalidator == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(invalidator.status());
+    }
+}
@@ -0,0 +1,40 @@
+package edu.wisc.union.websiteBackend.controllers.audit;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Who checked out, returned or changed which game lately, from the {@link AuditLog}.
+ */
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+    private static final int MAX_LIMIT = 1000;
+
+    private final AuditLog auditLog;
+
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * The latest events, newest first, optionally only those of one game, user or action.
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<List<AuditRecord>> getRecentEvents(@RequestParam(defaultValue = "100") int limit,
+                                                             @RequestParam(required = false) Long gameId,
+                                                             @RequestParam(required = false) String user,
+                                                             @RequestParam(required = false) AuditEvent.Action action) {
+        return ResponseEntity.ok(auditLog.recent(Math.max(0, Math.min(limit, MAX_LIMIT)), record ->
+                (gameId == null || gameId.equals(record.gameId()))
+                        && (user == null || user.equals(record.user()))
+                        && (action == null || action == record.action())));
+    }
+}
@@ -0,0 +1,24 @@
+package edu.wisc.union.websiteBackend.controllers.audit;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+
+/**
+ * Published by the controllers and services for every change to a board game. The {@link AuditLog} records it
+ * once the change has committed, along with who made it and when; changes that roll back are never recorded.
+ *
+ * @param quantity copies checked out or returned, where that applies
+ */
+public record AuditEvent(Action action, Long gameId, String gameName, Integer quantity) {
+
+    public enum Action {
+        CHECKOUT, RETURN, ADD, UPDATE, PATCH, DELETE, IMPORT, RETURN_ALL
+    }
+
+    public static AuditEvent of(Action action, BoardGame game) {
+        return new AuditEvent(action, game.getId(), game.getName(), null);
+    }
+
+    public static AuditEvent of(Action action, BoardGame game, int quantity) {
+        return new AuditEvent(action, game.getId(), game.getName(), quantity);
+    }
+}
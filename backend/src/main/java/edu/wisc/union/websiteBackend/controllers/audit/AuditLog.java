@@ -0,0 +1,259 @@
+package edu.wisc.union.websiteBackend.controllers.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wisc.union.websiteBackend.auth.JwtUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of the {@link AuditEvent}s, one JSON object per line. Request threads only stamp the event
+ * with the user and time and put it in a {@link MpscRingBuffer}; a single writer thread takes events from
+ * there, numbers them and appends them to the current segment, so no request ever waits on the disk.
+ * <p>
+ * Segments are named after their first sequence number and rotated by size, keeping the latest
+ * {@code audit.max-segments}. Every start begins a new segment, so a line torn by a crash is never appended
+ * to; such lines are skipped when the log is read back. The latest events are also kept in memory to answer
+ * {@link #recent} without touching the files.
+ */
+@Slf4j
+@Component
+public class AuditLog implements DisposableBean {
+    private static final int BATCH = 256;
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".jsonl";
+
+    private final AuditProperties properties;
+    private final ObjectMapper objectMapper;
+    private final JwtUtil jwtUtil;
+    private final MpscRingBuffer<AuditRecord> buffer;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Guarded by itself; filled by the writer
+    private final ArrayDeque<AuditRecord> recent = new ArrayDeque<>();
+
+    // Writer thread only
+    private final Path directory;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private long lastSequence;
+    private FileChannel segment;
+    private long segmentBytes;
+
+    public AuditLog(AuditProperties properties, ObjectMapper objectMapper, JwtUtil jwtUtil) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.jwtUtil = jwtUtil;
+        this.buffer = new MpscRingBuffer<>(properties.getBufferSize());
+        this.directory = Paths.get(properties.getDirectory());
+        if (!properties.isEnabled()) {
+            this.writer = null;
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the audit log in " + directory.toAbsolutePath(), e);
+        }
+        this.writer = new Thread(this::write, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAudit(AuditEvent event) {
+        if (writer == null) {
+            return;
+        }
+        if (!buffer.offer(AuditRecord.of(event, jwtUtil.getCurrentUsername(), Instant.now()))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * The latest recorded events that match, newest first; only those still held in memory
+     * ({@code audit.recent-events}) are searched.
+     */
+    public List<AuditRecord> recent(int limit, Predicate<AuditRecord> filter) {
+        List<AuditRecord> matches = new ArrayList<>();
+        synchronized (recent) {
+            Iterator<AuditRecord> newestFirst = recent.descendingIterator();
+            while (newestFirst.hasNext() && matches.size() < limit) {
+                AuditRecord record = newestFirst.next();
+                if (filter.test(record)) {
+                    matches.add(record);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void write() {
+        while (true) {
+            int taken = buffer.drain(this::append, BATCH);
+            if (taken > 0) {
+                flush();
+            } else if (!running) {
+                break;
+            } else {
+                LockSupport.parkNanos(properties.getIdleWait().toNanos());
+            }
+            long lost = dropped.sumThenReset();
+            if (lost > 0) {
+                log.warn("The audit buffer was full; {} events were not recorded", lost);
+            }
+        }
+        closeSegment();
+    }
+
+    private void append(AuditRecord record) {
+        record = record.withSequence(++lastSequence);
+        byte[] line;
+        try {
+            line = objectMapper.writeValueAsBytes(record);
+        } catch (IOException e) {
+            log.error("Cannot serialize audit record {}", record, e);
+            return;
+        }
+        if (segment == null || segmentBytes + pending.size() + line.length + 1 > properties.getSegmentSize().toBytes()) {
+            flush();
+            openSegment(record.sequence());
+        }
+        pending.write(line, 0, line.length);
+        pending.write('\n');
+        remember(record);
+    }
+
+    private void flush() {
+        if (pending.size() == 0) {
+            return;
+        }
+        if (segment == null) {
+            log.error("No audit segment is open; {} bytes lost", pending.size());
+            pending.reset();
+            return;
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(pending.toByteArray());
+            while (bytes.hasRemaining()) {
+                segmentBytes += segment.write(bytes);
+            }
+        } catch (IOException e) {
+            // Start afresh with the next event rather than keep writing to a file in an unknown state
+            log.error("Cannot write to the audit log; {} bytes lost", pending.size(), e);
+            closeSegment();
+        }
+        pending.reset();
+    }
+
+    private void openSegment(long firstSequence) {
+        closeSegment();
+        Path path = directory.resolve(String.format("%s%012d%s", PREFIX, firstSequence, SUFFIX));
+        try {
+            segment = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            segmentBytes = segment.size();
+            List<Path> segments = segments();
+            for (int i = 0; i < segments.size() - properties.getMaxSegments(); i++) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        } catch (IOException e) {
+            log.error("Cannot open audit segment {}", path, e);
+        }
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Cannot close the audit segment", e);
+            }
+            segment = null;
+        }
+    }
+
+    private void remember(AuditRecord record) {
+        synchronized (recent) {
+            if (recent.size() >= properties.getRecentEvents()) {
+                recent.removeFirst();
+            }
+            recent.addLast(record);
+        }
+    }
+
+    // Reads segments back from the newest until the sequence is known and the recent events are filled
+    private void recover() throws IOException {
+        List<Path> segments = segments();
+        List<AuditRecord> recovered = new ArrayList<>();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            List<AuditRecord> records = read(segments.get(i));
+            records.forEach(record -> lastSequence = Math.max(lastSequence, record.sequence()));
+            recovered.addAll(0, records);
+            if (lastSequence > 0 && recovered.size() >= properties.getRecentEvents()) {
+                break;
+            }
+        }
+        int from = Math.max(0, recovered.size() - properties.getRecentEvents());
+        recovered.subList(from, recovered.size()).forEach(this::remember);
+        if (lastSequence > 0) {
+            log.info("Audit log continues after event {} in {}", lastSequence, directory.toAbsolutePath());
+        }
+    }
+
+    private List<AuditRecord> read(Path path) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    records.add(objectMapper.readValue(line, AuditRecord.class));
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable line in {}", path);
+                }
+            }
+        }
+        return records;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(5000);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package edu.wisc.union.websiteBackend.controllers.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "audit")
+@Data
+public class AuditProperties {
+    /**
+     * Record catalog changes; see {@link AuditLog}.
+     */
+    private boolean enabled = true;
+    /**
+     * Where the log segments are written.
+     */
+    private String directory = "data/audit";
+    /**
+     * Events that can wait for the writer; a power of two. Events arriving while it is full are dropped and
+     * counted rather than holding up the request.
+     */
+    private int bufferSize = 8192;
+    /**
+     * A segment is closed and a new one started once it reaches this size.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+    /**
+     * Segments kept; the oldest are deleted beyond this.
+     */
+    private int maxSegments = 32;
+    /**
+     * How long the writer sleeps when there is nothing to write.
+     */
+    private Duration idleWait = Duration.ofMillis(20);
+    /**
+     * Latest events kept in memory for {@code /api/audit}.
+     */
+    private int recentEvents = 2000;
+}
@@ -0,0 +1,21 @@
+package edu.wisc.union.websiteBackend.controllers.audit;
+
+import java.time.Instant;
+
+/**
+ * One line of the audit log.
+ *
+ * @param sequence position in the log, counting up from 1 across segments and restarts
+ * @param user     who made the change, or null for the application itself
+ */
+public record AuditRecord(long sequence, Instant at, String user, AuditEvent.Action action, Long gameId,
+                          String gameName, Integer quantity) {
+
+    static AuditRecord of(AuditEvent event, String user, Instant at) {
+        return new AuditRecord(0, at, user, event.action(), event.gameId(), event.gameName(), event.quantity());
+    }
+
+    AuditRecord withSequence(long sequence) {
+        return new AuditRecord(sequence, at, user, action, gameId, gameName, quantity);
+    }
+}
@@ -0,0 +1,77 @@
+package edu.wisc.union.websiteBackend.controllers.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for any number of producers and a single consumer. Each slot carries a sequence
+ * number telling whose turn it is: a producer claims the slot at the tail with one compare-and-set and
+ * publishes it by advancing the slot's sequence; the consumer takes slots in order as they are published
+ * and hands them back a lap ahead. A full buffer refuses new elements instead of making producers wait.
+ */
+final class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Only touched by the consumer
+    private long head;
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two, not " + capacity);
+        }
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the buffer is full
+     */
+    boolean offer(E element) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long sequence = sequences.getAcquire(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.setPlain(index, element);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                // The consumer has not taken the element a lap behind yet
+                return false;
+            }
+            // Otherwise another producer claimed the slot first
+        }
+    }
+
+    /**
+     * Take up to {@code max} elements in the order they were offered. Consumer only.
+     *
+     * @return the number of elements taken
+     */
+    int drain(Consumer<? super E> consumer, int max) {
+        int taken = 0;
+        while (taken < max) {
+            int index = (int) (head & mask);
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            E element = elements.getPlain(index);
+            elements.setPlain(index, null);
+            sequences.setRelease(index, head + mask + 1);
+            head++;
+            taken++;
+            consumer.accept(element);
+        }
+        return taken;
+    }
+}
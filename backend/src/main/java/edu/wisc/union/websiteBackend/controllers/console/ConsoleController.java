@@ -1,9 +1,12 @@
 package edu.wisc.union.websiteBackend.controllers.console;
 
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.images.BoxArtChangedEvent;
 import edu.wisc.union.websiteBackend.jpa.Console;
 import edu.wisc.union.websiteBackend.jpa.*;
 import lombok.Getter; // Added for inner class
 import lombok.Setter; // Added for inner class
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional; // Added for atomicity
@@ -22,6 +25,7 @@ public class ConsoleController {
     private final ConsoleRepository consoleRepository;
     private final ConsoleGameRepository consoleGameRepository;
     private final ConsoleGenreRepository consoleGenreRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Inner class for request payload
     @Getter
@@ -39,10 +43,12 @@ public class ConsoleController {
 
     public ConsoleController(ConsoleRepository consoleRepository,
                              ConsoleGameRepository consoleGameRepository,
-                             ConsoleGenreRepository consoleGenreRepository) {
+                             ConsoleGenreRepository consoleGenreRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.consoleRepository = consoleRepository;
         this.consoleGameRepository = consoleGameRepository;
         this.consoleGenreRepository = consoleGenreRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -62,7 +68,9 @@ public class ConsoleController {
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Console> createConsole(@RequestBody Console console) {
-        return ResponseEntity.ok(consoleRepository.save(console));
+        Console savedConsole = consoleRepository.save(console);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.CONSOLE, savedConsole.getId()));
+        return ResponseEntity.ok(savedConsole);
     }
 
     @PutMapping("/{id}")
@@ -71,7 +79,9 @@ public class ConsoleController {
         return consoleRepository.findById(id)
                 .map(console -> {
                     console.setName(consoleDetails.getName());
-                    return ResponseEntity.ok(consoleRepository.save(console));
+                    Console savedConsole = consoleRepository.save(console);
+                    eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.CONSOLE, id));
+                    return ResponseEntity.ok(savedConsole);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -81,6 +91,7 @@ public class ConsoleController {
     public ResponseEntity<Void> deleteConsole(@PathVariable Long id) {
         if (consoleRepository.existsById(id)) {
             consoleRepository.deleteById(id);
+            eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Entity.CONSOLE, id));
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
@@ -116,7 +127,7 @@ public class ConsoleController {
         // Fetch Consoles
         List<Console> consoles = new ArrayList<>();
         if (request.getConsoleIds() != null && !request.getConsoleIds().isEmpty()) {
-             consoles = consoleRepository.findAllById(request.getConsoleIds());
+             consoles = consoleRepository.findAllByIdFromCache(request.getConsoleIds());
         }
         game.setConsoles(consoles);
 
@@ -125,6 +136,8 @@ public class ConsoleController {
         game.setGenres(new ArrayList<>(genres)); // Convert Set to List for the entity
 
         ConsoleGame savedGame = consoleGameRepository.save(game);
+        eventPublisher.publishEvent(BoxArtChangedEvent.consoleGame(savedGame.getId(), savedGame.getBoxImageUrl()));
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.CONSOLE_GAME, savedGame.getId()));
         return ResponseEntity.ok(savedGame);
     }
 
@@ -142,7 +155,7 @@ public class ConsoleController {
                     // Fetch Consoles
                     List<Console> consoles = new ArrayList<>();
                     if (request.getConsoleIds() != null && !request.getConsoleIds().isEmpty()) {
-                        consoles = consoleRepository.findAllById(request.getConsoleIds());
+                        consoles = consoleRepository.findAllByIdFromCache(request.getConsoleIds());
                     }
                     game.setConsoles(consoles);
 
@@ -152,6 +165,8 @@ public class ConsoleController {
                     game.setGenres(new ArrayList<>(genres)); // Convert Set to List for the entity
 
                     ConsoleGame updatedGame = consoleGameRepository.save(game);
+                    eventPublisher.publishEvent(BoxArtChangedEvent.consoleGame(id, updatedGame.getBoxImageUrl()));
+                    eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.CONSOLE_GAME, id));
                     return ResponseEntity.ok(updatedGame);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
@@ -163,7 +178,7 @@ public class ConsoleController {
 
         // Add existing genres by ID
         if (existingGenreIds != null && !existingGenreIds.isEmpty()) {
-            genres.addAll(consoleGenreRepository.findAllById(existingGenreIds));
+            genres.addAll(consoleGenreRepository.findAllByIdFromCache(existingGenreIds));
         }
 
         // Process new genre names
@@ -180,8 +195,10 @@ public class ConsoleController {
                     ConsoleGenre existingGenre = consoleGenreRepository.findByNameIgnoreCase(trimmedName)
                             .orElseGet(() -> {
                                 // Create and save if it doesn't exist
-                                ConsoleGenre newGenre = new ConsoleGenre(trimmedName);
-                                return consoleGenreRepository.save(newGenre);
+                                ConsoleGenre newGenre = consoleGenreRepository.save(new ConsoleGenre(trimmedName));
+                                eventPublisher.publishEvent(CatalogChangedEvent.saved(
+                                        CatalogChangedEvent.Entity.CONSOLE_GENRE, newGenre.getId()));
+                                return newGenre;
                             });
                     genres.add(existingGenre);
                 }
@@ -196,6 +213,8 @@ public class ConsoleController {
     public ResponseEntity<Void> deleteGame(@PathVariable Long id) {
         if (consoleGameRepository.existsById(id)) {
             consoleGameRepository.deleteById(id);
+            eventPublisher.publishEvent(BoxArtChangedEvent.consoleGame(id, null));
+            eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Entity.CONSOLE_GAME, id));
             return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
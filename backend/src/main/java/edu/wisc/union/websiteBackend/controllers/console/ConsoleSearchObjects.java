@@ -65,12 +65,20 @@ public class ConsoleSearchObjects {
         private String header_image;
         private List<Genre> genres;
         private ReleaseDate release_date;
+        private Platforms platforms;
 
         @Data
         public static class ReleaseDate {
             private String date;
         }
 
+        @Data
+        public static class Platforms {
+            private Boolean windows;
+            private Boolean mac;
+            private Boolean linux;
+        }
+
         @Data
         public static class Genre {
             private String description;
@@ -1,49 +1,72 @@
 package edu.wisc.union.websiteBackend.controllers.console;
 
+import edu.wisc.union.websiteBackend.controllers.lookup.JsonArrayStreamDecoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 @Service
 public class ConsoleSearchService {
 
-    private final WebClient searchClient = WebClient.builder()
-            .baseUrl("https://videogamegeek.com")
-            .build();
-    private final WebClient gameClient = WebClient.builder()
-            .baseUrl("https://api.geekdo.com")
-            .build();
+    private final WebClient searchClient;
+    private final WebClient gameClient;
 
-    private final WebClient detailsClient = WebClient.builder()
-            .baseUrl("https://store.steampowered.com")
-            .build();
-    private final WebClient steamSearchClient = WebClient.builder()
-            .baseUrl("https://steamcommunity.com")
-            .build();
+    private final WebClient detailsClient;
+    private final WebClient steamSearchClient;
+    private final JsonArrayStreamDecoder decoder;
+
+    public ConsoleSearchService(WebClient.Builder webClientBuilder, JsonArrayStreamDecoder decoder,
+                                @Value("${external.vgg.url:https://videogamegeek.com}") String searchUrl,
+                                @Value("${external.geekdo.url:https://api.geekdo.com}") String gameUrl,
+                                @Value("${external.steam-store.url:https://store.steampowered.com}") String detailsUrl,
+                                @Value("${external.steam-community.url:https://steamcommunity.com}") String steamSearchUrl) {
+        this.decoder = decoder;
+        this.searchClient = webClientBuilder.clone()
+                .baseUrl(searchUrl)
+                .build();
+        this.gameClient = webClientBuilder.clone()
+                .baseUrl(gameUrl)
+                .build();
+        this.detailsClient = webClientBuilder.clone()
+                .baseUrl(detailsUrl)
+                .build();
+        this.steamSearchClient = webClientBuilder.clone()
+                .baseUrl(steamSearchUrl)
+                .build();
+    }
 
 
     public Mono<List<ConsoleSearchObjects.SteamApp>> searchSteamApps(String appName) {
+        return streamSteamApps(appName).collectList();
+    }
+
+    /**
+     * Search Steam, emitting each app as soon as it has been decoded from the response.
+     */
+    public Flux<ConsoleSearchObjects.SteamApp> streamSteamApps(String appName) {
         // Example of a non-empty request body
         String jsonBody = "{}";
 
 
-         WebClient.ResponseSpec responseSpec = steamSearchClient.post() // Changed to POST since we're sending a body
+        Flux<DataBuffer> body = steamSearchClient.post() // Changed to POST since we're sending a body
                 .uri(uriBuilder -> uriBuilder
                         .path("/actions/SearchApps/{AppName}")
                         .build(appName))
                 .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
                 .body(BodyInserters.fromValue(jsonBody))
-                .retrieve();
-        return     responseSpec.bodyToMono(ConsoleSearchObjects.SteamApp[].class)
-                .map(Arrays::asList);
+                .retrieve()
+                .bodyToFlux(DataBuffer.class);
+        return decoder.decode(body, null, ConsoleSearchObjects.SteamApp.class);
     }
 
     public Mono<ConsoleSearchObjects.SteamAppDetails> getSteamAppDetails(String appId) {
@@ -59,7 +82,14 @@ public class ConsoleSearchService {
     }
 
     public Mono<List<ConsoleSearchObjects.ConsoleGameSearchResult>> searchVideoGames(String gameName) {
-        return searchClient.get()
+        return streamVideoGames(gameName).collectList();
+    }
+
+    /**
+     * Search VideoGameGeek, emitting each hit as soon as it has been decoded from the response.
+     */
+    public Flux<ConsoleSearchObjects.ConsoleGameSearchResult> streamVideoGames(String gameName) {
+        Flux<DataBuffer> body = searchClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/search/boardgame")
 
@@ -70,8 +100,8 @@ public class ConsoleSearchService {
                 .cookie("twtr_pixel_opt_in", "N") // Add the cookie here
                 .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE) // Add Accept header
                 .retrieve()
-                .bodyToMono(ConsoleSearchObjects.ConsoleGameSearchResults.class) // Map the JSON to your class
-                .map(ConsoleSearchObjects.ConsoleGameSearchResults::getItems); // Return the list of items
+                .bodyToFlux(DataBuffer.class);
+        return decoder.decode(body, "items", ConsoleSearchObjects.ConsoleGameSearchResult.class);
     }
 
 
@@ -1,7 +1,11 @@
 package edu.wisc.union.websiteBackend.controllers.games;
 
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,6 +19,9 @@ public class BGGController {
     @Autowired
     private BoardGameService boardGameService;
 
+    @Autowired
+    private BggEnrichmentJob enrichmentJob;
+
     @GetMapping("/search")
     public Mono<List<BGGObjects.BoardGameSearchResult>> searchBoardGames(@RequestParam String gameName) {
         return boardGameService.searchBoardGames(gameName);
@@ -24,4 +31,23 @@ public class BGGController {
     public Mono<BGGObjects.BoardGameDetails> getBoardGameDetails(@RequestParam String id) {
         return boardGameService.getBoardGameDetails(id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Start filling in missing game metadata from BGG, or resume the unfinished pass; poll
+     * {@code GET /api/bgg/enrichment} for progress.
+     */
+    @PostMapping("/enrichment")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BggEnrichmentJob.EnrichmentStatus> startEnrichment() {
+        if (!enrichmentJob.start()) {
+            throw new InputErrorException("A119", "BGG enrichment is already running.");
+        }
+        return ResponseEntity.accepted().body(enrichmentJob.status());
+    }
+
+    @GetMapping("/enrichment")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BggEnrichmentJob.EnrichmentStatus> getEnrichmentStatus() {
+        return ResponseEntity.ok(enrichmentJob.status());
+    }
+}
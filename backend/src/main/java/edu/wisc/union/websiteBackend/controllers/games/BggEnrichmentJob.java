@@ -0,0 +1,337 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import edu.wisc.union.websiteBackend.admission.TokenBucket;
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.images.BoxArtChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.lookup.FederatedLookupService;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository.GameToEnrich;
+import edu.wisc.union.websiteBackend.jpa.EnrichmentCheckpoint;
+import edu.wisc.union.websiteBackend.jpa.EnrichmentCheckpointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fills in the player counts, playtimes, descriptions and box art that imported games lack, from BGG. A pass
+ * walks the games with missing fields in id order, a batch at a time: each game of the batch is searched for by
+ * name and, on an exact title match, its details are fetched, with {@code bgg.enrichment.concurrency} games in
+ * flight and every request drawn from one {@link TokenBucket}. The batch's updates and the
+ * {@link EnrichmentCheckpoint} are then written in one transaction, so a restarted backend resumes the pass
+ * after the last saved game. Only empty fields are filled; anything a host entered is left alone.
+ * <p>
+ * Games BGG does not know, or whose lookup failed, are skipped until the next pass. Should two nodes run the
+ * job at once, the one that finds the checkpoint moved on under it stops.
+ */
+@Slf4j
+@Service
+public class BggEnrichmentJob implements DisposableBean {
+    static final String JOB = "bgg";
+    private static final int MAX_DESCRIPTION = 1024;
+
+    private final BoardGameService boardGameService;
+    private final BoardGameRepository boardGameRepository;
+    private final EnrichmentCheckpointRepository checkpointRepository;
+    private final BggEnrichmentProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TokenBucket budget;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bgg-enrichment");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean stopping;
+
+    // Throughput of the current (or last) run on this node
+    private final AtomicLong runRequests = new AtomicLong();
+    private final AtomicLong runGames = new AtomicLong();
+    private volatile long runStartedNanos;
+    private volatile long runEndedNanos;
+
+    public BggEnrichmentJob(BoardGameService boardGameService, BoardGameRepository boardGameRepository,
+                            EnrichmentCheckpointRepository checkpointRepository, BggEnrichmentProperties properties,
+                            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
+        this.boardGameService = boardGameService;
+        this.boardGameRepository = boardGameRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.budget = new TokenBucket(properties.getRequestsPerSecond(), properties.getBurst());
+    }
+
+    /**
+     * @param lastGameId        games up to this id have been looked at in the current pass
+     * @param processed         games looked at in the current pass
+     * @param enriched          games that had at least one field filled in
+     * @param notFound          games without an exact title match on BGG
+     * @param failed            games whose lookup failed; tried again next pass
+     * @param remaining         games after {@code lastGameId} still missing fields
+     * @param requests          requests to BGG in the current pass
+     * @param gamesPerSecond    games looked at per second by the current or last run on this node
+     * @param requestsPerSecond requests per second by the current or last run on this node
+     */
+    public record EnrichmentStatus(boolean running, Instant passStartedAt, Instant completedAt, long lastGameId,
+                                   int processed, int enriched, int notFound, int failed, long remaining,
+                                   long requests, double gamesPerSecond, double requestsPerSecond,
+                                   double requestBudget) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleRuns() {
+        boolean unfinished = checkpointRepository.findById(JOB)
+                .map(checkpoint -> checkpoint.getCompletedAt() == null)
+                .orElse(false);
+        if (unfinished) {
+            log.info("Resuming the BGG enrichment pass");
+            executor.execute(this::runQuietly);
+        }
+        if (properties.isEnabled()) {
+            long interval = properties.getInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::runQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Start a pass in the background, or resume the unfinished one.
+     *
+     * @return false if the job is already running
+     */
+    public boolean start() {
+        if (running.get()) {
+            return false;
+        }
+        executor.execute(this::runQuietly);
+        return true;
+    }
+
+    public EnrichmentStatus status() {
+        Optional<EnrichmentCheckpoint> checkpoint = checkpointRepository.findById(JOB);
+        long lastGameId = checkpoint.map(EnrichmentCheckpoint::getLastGameId).orElse(0L);
+        double seconds = runStartedNanos == 0 ? 0
+                : ((running.get() ? System.nanoTime() : runEndedNanos) - runStartedNanos) / 1e9;
+        return new EnrichmentStatus(running.get(),
+                checkpoint.map(EnrichmentCheckpoint::getPassStartedAt).orElse(null),
+                checkpoint.map(EnrichmentCheckpoint::getCompletedAt).orElse(null),
+                lastGameId,
+                checkpoint.map(EnrichmentCheckpoint::getProcessed).orElse(0),
+                checkpoint.map(EnrichmentCheckpoint::getEnriched).orElse(0),
+                checkpoint.map(EnrichmentCheckpoint::getNotFound).orElse(0),
+                checkpoint.map(EnrichmentCheckpoint::getFailed).orElse(0),
+                boardGameRepository.countMissingMetadataAfter(lastGameId),
+                checkpoint.map(EnrichmentCheckpoint::getRequests).orElse(0L),
+                seconds > 0 ? runGames.get() / seconds : 0,
+                seconds > 0 ? runRequests.get() / seconds : 0,
+                properties.getRequestsPerSecond());
+    }
+
+    private void runQuietly() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.warn("BGG enrichment failed: {}", e.getMessage(), e);
+        }
+    }
+
+    void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        runRequests.set(0);
+        runGames.set(0);
+        runStartedNanos = System.nanoTime();
+        try {
+            long lastGameId = transactionTemplate.execute(status -> startOrResumePass());
+            while (!stopping) {
+                List<GameToEnrich> batch = boardGameRepository.findMissingMetadataAfter(lastGameId,
+                        Limit.of(properties.getBatchSize()));
+                if (batch.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> completePass());
+                    log.info("BGG enrichment pass complete");
+                    return;
+                }
+                long requestsBefore = runRequests.get();
+                Map<Long, Lookup> lookups = Flux.fromIterable(batch)
+                        .flatMap(this::lookUp, properties.getConcurrency())
+                        .collectMap(Lookup::gameId)
+                        .block();
+                runGames.addAndGet(batch.size());
+
+                long expected = lastGameId;
+                long next = batch.get(batch.size() - 1).getId();
+                boolean saved = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                        saveBatch(expected, next, lookups, runRequests.get() - requestsBefore)));
+                if (!saved) {
+                    log.info("BGG enrichment is running elsewhere; stopping here");
+                    return;
+                }
+                lastGameId = next;
+            }
+        } finally {
+            runEndedNanos = System.nanoTime();
+            running.set(false);
+        }
+    }
+
+    private long startOrResumePass() {
+        EnrichmentCheckpoint checkpoint = checkpointRepository.findByJobForUpdate(JOB).orElseGet(() -> {
+            EnrichmentCheckpoint created = new EnrichmentCheckpoint();
+            created.setJob(JOB);
+            return created;
+        });
+        if (checkpoint.getPassStartedAt() == null || checkpoint.getCompletedAt() != null) {
+            Instant now = Instant.now();
+            checkpoint.setLastGameId(0);
+            checkpoint.setPassStartedAt(now);
+            checkpoint.setCompletedAt(null);
+            checkpoint.setUpdatedAt(now);
+            checkpoint.setProcessed(0);
+            checkpoint.setEnriched(0);
+            checkpoint.setNotFound(0);
+            checkpoint.setFailed(0);
+            checkpoint.setRequests(0);
+            checkpointRepository.save(checkpoint);
+        }
+        return checkpoint.getLastGameId();
+    }
+
+    private void completePass() {
+        checkpointRepository.findByJobForUpdate(JOB).ifPresent(checkpoint -> {
+            checkpoint.setCompletedAt(Instant.now());
+            checkpoint.setUpdatedAt(checkpoint.getCompletedAt());
+        });
+    }
+
+    private enum Outcome {FOUND, NOT_FOUND, FAILED}
+
+    private record Lookup(Long gameId, Outcome outcome, BGGObjects.BoardGameDetails details) {
+    }
+
+    private Mono<Lookup> lookUp(GameToEnrich game) {
+        String title = FederatedLookupService.normalize(game.getName());
+        return budgeted(() -> boardGameService.searchBoardGames(game.getName()))
+                .flatMap(results -> results.stream()
+                        .filter(result -> result.getId() != null && title.equals(FederatedLookupService.normalize(result.getName())))
+                        .findFirst()
+                        .map(match -> budgeted(() -> boardGameService.getBoardGameDetails(match.getId())))
+                        .orElse(Mono.empty()))
+                .map(details -> new Lookup(game.getId(), Outcome.FOUND, details))
+                .defaultIfEmpty(new Lookup(game.getId(), Outcome.NOT_FOUND, null))
+                .onErrorResume(e -> {
+                    log.debug("BGG lookup of game {} failed: {}", game.getId(), e.getMessage());
+                    return Mono.just(new Lookup(game.getId(), Outcome.FAILED, null));
+                });
+    }
+
+    // Waits for the budget before the request goes out; the timeout covers the request alone
+    private <T> Mono<T> budgeted(Supplier<Mono<T>> request) {
+        return Mono.defer(() -> Mono.delay(budget.reserve()))
+                .then(Mono.defer(() -> {
+                    runRequests.incrementAndGet();
+                    return request.get().timeout(properties.getTimeout());
+                }));
+    }
+
+    private boolean saveBatch(long expectedLastGameId, long lastGameId, Map<Long, Lookup> lookups, long requests) {
+        EnrichmentCheckpoint checkpoint = checkpointRepository.findByJobForUpdate(JOB).orElse(null);
+        if (checkpoint == null || checkpoint.getCompletedAt() != null
+                || checkpoint.getLastGameId() != expectedLastGameId) {
+            return false;
+        }
+
+        List<Long> found = lookups.values().stream()
+                .filter(lookup -> lookup.outcome() == Outcome.FOUND)
+                .map(Lookup::gameId)
+                .toList();
+        List<Long> changed = new ArrayList<>();
+        for (BoardGame game : found.isEmpty() ? List.<BoardGame>of() : boardGameRepository.findAllByIdForUpdate(found)) {
+            String boxImageUrl = game.getBoxImageUrl();
+            if (fillIn(game, lookups.get(game.getId()).details())) {
+                changed.add(game.getId());
+                if (boxImageUrl == null && game.getBoxImageUrl() != null) {
+                    eventPublisher.publishEvent(BoxArtChangedEvent.boardGame(game.getId(), game.getBoxImageUrl()));
+                }
+            }
+        }
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, changed));
+        }
+
+        checkpoint.setLastGameId(lastGameId);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint.setProcessed(checkpoint.getProcessed() + lookups.size());
+        checkpoint.setEnriched(checkpoint.getEnriched() + changed.size());
+        checkpoint.setNotFound(checkpoint.getNotFound() + count(lookups, Outcome.NOT_FOUND));
+        checkpoint.setFailed(checkpoint.getFailed() + count(lookups, Outcome.FAILED));
+        checkpoint.setRequests(checkpoint.getRequests() + requests);
+        return true;
+    }
+
+    private static int count(Map<Long, Lookup> lookups, Outcome outcome) {
+        return (int) lookups.values().stream().filter(lookup -> lookup.outcome() == outcome).count();
+    }
+
+    /**
+     * @return whether any field was filled in
+     */
+    private static boolean fillIn(BoardGame game, BGGObjects.BoardGameDetails details) {
+        boolean changed = false;
+        if (game.getMinPlayerCount() == null && positive(details.getMinplayers())) {
+            game.setMinPlayerCount(details.getMinplayers());
+            changed = true;
+        }
+        if (game.getMaxPlayerCount() == null && positive(details.getMaxplayers())) {
+            game.setMaxPlayerCount(details.getMaxplayers());
+            changed = true;
+        }
+        if (game.getMinPlaytime() == null && positive(details.getMinplaytime())) {
+            game.setMinPlaytime(details.getMinplaytime());
+            changed = true;
+        }
+        if (game.getMaxPlaytime() == null && positive(details.getMaxplaytime())) {
+            game.setMaxPlaytime(details.getMaxplaytime());
+            changed = true;
+        }
+        String description = details.getShort_description();
+        if (game.getDescription() == null && description != null && !description.isBlank()) {
+            game.setDescription(description.length() > MAX_DESCRIPTION ? description.substring(0, MAX_DESCRIPTION) : description);
+            changed = true;
+        }
+        if (game.getBoxImageUrl() == null && details.getImageurl() != null && !details.getImageurl().isBlank()) {
+            game.setBoxImageUrl(details.getImageurl());
+            changed = true;
+        }
+        return changed;
+    }
+
+    // BGG reports 0 for unknown counts
+    private static boolean positive(Integer value) {
+        return value != null && value > 0;
+    }
+
+    @Override
+    public void destroy() {
+        stopping = true;
+        executor.shutdownNow();
+    }
+}
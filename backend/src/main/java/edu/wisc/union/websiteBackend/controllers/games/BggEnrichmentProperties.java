@@ -0,0 +1,36 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "bgg.enrichment")
+@Data
+public class BggEnrichmentProperties {
+    /**
+     * Start a pass every {@link #interval}; a pass can always be started by hand, and an unfinished one resumes
+     * when the backend starts.
+     */
+    private boolean enabled = false;
+    private Duration interval = Duration.ofHours(24);
+    /**
+     * Budget for all requests to BGG, searches and detail lookups alike. Every game needs two.
+     */
+    private double requestsPerSecond = 2;
+    /**
+     * Requests that may go out back to back after the job has been idle.
+     */
+    private int burst = 4;
+    /**
+     * Games being looked up at once. Only helps while BGG's latency, not the budget, is the limit.
+     */
+    private int concurrency = 4;
+    /**
+     * Games looked up before their updates and the checkpoint are written in one transaction.
+     */
+    private int batchSize = 50;
+    private Duration timeout = Duration.ofSeconds(15);
+}
@@ -0,0 +1,280 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenre;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact columnar rendering of the public board game catalog, for kiosks that download it over and over.
+ * {@code /api/games} serves it to clients that ask for {@link #MEDIA_TYPE}; {@link #read} is the reference
+ * decoder, shared with the benchmark harness.
+ * <p>
+ * Layout, all integers as unsigned LEB128 varints:
+ * <pre>
+ * "WUDC" version(1 byte) count
+ * genre dictionary:  size, then each name as a string
+ * id:                zigzag delta from the previous game's id (the first from 0)
+ * name:              string
+ * minPlaytime, maxPlaytime, minPlayerCount, maxPlayerCount, availableCopies, quantity:
+ *                    one column each, a nullable int
+ * genres:            count, then that many dictionary indexes
+ * boxImageUrl:       string
+ * description:       string
+ * SHA-256 of everything before it (32 bytes)
+ * </pre>
+ * A string is its UTF-8 length plus one followed by the bytes, 0 meaning null; a nullable int is its zigzag
+ * encoding plus one, 0 meaning null. The genres are the parts of {@code genre} (see {@link BoardGameGenre}),
+ * each name stored once however many games share it; a decoded game's {@code genre} lists them joined by
+ * {@code ", "}.
+ */
+public final class BoardGameBinary {
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.wudgames.catalog";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte[] MAGIC = {'W', 'U', 'D', 'C'};
+    private static final int VERSION = 1;
+    private static final int HASH_LENGTH = 32;
+
+    private BoardGameBinary() {
+    }
+
+    /**
+     * Render the public fields of the given games.
+     *
+     * @param games the games to render, in output order
+     * @return the encoded catalog, ending with its hash
+     */
+    public static byte[] write(List<BoardGame> games) {
+        // Genres are interned by key; the first spelling seen is the one stored. Many games share the
+        // same genre text, so each distinct text is only split once.
+        Map<String, Integer> indexesByKey = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        Map<String, List<Integer>> indexesByText = new HashMap<>();
+        List<List<Integer>> genres = new ArrayList<>(games.size());
+        for (BoardGame game : games) {
+            genres.add(game.getGenre() == null ? List.of() : indexesByText.computeIfAbsent(game.getGenre(), text -> {
+                List<Integer> indexes = new ArrayList<>();
+                BoardGameGenre.split(text).forEach((key, name) ->
+                        indexes.add(indexesByKey.computeIfAbsent(key, k -> {
+                            dictionary.add(name);
+                            return dictionary.size() - 1;
+                        })));
+                return indexes;
+            }));
+        }
+
+        Output out = new Output(64 * games.size() + 64);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        out.writeVarint(games.size());
+        out.writeVarint(dictionary.size());
+        dictionary.forEach(out::writeString);
+
+        long previousId = 0;
+        for (BoardGame game : games) {
+            long id = game.getId();
+            out.writeVarint(zigzag(id - previousId));
+            previousId = id;
+        }
+        games.forEach(game -> out.writeString(game.getName()));
+        games.forEach(game -> out.writeNullable(game.getMinPlaytime()));
+        games.forEach(game -> out.writeNullable(game.getMaxPlaytime()));
+        games.forEach(game -> out.writeNullable(game.getMinPlayerCount()));
+        games.forEach(game -> out.writeNullable(game.getMaxPlayerCount()));
+        games.forEach(game -> out.writeNullable(game.getAvailableCopies()));
+        games.forEach(game -> out.writeNullable(game.getQuantity()));
+        for (List<Integer> indexes : genres) {
+            out.writeVarint(indexes.size());
+            indexes.forEach(out::writeVarint);
+        }
+        games.forEach(game -> out.writeString(game.getBoxImageUrl()));
+        games.forEach(game -> out.writeString(game.getDescription()));
+
+        byte[] hash = sha256(out.buffer(), out.size());
+        out.write(hash, 0, hash.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * The content hash at the end of an encoded catalog, in hex; suitable as an ETag.
+     */
+    public static String hash(byte[] catalog) {
+        return HexFormat.of().formatHex(catalog, catalog.length - HASH_LENGTH, catalog.length);
+    }
+
+    /**
+     * Decode a catalog produced by {@link #write}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a catalog of this version or fail their hash
+     */
+    public static List<BoardGame> read(byte[] catalog) {
+        if (catalog.length < MAGIC.length + 1 + HASH_LENGTH
+                || !Arrays.equals(catalog, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IllegalArgumentException("Not a board game catalog");
+        }
+        if (catalog[MAGIC.length] != VERSION) {
+            throw new IllegalArgumentException("Unsupported catalog version " + catalog[MAGIC.length]);
+        }
+        int end = catalog.length - HASH_LENGTH;
+        if (!Arrays.equals(sha256(catalog, end), 0, HASH_LENGTH, catalog, end, catalog.length)) {
+            throw new IllegalArgumentException("Catalog hash mismatch");
+        }
+
+        Input in = new Input(catalog, MAGIC.length + 1, end);
+        int count = in.readCount();
+        String[] dictionary = new String[in.readCount()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readString();
+        }
+        List<BoardGame> games = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += unzigzag(in.readVarint());
+            BoardGame game = new BoardGame();
+            game.setId(id);
+            games.add(game);
+        }
+        games.forEach(game -> game.setName(in.readString()));
+        games.forEach(game -> game.setMinPlaytime(in.readNullable()));
+        games.forEach(game -> game.setMaxPlaytime(in.readNullable()));
+        games.forEach(game -> game.setMinPlayerCount(in.readNullable()));
+        games.forEach(game -> game.setMaxPlayerCount(in.readNullable()));
+        games.forEach(game -> game.setAvailableCopies(in.readNullable()));
+        games.forEach(game -> game.setQuantity(in.readNullable()));
+        for (BoardGame game : games) {
+            int genreCount = in.readCount();
+            if (genreCount > 0) {
+                String[] names = new String[genreCount];
+                for (int i = 0; i < genreCount; i++) {
+                    long index = in.readVarint();
+                    if (index >= dictionary.length) {
+                        throw new IllegalArgumentException("Genre index out of range: " + index);
+                    }
+                    names[i] = dictionary[(int) index];
+                }
+                game.setGenre(String.join(", ", names));
+            }
+        }
+        games.forEach(game -> game.setBoxImageUrl(in.readString()));
+        games.forEach(game -> game.setDescription(in.readString()));
+        if (in.position != end) {
+            throw new IllegalArgumentException("Trailing bytes in catalog");
+        }
+        return games;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static byte[] sha256(byte[] bytes, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, 0, length);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+        Output(int size) {
+            super(size);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeNullable(Integer value) {
+            writeVarint(value == null ? 0 : zigzag(value) + 1);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                write(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1L);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private static final class Input {
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        Input(byte[] bytes, int position, int end) {
+            this.bytes = bytes;
+            this.position = position;
+            this.end = end;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Truncated catalog");
+                }
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at " + position);
+        }
+
+        int readCount() {
+            long value = readVarint();
+            // Every counted item takes at least a byte
+            if (value > end - position) {
+                throw new IllegalArgumentException("Count out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        Integer readNullable() {
+            long value = readVarint();
+            return value == 0 ? null : (int) unzigzag(value - 1);
+        }
+
+        String readString() {
+            long length = readVarint();
+            if (length == 0) {
+                return null;
+            }
+            if (length - 1 > end - position) {
+                throw new IllegalArgumentException("Truncated catalog");
+            }
+            String value = new String(bytes, position, (int) (length - 1), StandardCharsets.UTF_8);
+            position += (int) (length - 1);
+            return value;
+        }
+    }
+}
@@ -1,23 +1,30 @@
 package edu.wisc.union.websiteBackend.controllers.games;
 
 import edu.wisc.union.websiteBackend.auth.JwtUtil;
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.audit.AuditEvent;
+import edu.wisc.union.websiteBackend.controllers.holds.GameHoldService;
+import edu.wisc.union.websiteBackend.controllers.images.BoxArtChangedEvent;
 import edu.wisc.union.websiteBackend.exception.InputErrorException;
 import edu.wisc.union.websiteBackend.jpa.BoardGame;
-import edu.wisc.union.websiteBackend.jpa.BoardGameCheckout;
 import edu.wisc.union.websiteBackend.jpa.BoardGameCheckoutRepository;
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenre;
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenreRepository;
 import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import edu.wisc.union.websiteBackend.ledger.CheckoutStats;
+import edu.wisc.union.websiteBackend.ledger.StockChangedEvent;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.csv.CSVRecord;
 import org.springdoc.api.OpenApiResourceNotFoundException;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,46 +37,109 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.*;
 import java.lang.reflect.Field;
 import java.time.LocalDate;
-import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController()
 @RequestMapping("/api/games")
 public class BoardGameController {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final BoardGameCheckoutRepository boardGameCheckoutRepository;
     private final BoardGameRepository boardGameRepository;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CheckoutBatchService checkoutBatchService;
+    private final GameHoldService gameHoldService;
+    private final BoardGameGenres boardGameGenres;
+    private final BoardGameGenreRepository boardGameGenreRepository;
+    private final PublicBoardGameJson publicBoardGameJson;
+    private final CheckoutStats checkoutStats;
 
     public BoardGameController(BoardGameRepository boardGameRepository, JwtUtil jwtUtil,
-                               BoardGameCheckoutRepository boardGameCheckoutRepository) {
+                               BoardGameCheckoutRepository boardGameCheckoutRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               CheckoutBatchService checkoutBatchService,
+                               GameHoldService gameHoldService,
+                               BoardGameGenres boardGameGenres,
+                               BoardGameGenreRepository boardGameGenreRepository,
+                               PublicBoardGameJson publicBoardGameJson,
+                               CheckoutStats checkoutStats) {
         this.boardGameRepository = boardGameRepository;
         this.jwtUtil = jwtUtil;
         this.boardGameCheckoutRepository = boardGameCheckoutRepository;
+        this.eventPublisher = eventPublisher;
+        this.checkoutBatchService = checkoutBatchService;
+        this.gameHoldService = gameHoldService;
+        this.boardGameGenres = boardGameGenres;
+        this.boardGameGenreRepository = boardGameGenreRepository;
+        this.publicBoardGameJson = publicBoardGameJson;
+        this.checkoutStats = checkoutStats;
     }
 
     @GetMapping()
-    public ResponseEntity<List<BoardGame>> getBoardGames(@RequestParam(required = false) String name,
-                                                         @RequestParam(required = false) Integer minPlayTime,
-                                                         @RequestParam(required = false) Integer maxPlayTime ,
-                                                         @RequestParam(required = false) String genre ,
-                                                         @RequestParam(required = false) Integer playerCount) {
-        List<BoardGame> games = boardGameRepository.findFiltered(name, genre, minPlayTime, maxPlayTime, playerCount, Sort.by("name"));
-
-        if(jwtUtil.getCurrentAccessLevel().equals(JwtUtil.AccessLevel.ANONYMOUS)) {
-            for (BoardGame game : games) {
-                game.setInternalNotes(null);
-                game.setCheckoutCount(null);
-            }
+    public ResponseEntity<?> getBoardGames(@RequestParam(required = false) String name,
+                                           @RequestParam(required = false) Integer minPlayTime,
+                                           @RequestParam(required = false) Integer maxPlayTime ,
+                                           @RequestParam(required = false) String genre ,
+                                           @RequestParam(required = false) Integer playerCount,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        String genreKey = genre == null || genre.isBlank() ? null : BoardGameGenre.key(genre);
+        boolean anonymous = jwtUtil.getCurrentAccessLevel().equals(JwtUtil.AccessLevel.ANONYMOUS);
+        long readAt = publicBoardGameJson.generation();
+        List<BoardGame> games = boardGameRepository.findFiltered(name, genreKey, minPlayTime, maxPlayTime, playerCount, Sort.by("name"));
+
+        if (acceptsBinary(accept)) {
+            // Public fields only, whoever asks; unchanged catalogs are answered with 304. The ETag is weak
+            // so the response may still be gzipped on the way out.
+            byte[] catalog = BoardGameBinary.write(games);
+            return ResponseEntity.ok()
+                    .contentType(BoardGameBinary.MEDIA_TYPE)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag("W/\"" + BoardGameBinary.hash(catalog) + "\"")
+                    .body(catalog);
+        }
+        if (anonymous) {
+            // Public fields only, without nulls
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(publicBoardGameJson.write(games, readAt));
+        }
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(games);
+    }
+
+    // Only an explicit request gets the binary catalog; wildcards keep getting JSON
+    private static boolean acceptsBinary(String accept) {
+        if (accept == null || !accept.contains(BoardGameBinary.MEDIA_TYPE_VALUE)) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(type -> type.equalsTypeAndSubtype(BoardGameBinary.MEDIA_TYPE) && type.getQualityValue() > 0);
+        } catch (InvalidMediaTypeException e) {
+            return false;
         }
-//        List<BoardGame> games = boardGameRepository.findAll();
-        return ResponseEntity.ok(games);
+    }
+
+    /**
+     * Genres of the catalog's games, by name; each one is a valid {@code genre} filter.
+     */
+    @GetMapping("/genres")
+    public ResponseEntity<List<String>> getGenres() {
+        return ResponseEntity.ok(boardGameGenreRepository.findAllInUse().stream().map(BoardGameGenre::getName).toList());
     }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<GameDTO> addGame(@RequestBody GameDTO game) {
         if (game.getId() != null) {
             throw new InputErrorException("A102","You cannot set the ID of game");
@@ -85,17 +155,24 @@ public class BoardGameController {
         BeanUtils.copyProperties(game, gameObj);
         gameObj.setAvailableCopies(gameObj.getQuantity());
         gameObj.setCheckoutCount(0);
+        boardGameGenres.link(gameObj);
 
         gameObj = boardGameRepository.save(gameObj);
+        eventPublisher.publishEvent(BoxArtChangedEvent.boardGame(gameObj.getId(), gameObj.getBoxImageUrl()));
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, gameObj.getId()));
+        eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.ADD, gameObj));
+        // Nobody else can see the new row yet, let alone hold copies of it
+        eventPublisher.publishEvent(StockChangedEvent.of(gameObj, 0));
         game.setId(gameObj.getId());
         return ResponseEntity.status(201).body(game);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<GameDTO> updateGame(@PathVariable Long id, @RequestBody GameDTO game) {
-        // Check if the game exists
-        BoardGame existingGame = boardGameRepository.findById(id)
+        // Check if the game exists; locked so its stock is recorded between the same checkouts and returns
+        BoardGame existingGame = boardGameRepository.findAllByIdForUpdate(List.of(id)).stream().findFirst()
                 .orElseThrow(() -> new InputErrorException("A105", "Game not found with ID: " + id));
 
         // Validate the updated fields
@@ -109,7 +186,12 @@ public class BoardGameController {
 
         // Update the game object
         BeanUtils.copyProperties(game, existingGame, "id"); // Exclude ID from being copied
+        boardGameGenres.link(existingGame);
         existingGame = boardGameRepository.save(existingGame);
+        eventPublisher.publishEvent(BoxArtChangedEvent.boardGame(existingGame.getId(), existingGame.getBoxImageUrl()));
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, id));
+        eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.UPDATE, existingGame));
+        eventPublisher.publishEvent(StockChangedEvent.of(existingGame, gameHoldService.readyCopies(id)));
 
         // Return the updated game
         GameDTO updatedGame = new GameDTO();
@@ -127,7 +209,11 @@ public class BoardGameController {
 
         // Delete the game
         boardGameCheckoutRepository.deleteByKey_BoardGame(game);
+        gameHoldService.deleteHolds(game);
         boardGameRepository.deleteById(id);
+        eventPublisher.publishEvent(BoxArtChangedEvent.boardGame(id, null));
+        eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Entity.BOARD_GAME, id));
+        eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.DELETE, game));
         return ResponseEntity.noContent().build();
     }
 
@@ -151,16 +237,17 @@ public class BoardGameController {
 
     @PatchMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<GameDTO> patchGame(@PathVariable Long id, @RequestBody Map<String, Object> updates) {
-        // Check if the game exists
-        BoardGame game = boardGameRepository.findById(id)
+        // Check if the game exists; locked as in updateGame
+        BoardGame game = boardGameRepository.findAllByIdForUpdate(List.of(id)).stream().findFirst()
                 .orElseThrow(() -> new InputErrorException("A105", "Game not found with ID: " + id));
 
         // Apply updates
         updates.forEach((key, value) -> {
             Field field = ReflectionUtils.findField(BoardGame.class, key);
             if (field != null) {
-                if (!field.getName().equals("id")) {
+                if (!field.getName().equals("id") && !field.getName().equals("genres")) {
                     field.setAccessible(true);
                     ReflectionUtils.setField(field, game, value);
                 }
@@ -177,7 +264,16 @@ public class BoardGameController {
         }
 
         // Save the updated game
+        if (updates.containsKey("genre")) {
+            boardGameGenres.link(game);
+        }
         boardGameRepository.save(game);
+        if (updates.containsKey("boxImageUrl")) {
+            eventPublisher.publishEvent(BoxArtChangedEvent.boardGame(game.getId(), game.getBoxImageUrl()));
+        }
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, id));
+        eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.PATCH, game));
+        eventPublisher.publishEvent(StockChangedEvent.of(game, gameHoldService.readyCopies(id)));
 
         // Convert to DTO
         GameDTO updatedGame = new GameDTO();
@@ -188,86 +284,70 @@ public class BoardGameController {
     @PostMapping("/{id}/checkout")
     @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
     public ResponseEntity<String> checkoutGame(@PathVariable Long id) {
-        BoardGame game = boardGameRepository.findById(id)
-                .orElseThrow(() -> new OpenApiResourceNotFoundException("Game not found with ID: " + id));
-        if (game.getAvailableCopies() == null) {
-            if (game.getQuantity() == null) {
-                game.setQuantity(1);
-                game.setAvailableCopies(1);
-            } else
-                game.setAvailableCopies(game.getQuantity());
-        }
-        if (game.getAvailableCopies() <= 0) {
-            throw new InputErrorException("A105", "No copies available for checkout.");
+        // A stack of one, so it takes the same row lock as batches, returns and holds
+        CheckoutBatchObjects.ItemResult result = checkoutBatchService
+                .checkOut(List.of(new CheckoutBatchObjects.BatchItem(id, 1))).getItems().get(0);
+        switch (result.getStatus()) {
+            case NOT_FOUND -> throw new OpenApiResourceNotFoundException("Game not found with ID: " + id);
+            case NOT_AVAILABLE -> throw new InputErrorException("A105", "No copies available for checkout.");
+            default -> {
+            }
         }
-
-        BoardGameCheckout.BoardGameCheckoutKey key = new BoardGameCheckout.BoardGameCheckoutKey(game, LocalDate.now(ZoneId.of("America/Chicago")));
-        BoardGameCheckout checkout = boardGameCheckoutRepository.findById(key).orElse(new BoardGameCheckout(key, 0));
-        checkout.setCount(checkout.getCount() + 1);
-        boardGameCheckoutRepository.save(checkout);
-
-        game.setAvailableCopies(game.getAvailableCopies() - 1);
-        game.setCheckoutCount(game.getCheckoutCount() + 1);
-        boardGameRepository.save(game);
-
         return ResponseEntity.ok("Game checked out successfully.");
     }
 
     @PostMapping("/{id}/return")
     @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    @Transactional
     public ResponseEntity<String> returnGame(@PathVariable Long id) {
-        BoardGame game = boardGameRepository.findById(id)
+        BoardGame game = boardGameRepository.findAllByIdForUpdate(List.of(id)).stream().findFirst()
                 .orElseThrow(() -> new OpenApiResourceNotFoundException("Game not found with ID: " + id));
 
-        if (game.getAvailableCopies() >= game.getQuantity())
+        if (game.getAvailableCopies() + gameHoldService.readyCopies(id) >= game.getQuantity())
             throw new InputErrorException("A107", "Cannot return game, all games already returned");
+        eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.RETURN, game, 1));
+        if (gameHoldService.handOff(game, 1) > 0) {
+            return ResponseEntity.ok("Game returned and set aside for the next guest in line.");
+        }
         game.setAvailableCopies(game.getAvailableCopies() + 1);
         boardGameRepository.save(game);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, id));
 
         return ResponseEntity.ok("Game returned successfully.");
     }
 
+    /**
+     * Check out a stack of games in one request, e.g. {@code [{"id": 4, "quantity": 2}, {"id": 9}]}. Games that
+     * cannot be checked out are reported per item and the rest are checked out anyway.
+     */
+    @PostMapping("/checkout:batch")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<CheckoutBatchObjects.BatchResult> checkoutGames(
+            @RequestBody List<CheckoutBatchObjects.BatchItem> items) {
+        return ResponseEntity.ok(checkoutBatchService.checkOut(items));
+    }
+
+    /**
+     * Return a stack of games in one request; same body and per-item results as {@code checkout:batch}.
+     */
+    @PostMapping("/return:batch")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<CheckoutBatchObjects.BatchResult> returnGames(
+            @RequestBody List<CheckoutBatchObjects.BatchItem> items) {
+        return ResponseEntity.ok(checkoutBatchService.returnCopies(items));
+    }
+
 
 
     @GetMapping("/download-csv")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<byte[]> downloadCsv() {
         List<BoardGame> games = boardGameRepository.findAll(Sort.by("name"));
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream));
-             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(
-                     "ID", "Name", "Min Playtime", "Max Playtime", "Min Players", "Max Players",
-                     "Available Copies", "Genre", "Box Art URL", "Description", "Quantity",
-                     "Checkout Count", "Internal Notes"
-             ))) {
-
-            for (BoardGame game : games) {
-                csvPrinter.printRecord(
-                        game.getId(),
-                        game.getName(),
-                        game.getMinPlaytime(),
-                        game.getMaxPlaytime(),
-                        game.getMinPlayerCount(),
-                        game.getMaxPlayerCount(),
-                        game.getAvailableCopies(),
-                        game.getGenre(),
-                        game.getBoxImageUrl(),
-                        game.getDescription(),
-                        game.getQuantity(),
-                        game.getCheckoutCount(),
-                        game.getInternalNotes()
-                );
-            }
-
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating CSV", e);
-        }
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=boardgames.csv")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(outputStream.toByteArray());
+                .contentType(TEXT_CSV)
+                .body(BoardGameCsv.write(games));
     }
 
     @GetMapping("/stats")
@@ -275,6 +355,9 @@ public class BoardGameController {
     public ResponseEntity<Map<String, Object>> getGameNightStats(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (checkoutStats.isActive()) {
+            return ResponseEntity.ok(checkoutStats.stats(startDate, endDate));
+        }
         var mostPopularGame = boardGameCheckoutRepository.findMostPopularGame(startDate, endDate);
         Object[] mostPopularGameData = mostPopularGame.isEmpty() ? new String[] { "N/A", "No data available" } : mostPopularGame.get(0);
 
@@ -319,16 +402,29 @@ public class BoardGameController {
     @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
     @Transactional()
     public ResponseEntity<List<GameReturnResponse>> returnAllGames() {
-        List<BoardGame> updatedGames = boardGameRepository.findAll().stream()
-                .filter(game -> game.getAvailableCopies() == null || !game.getAvailableCopies().equals(game.getQuantity()))
-                .peek(game -> game.setAvailableCopies(game.getQuantity()))
+        // Lock and read the affected rows, then update them all with one statement; the bulk update also
+        // drops the cached games and listings
+        List<BoardGameRepository.OutstandingGame> outstanding = boardGameRepository.findOutstandingForUpdate();
+        List<GameReturnResponse> returned = outstanding.stream()
+                .map(game -> new GameReturnResponse(game.getId(), game.getName(), game.getQuantity()))
                 .collect(Collectors.toList());
+        // Every copy is back on the shelf, including those set aside for holds
+        gameHoldService.expireAll();
+        if (returned.isEmpty()) {
+            return ResponseEntity.ok(returned);
+        }
 
-        boardGameRepository.saveAll(updatedGames);
-
-        return ResponseEntity.ok(updatedGames.stream()
-                .map(game -> new GameReturnResponse(game.getId(), game.getName(), game.getQuantity()))
-                .collect(Collectors.toList()));
+        // The copies each game gets back, counted before the bulk update puts them all on the shelf
+        List<AuditEvent> audited = outstanding.stream()
+                .map(game -> new AuditEvent(AuditEvent.Action.RETURN_ALL, game.getId(), game.getName(),
+                        game.getQuantity() == null ? null
+                                : game.getQuantity() - (game.getAvailableCopies() == null ? 0 : game.getAvailableCopies())))
+                .toList();
+        boardGameRepository.returnAllCopies();
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME,
+                returned.stream().map(GameReturnResponse::getId).toList()));
+        audited.forEach(eventPublisher::publishEvent);
+        return ResponseEntity.ok(returned);
     }
 
     @Data
@@ -344,73 +440,38 @@ public class BoardGameController {
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional(propagation = Propagation.NESTED)
     public ResponseEntity<Void> importBoardGames(@RequestParam MultipartFile file) {
+        List<Long> imported = new ArrayList<>();
         try {
             Reader reader = new InputStreamReader(file.getInputStream());
-            Iterable<CSVRecord> records = CSVFormat.DEFAULT
-                    .withFirstRecordAsHeader() // This assumes that the first row contains headers.
-                    .parse(reader);
-
-            for (CSVRecord record : records) {
-                // Map CSV fields to the BoardGame entity
-
-                BoardGame game = new BoardGame();
-                game.setName(record.get("Name").trim());
-
-                if (boardGameRepository.existsByNameIgnoreCase(game.getName()))
+            List<BoardGame> games = new ArrayList<>();
+            Set<String> names = new HashSet<>();
+            for (BoardGame game : BoardGameCsv.parse(reader)) {
+                // Skips names already in the catalog, and repeats within the file
+                String name = game.getName() == null ? null : game.getName().toLowerCase(Locale.ROOT);
+                if ((name != null && !names.add(name)) || boardGameRepository.existsByNameIgnoreCase(game.getName()))
                     continue;
-
-                try {
-                    game.setQuantity(parseQuantity(record.get("Quantity")));
-                    game.setAvailableCopies(game.getQuantity());
-                }
-                catch (NumberFormatException e) {
-                    // Let the error go
-                }
-                try {
-                    game.setMinPlayerCount(parseQuantity(record.get("Min Players")));
-                    game.setMaxPlayerCount(parseQuantity(record.get("Max Players")));
-                } catch (NumberFormatException e) {
-                    // Let the error go
-                }
-                try {
-                    game.setMinPlaytime(parseQuantity(record.get("Min Playtime")));
-                    game.setMaxPlaytime(parseQuantity(record.get("Max Playtime")));
-                } catch (NumberFormatException e) {
-                    //
-                }
-                try {
-                    game.setCheckoutCount(parseCheckoutCount(record.get("Times Checked Out")));
-                } catch (NumberFormatException e) {
-                    // Let the error go
-                }
-                if (record.get("Genres") != null)
-                    game.setGenre(record.get("Genres").trim());
-                if (record.get("Quick Description") != null)
-                    game.setDescription(record.get("Quick Description").trim());
-                if (record.get("Box Art URL") != null)
-                    game.setBoxImageUrl(record.get("Box Art URL").trim());
-                if (record.get("Notes") != null)
-                    game.setInternalNotes(record.get("Notes").trim());
-
+                games.add(game);
+            }
+            boardGameGenres.link(games);
+            for (BoardGame game : games) {
                 // Save the entity in the DB
                 boardGameRepository.save(game);
+                eventPublisher.publishEvent(BoxArtChangedEvent.boardGame(game.getId(), game.getBoxImageUrl()));
+                eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.IMPORT, game));
+                eventPublisher.publishEvent(StockChangedEvent.of(game, 0));
+                imported.add(game.getId());
             }
         } catch (Exception e) {
             throw new RuntimeException("Error importing CSV", e);
         }
+        if (!imported.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, imported));
+        }
         return ResponseEntity.ok().build();
     }
 
 
 
-    private Integer parseQuantity(String quantity) {
-        try {
-            return Integer.parseInt(quantity.trim());
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
-
     private Integer parseMinPlayers(String players) {
         String[] parts = players.split("-");
         return Integer.parseInt(parts[0].trim());
@@ -449,12 +510,4 @@ public class BoardGameController {
             return 0;
         }
     }
-
-    private Integer parseCheckoutCount(String checkoutCount) {
-        try {
-            return Integer.parseInt(checkoutCount.trim());
-        } catch (NumberFormatException e) {
-            return 0;
-        }
-    }
 }
@@ -0,0 +1,136 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV rendering and parsing for the board game catalog, shared by the import/export
+ * endpoints and the benchmark harness.
+ */
+public final class BoardGameCsv {
+
+    private static final String[] EXPORT_HEADER = {
+            "ID", "Name", "Min Playtime", "Max Playtime", "Min Players", "Max Players",
+            "Available Copies", "Genre", "Box Art URL", "Description", "Quantity",
+            "Checkout Count", "Internal Notes"
+    };
+
+    private BoardGameCsv() {
+    }
+
+    /**
+     * Render the given games in the export layout used by {@code /api/games/download-csv}.
+     *
+     * @param games the games to render, in output order
+     * @return the CSV document as bytes
+     */
+    public static byte[] write(List<BoardGame> games) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(outputStream));
+             CSVPrinter csvPrinter = new CSVPrinter(writer, CSVFormat.DEFAULT.withHeader(EXPORT_HEADER))) {
+
+            for (BoardGame game : games) {
+                csvPrinter.printRecord(
+                        game.getId(),
+                        game.getName(),
+                        game.getMinPlaytime(),
+                        game.getMaxPlaytime(),
+                        game.getMinPlayerCount(),
+                        game.getMaxPlayerCount(),
+                        game.getAvailableCopies(),
+                        game.getGenre(),
+                        game.getBoxImageUrl(),
+                        game.getDescription(),
+                        game.getQuantity(),
+                        game.getCheckoutCount(),
+                        game.getInternalNotes()
+                );
+            }
+
+        } catch (Exception e) {
+            throw new RuntimeException("Error generating CSV", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Parse an import sheet into unsaved {@link BoardGame} entities. Numeric columns that
+     * cannot be parsed are left at their defaults rather than failing the whole import.
+     *
+     * @param reader the CSV source, whose first row must be the header
+     * @return the parsed games, in file order
+     * @throws IOException if the source cannot be read
+     */
+    public static List<BoardGame> parse(Reader reader) throws IOException {
+        Iterable<CSVRecord> records = CSVFormat.DEFAULT
+                .withFirstRecordAsHeader() // This assumes that the first row contains headers.
+                .parse(reader);
+
+        List<BoardGame> games = new ArrayList<>();
+        for (CSVRecord record : records) {
+            // Map CSV fields to the BoardGame entity
+
+            BoardGame game = new BoardGame();
+            game.setName(record.get("Name").trim());
+
+            try {
+                game.setQuantity(parseQuantity(record.get("Quantity")));
+                game.setAvailableCopies(game.getQuantity());
+            }
+            catch (NumberFormatException e) {
+                // Let the error go
+            }
+            try {
+                game.setMinPlayerCount(parseQuantity(record.get("Min Players")));
+                game.setMaxPlayerCount(parseQuantity(record.get("Max Players")));
+            } catch (NumberFormatException e) {
+                // Let the error go
+            }
+            try {
+                game.setMinPlaytime(parseQuantity(record.get("Min Playtime")));
+                game.setMaxPlaytime(parseQuantity(record.get("Max Playtime")));
+            } catch (NumberFormatException e) {
+                //
+            }
+            try {
+                game.setCheckoutCount(parseCheckoutCount(record.get("Times Checked Out")));
+            } catch (NumberFormatException e) {
+                // Let the error go
+            }
+            if (record.get("Genres") != null)
+                game.setGenre(record.get("Genres").trim());
+            if (record.get("Quick Description") != null)
+                game.setDescription(record.get("Quick Description").trim());
+            if (record.get("Box Art URL") != null)
+                game.setBoxImageUrl(record.get("Box Art URL").trim());
+            if (record.get("Notes") != null)
+                game.setInternalNotes(record.get("Notes").trim());
+
+            games.add(game);
+        }
+        return games;
+    }
+
+    private static Integer parseQuantity(String quantity) {
+        try {
+            return Integer.parseInt(quantity.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Integer parseCheckoutCount(String checkoutCount) {
+        try {
+            return Integer.parseInt(checkoutCount.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
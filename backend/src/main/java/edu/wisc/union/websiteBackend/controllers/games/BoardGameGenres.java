@@ -0,0 +1,68 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenre;
+import edu.wisc.union.websiteBackend.jpa.BoardGameGenreRepository;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps each game's genre links in step with its genre text. Called on every write of that text, before the
+ * game is saved.
+ */
+@Service
+public class BoardGameGenres {
+    private final BoardGameGenreRepository genreRepository;
+
+    public BoardGameGenres(BoardGameGenreRepository genreRepository) {
+        this.genreRepository = genreRepository;
+    }
+
+    public void link(BoardGame game) {
+        link(List.of(game));
+    }
+
+    /**
+     * Point each game's {@link BoardGame#getGenres()} at the genres its text names, creating genres seen for the
+     * first time. Looks up all the games' genres in one query.
+     */
+    @Transactional
+    public void link(Collection<BoardGame> games) {
+        Map<BoardGame, Map<String, String>> named = new LinkedHashMap<>();
+        Map<String, String> allNames = new LinkedHashMap<>();
+        for (BoardGame game : games) {
+            Map<String, String> names = BoardGameGenre.split(game.getGenre());
+            named.put(game, names);
+            names.forEach(allNames::putIfAbsent);
+        }
+
+        Map<String, BoardGameGenre> genres = allNames.isEmpty() ? new HashMap<>()
+                : genreRepository.findByNameKeyIn(allNames.keySet()).stream()
+                .collect(Collectors.toMap(BoardGameGenre::getNameKey, Function.identity()));
+        List<BoardGameGenre> created = allNames.entrySet().stream()
+                .filter(name -> !genres.containsKey(name.getKey()))
+                .map(name -> new BoardGameGenre(name.getValue()))
+                .toList();
+        genreRepository.saveAll(created).forEach(genre -> genres.put(genre.getNameKey(), genre));
+
+        named.forEach((game, names) -> {
+            // Unchanged genres keep their link rows; a new set would have Hibernate rewrite them all
+            if (!linkedKeys(game).equals(names.keySet())) {
+                game.setGenres(names.keySet().stream().map(genres::get).collect(Collectors.toCollection(HashSet::new)));
+            }
+        });
+    }
+
+    // Games are often detached by the time they are saved, so an unloaded set is read with a query instead
+    private Set<String> linkedKeys(BoardGame game) {
+        if (game.getId() != null && !Hibernate.isInitialized(game.getGenres())) {
+            return new HashSet<>(genreRepository.findNameKeysByBoardGameId(game.getId()));
+        }
+        return game.getGenres().stream().map(BoardGameGenre::getNameKey).collect(Collectors.toSet());
+    }
+}
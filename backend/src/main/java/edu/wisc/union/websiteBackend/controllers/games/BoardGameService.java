@@ -1,27 +1,45 @@
 package edu.wisc.union.websiteBackend.controllers.games;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import edu.wisc.union.websiteBackend.controllers.lookup.JsonArrayStreamDecoder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collections;
 import java.util.List;
 
 @Service
 public class BoardGameService {
-    private final WebClient searchClient = WebClient.builder()
-            .baseUrl("https://boardgamegeek.com")
-            .build();
-    private final WebClient gameClient = WebClient.builder()
-            .baseUrl("https://api.geekdo.com")
-            .build();
+    private final WebClient searchClient;
+    private final WebClient gameClient;
+    private final JsonArrayStreamDecoder decoder;
+
+    public BoardGameService(WebClient.Builder webClientBuilder, JsonArrayStreamDecoder decoder,
+                            @Value("${external.bgg.url:https://boardgamegeek.com}") String searchUrl,
+                            @Value("${external.geekdo.url:https://api.geekdo.com}") String gameUrl) {
+        this.decoder = decoder;
+        this.searchClient = webClientBuilder.clone()
+                .baseUrl(searchUrl)
+                .build();
+        this.gameClient = webClientBuilder.clone()
+                .baseUrl(gameUrl)
+                .build();
+    }
 
 
     public Mono<List<BGGObjects.BoardGameSearchResult>> searchBoardGames(String gameName) {
-        return searchClient.get()
+        return streamBoardGames(gameName).collectList();
+    }
+
+    /**
+     * Search BGG, emitting each hit as soon as it has been decoded from the response.
+     */
+    public Flux<BGGObjects.BoardGameSearchResult> streamBoardGames(String gameName) {
+        Flux<DataBuffer> body = searchClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .path("/search/boardgame")
 
@@ -32,8 +50,8 @@ public class BoardGameService {
                 .cookie("twtr_pixel_opt_in", "N") // Add the cookie here
                 .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE) // Add Accept header
                 .retrieve()
-                .bodyToMono(BGGObjects.BoardGameSearchResults.class) // Map the JSON to your class
-                .map(BGGObjects.BoardGameSearchResults::getItems); // Return the list of items
+                .bodyToFlux(DataBuffer.class);
+        return decoder.decode(body, "items", BGGObjects.BoardGameSearchResult.class);
     }
 
 
@@ -50,4 +68,4 @@ public class BoardGameService {
                 .bodyToMono(BGGObjects.BoardGameDetailsItem.class);
         return object.map(BGGObjects.BoardGameDetailsItem::getItem);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Request and response bodies of {@code /api/games/checkout:batch} and {@code /api/games/return:batch}.
+ */
+public class CheckoutBatchObjects {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchItem {
+        private Long id;
+        /**
+         * Copies to check out or return; 1 when omitted.
+         */
+        private Integer quantity;
+    }
+
+    public enum ItemStatus {
+        CHECKED_OUT,
+        RETURNED,
+        NOT_FOUND,
+        /**
+         * Fewer copies on the shelf than requested; nothing was checked out.
+         */
+        NOT_AVAILABLE,
+        /**
+         * Fewer copies out than were handed back; nothing was returned.
+         */
+        NOT_CHECKED_OUT,
+        INVALID_QUANTITY
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long id;
+        private String name;
+        private int quantity;
+        private ItemStatus status;
+        /**
+         * Copies on the shelf after this batch, or null if the game does not exist.
+         */
+        private Integer availableCopies;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class BatchResult {
+        private int succeeded;
+        private int failed;
+        private List<ItemResult> items;
+    }
+}
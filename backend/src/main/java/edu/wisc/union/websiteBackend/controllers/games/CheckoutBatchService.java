@@ -0,0 +1,202 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.audit.AuditEvent;
+import edu.wisc.union.websiteBackend.controllers.games.CheckoutBatchObjects.BatchItem;
+import edu.wisc.union.websiteBackend.controllers.games.CheckoutBatchObjects.BatchResult;
+import edu.wisc.union.websiteBackend.controllers.games.CheckoutBatchObjects.ItemResult;
+import edu.wisc.union.websiteBackend.controllers.games.CheckoutBatchObjects.ItemStatus;
+import edu.wisc.union.websiteBackend.controllers.holds.GameHoldService;
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameCheckout;
+import edu.wisc.union.websiteBackend.jpa.BoardGameCheckoutRepository;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks out or returns a stack of games in one transaction; a single checkout is a stack of one. The games
+ * are locked first, so every item's outcome is decided against committed counts; the accepted items are then
+ * written with one conditional update per distinct quantity (usually just one), whatever the size of the
+ * stack. Items that cannot be served are reported and skipped; the rest of the batch still goes through.
+ */
+@Service
+public class CheckoutBatchService {
+    private static final int MAX_ITEMS = 200;
+    private static final ZoneId GAME_NIGHT_ZONE = ZoneId.of("America/Chicago");
+
+    private final BoardGameRepository boardGameRepository;
+    private final BoardGameCheckoutRepository boardGameCheckoutRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GameHoldService gameHoldService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CheckoutBatchService(BoardGameRepository boardGameRepository,
+                                BoardGameCheckoutRepository boardGameCheckoutRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                GameHoldService gameHoldService) {
+        this.boardGameRepository = boardGameRepository;
+        this.boardGameCheckoutRepository = boardGameCheckoutRepository;
+        this.eventPublisher = eventPublisher;
+        this.gameHoldService = gameHoldService;
+    }
+
+    @Transactional
+    public BatchResult checkOut(List<BatchItem> items) {
+        Map<Long, Integer> requested = requestedQuantities(items);
+        Map<Long, BoardGame> games = lock(requested.keySet());
+
+        List<ItemResult> results = new ArrayList<>();
+        Map<Integer, List<Long>> accepted = new TreeMap<>();
+        requested.forEach((id, quantity) -> {
+            BoardGame game = games.get(id);
+            if (game == null || quantity <= 0) {
+                results.add(rejected(id, game, quantity));
+                return;
+            }
+            int available = available(game);
+            if (available < quantity) {
+                results.add(new ItemResult(id, game.getName(), quantity, ItemStatus.NOT_AVAILABLE, available));
+                return;
+            }
+            accepted.computeIfAbsent(quantity, key -> new ArrayList<>()).add(id);
+            results.add(new ItemResult(id, game.getName(), quantity, ItemStatus.CHECKED_OUT, available - quantity));
+        });
+        if (accepted.isEmpty()) {
+            return summarize(results);
+        }
+
+        LocalDate today = LocalDate.now(GAME_NIGHT_ZONE);
+        Set<Long> countedToday = new HashSet<>(boardGameCheckoutRepository.findBoardGameIdsCheckedOutOn(today,
+                accepted.values().stream().flatMap(List::stream).toList()));
+        accepted.forEach((quantity, ids) -> {
+            expectAll(ids, boardGameRepository.checkOutCopies(ids, quantity));
+
+            List<Long> existingRows = ids.stream().filter(countedToday::contains).toList();
+            if (!existingRows.isEmpty()) {
+                boardGameCheckoutRepository.addCheckouts(today, existingRows, quantity);
+            }
+            // Single checkouts come through here as well and hold pickups lock the game before counting theirs,
+            // so the row lock on the game keeps anyone else from inserting the same day's row first
+            ids.stream().filter(id -> !countedToday.contains(id)).forEach(id -> entityManager.persist(
+                    new BoardGameCheckout(new BoardGameCheckout.BoardGameCheckoutKey(games.get(id), today), quantity)));
+        });
+        publishChanged(accepted);
+        publishAudited(results, ItemStatus.CHECKED_OUT, AuditEvent.Action.CHECKOUT);
+        return summarize(results);
+    }
+
+    @Transactional
+    public BatchResult returnCopies(List<BatchItem> items) {
+        Map<Long, Integer> requested = requestedQuantities(items);
+        Map<Long, BoardGame> games = lock(requested.keySet());
+        Map<Long, Integer> setAside = gameHoldService.readyCopies(games.keySet());
+        Set<Long> inLine = gameHoldService.gamesWithWaitingHolds(games.keySet());
+
+        List<ItemResult> results = new ArrayList<>();
+        Map<Integer, List<Long>> accepted = new TreeMap<>();
+        requested.forEach((id, quantity) -> {
+            BoardGame game = games.get(id);
+            if (game == null || quantity <= 0) {
+                results.add(rejected(id, game, quantity));
+                return;
+            }
+            Integer available = game.getAvailableCopies();
+            if (available == null || game.getQuantity() == null
+                    || available + setAside.getOrDefault(id, 0) + quantity > game.getQuantity()) {
+                results.add(new ItemResult(id, game.getName(), quantity, ItemStatus.NOT_CHECKED_OUT, available));
+                return;
+            }
+            // Guests waiting for the game get their copies first; only the rest go back on the shelf
+            int shelved = inLine.contains(id) ? quantity - gameHoldService.handOff(game, quantity) : quantity;
+            if (shelved > 0) {
+                accepted.computeIfAbsent(shelved, key -> new ArrayList<>()).add(id);
+            }
+            results.add(new ItemResult(id, game.getName(), quantity, ItemStatus.RETURNED, available + shelved));
+        });
+
+        accepted.forEach((quantity, ids) -> expectAll(ids, boardGameRepository.returnCopies(ids, quantity)));
+        publishChanged(accepted);
+        publishAudited(results, ItemStatus.RETURNED, AuditEvent.Action.RETURN);
+        return summarize(results);
+    }
+
+    // Repeated ids are merged, keeping the position of their first occurrence
+    private Map<Long, Integer> requestedQuantities(List<BatchItem> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InputErrorException("A108", "The batch must contain at least one game.");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new InputErrorException("A108", "A batch can contain at most " + MAX_ITEMS + " games.");
+        }
+        Map<Long, Integer> requested = new LinkedHashMap<>();
+        for (BatchItem item : items) {
+            if (item == null || item.getId() == null) {
+                throw new InputErrorException("A109", "Every game in the batch needs an 'id'.");
+            }
+            int quantity = item.getQuantity() == null ? 1 : item.getQuantity();
+            requested.merge(item.getId(), quantity, Integer::sum);
+        }
+        return requested;
+    }
+
+    private Map<Long, BoardGame> lock(Set<Long> ids) {
+        return boardGameRepository.findAllByIdForUpdate(ids).stream()
+                .collect(Collectors.toMap(BoardGame::getId, Function.identity()));
+    }
+
+    // Same defaults as a single checkout for games whose copies were never set
+    private static int available(BoardGame game) {
+        if (game.getAvailableCopies() != null) {
+            return game.getAvailableCopies();
+        }
+        return game.getQuantity() == null ? 1 : game.getQuantity();
+    }
+
+    private static ItemResult rejected(Long id, BoardGame game, int quantity) {
+        if (game == null) {
+            return new ItemResult(id, null, quantity, ItemStatus.NOT_FOUND, null);
+        }
+        return new ItemResult(id, game.getName(), quantity, ItemStatus.INVALID_QUANTITY, game.getAvailableCopies());
+    }
+
+    // The rows are locked, so the conditional update can only miss one if the lock was not honoured
+    private static void expectAll(List<Long> ids, int updated) {
+        if (updated != ids.size()) {
+            throw new IllegalStateException("Expected to update " + ids.size() + " games but updated " + updated);
+        }
+    }
+
+    private void publishChanged(Map<Integer, List<Long>> accepted) {
+        if (!accepted.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME,
+                    accepted.values().stream().flatMap(List::stream).toList()));
+        }
+    }
+
+    private void publishAudited(List<ItemResult> results, ItemStatus done, AuditEvent.Action action) {
+        results.stream()
+                .filter(result -> result.getStatus() == done)
+                .forEach(result -> eventPublisher.publishEvent(
+                        new AuditEvent(action, result.getId(), result.getName(), result.getQuantity())));
+    }
+
+    private static BatchResult summarize(List<ItemResult> results) {
+        int succeeded = (int) results.stream()
+                .filter(result -> result.getStatus() == ItemStatus.CHECKED_OUT || result.getStatus() == ItemStatus.RETURNED)
+                .count();
+        return new BatchResult(succeeded, results.size() - succeeded, results);
+    }
+}
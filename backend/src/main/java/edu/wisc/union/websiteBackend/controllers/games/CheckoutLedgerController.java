@@ -0,0 +1,79 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import edu.wisc.union.websiteBackend.ledger.CheckoutLedger;
+import edu.wisc.union.websiteBackend.ledger.CheckoutProjection;
+import edu.wisc.union.websiteBackend.ledger.CheckoutStats;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * What the {@link CheckoutLedger} knows beyond the daily counts: how many copies of each game were out at a
+ * given moment, and how long copies stay out.
+ */
+@RestController
+@RequestMapping("/api/games")
+public class CheckoutLedgerController {
+    private final CheckoutLedger checkoutLedger;
+    private final CheckoutStats checkoutStats;
+
+    public CheckoutLedgerController(CheckoutLedger checkoutLedger, CheckoutStats checkoutStats) {
+        this.checkoutLedger = checkoutLedger;
+        this.checkoutStats = checkoutStats;
+    }
+
+    public record GameAvailability(Long id, int quantity, int copiesOut) {
+    }
+
+    public record AvailabilityResponse(Instant at, long sequence, List<GameAvailability> games) {
+    }
+
+    /**
+     * Copies out per game at {@code at}, or now if not given. Copies set aside for a hold count as in.
+     */
+    @GetMapping("/availability")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<AvailabilityResponse> getAvailability(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at)
+            throws IOException {
+        requireLedger();
+        long sequence = checkoutLedger.lastSequence();
+        CheckoutProjection checkouts = at == null ? checkoutLedger.checkouts() : checkoutLedger.checkoutsAt(at);
+        List<GameAvailability> games = checkouts.stock().entrySet().stream()
+                .map(entry -> new GameAvailability(entry.getKey(), entry.getValue().quantity(),
+                        entry.getValue().copiesOut()))
+                .sorted(Comparator.comparing(GameAvailability::id))
+                .toList();
+        return ResponseEntity.ok(new AvailabilityResponse(at == null ? Instant.now() : at, sequence, games));
+    }
+
+    /**
+     * Time out per game, copy utilization per night and games that stayed on the shelf, over the nights from
+     * {@code startDate} to {@code endDate}.
+     */
+    @GetMapping("/stats/turnover")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<CheckoutStats.Turnover> getTurnoverStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        requireLedger();
+        return ResponseEntity.ok(checkoutStats.turnover(startDate, endDate));
+    }
+
+    private void requireLedger() {
+        if (!checkoutLedger.isActive()) {
+            throw new InputErrorException("A121", "The checkout ledger is turned off.");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package edu.wisc.union.websiteBackend.controllers.games;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The anonymous view of {@code /api/games}, written as JSON without going through Jackson's bean serializers.
+ * Each game is rendered once into a UTF-8 fragment holding only its public, non-null fields; a response is the
+ * fragments of the listed games copied into one array. A fragment is dropped when its game is written, on this
+ * node or, through the republished {@link CatalogChangedEvent}, on another.
+ * <p>
+ * A listing read before a write may be rendered after the write's event has dropped the fragment. Callers
+ * therefore take the {@link #generation()} before they read the games, and fragments rendered from a
+ * generation that has since moved on are served but not kept.
+ */
+@Component
+public class PublicBoardGameJson {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString MIN_PLAYTIME = new SerializedString("minPlaytime");
+    private static final SerializedString MAX_PLAYTIME = new SerializedString("maxPlaytime");
+    private static final SerializedString MIN_PLAYER_COUNT = new SerializedString("minPlayerCount");
+    private static final SerializedString MAX_PLAYER_COUNT = new SerializedString("maxPlayerCount");
+    private static final SerializedString AVAILABLE_COPIES = new SerializedString("availableCopies");
+    private static final SerializedString GENRE = new SerializedString("genre");
+    private static final SerializedString BOX_IMAGE_URL = new SerializedString("boxImageUrl");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString QUANTITY = new SerializedString("quantity");
+
+    private final JsonFactory jsonFactory;
+    private final Map<Long, byte[]> fragments = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public PublicBoardGameJson(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Changes whenever a fragment is dropped; take it before reading the games passed to {@link #write}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * The games as a JSON array, in order.
+     *
+     * @param readAt the {@link #generation()} taken before the games were read
+     */
+    public byte[] write(List<BoardGame> games, long readAt) {
+        byte[][] parts = new byte[games.size()][];
+        int length = 2 + Math.max(0, games.size() - 1);
+        Renderer renderer = null;
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                BoardGame game = games.get(i);
+                parts[i] = fragments.get(game.getId());
+                if (parts[i] == null) {
+                    if (renderer == null) {
+                        renderer = new Renderer();
+                    }
+                    parts[i] = keep(game.getId(), renderer.render(game), readAt);
+                }
+                length += parts[i].length;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (renderer != null) {
+                renderer.close();
+            }
+        }
+        byte[] json = new byte[length];
+        int position = 0;
+        json[position++] = '[';
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                json[position++] = ',';
+            }
+            System.arraycopy(parts[i], 0, json, position, parts[i].length);
+            position += parts[i].length;
+        }
+        json[position] = ']';
+        return json;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entity() != CatalogChangedEvent.Entity.BOARD_GAME) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (event.allRows()) {
+            fragments.clear();
+        } else {
+            event.ids().forEach(fragments::remove);
+        }
+    }
+
+    private byte[] keep(Long id, byte[] fragment, long readAt) {
+        if (generation.get() == readAt) {
+            fragments.put(id, fragment);
+            // A write that landed between the check and the put must not leave its old state behind
+            if (generation.get() != readAt) {
+                fragments.remove(id, fragment);
+            }
+        }
+        return fragment;
+    }
+
+    /**
+     * Renders the fragments missing from one listing through a single generator and buffer.
+     */
+    private final class Renderer {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        private final JsonGenerator generator;
+
+        Renderer() throws IOException {
+            generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+        }
+
+        byte[] render(BoardGame game) throws IOException {
+            generator.writeStartObject();
+            writeNumber(ID, game.getId());
+            writeString(NAME, game.getName());
+            writeNumber(MIN_PLAYTIME, game.getMinPlaytime());
+            writeNumber(MAX_PLAYTIME, game.getMaxPlaytime());
+            writeNumber(MIN_PLAYER_COUNT, game.getMinPlayerCount());
+            writeNumber(MAX_PLAYER_COUNT, game.getMaxPlayerCount());
+            writeNumber(AVAILABLE_COPIES, game.getAvailableCopies());
+            writeString(GENRE, game.getGenre());
+            writeString(BOX_IMAGE_URL, game.getBoxImageUrl());
+            writeString(DESCRIPTION, game.getDescription());
+            writeNumber(QUANTITY, game.getQuantity());
+            generator.writeEndObject();
+            generator.flush();
+            byte[] fragment = out.toByteArray();
+            out.reset();
+            return fragment;
+        }
+
+        void close() {
+            try {
+                generator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeNumber(SerializedString field, Long value) throws IOException {
+            if (value != null) {
+                generator.writeFieldName(field);
+                generator.writeNumber(value);
+            }
+        }
+
+        private void writeNumber(SerializedString field, Integer value) throws IOException {
+            if (value != null) {
+                generator.writeFieldName(field);
+                generator.writeNumber(value);
+            }
+        }
+
+        private void writeString(SerializedString field, String value) throws IOException {
+            if (value != null) {
+                generator.writeFieldName(field);
+                generator.writeString(value);
+            }
+        }
+    }
+}
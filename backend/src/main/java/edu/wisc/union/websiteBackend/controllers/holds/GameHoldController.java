@@ -0,0 +1,57 @@
+package edu.wisc.union.websiteBackend.controllers.holds;
+
+import edu.wisc.union.websiteBackend.controllers.holds.HoldObjects.HoldRequest;
+import edu.wisc.union.websiteBackend.controllers.holds.HoldObjects.HoldResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Hosts put guests in line for games that are all checked out. A returned copy is set aside for the first guest
+ * in line, who picks it up at the desk within the pickup window.
+ */
+@RestController
+@RequestMapping("/api/games")
+public class GameHoldController {
+    private final GameHoldService holdService;
+
+    public GameHoldController(GameHoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    @PostMapping("/{id}/holds")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<HoldResponse> placeHold(@PathVariable Long id, @RequestBody HoldRequest request) {
+        return ResponseEntity.status(201).body(holdService.place(id, request.getGuestName()));
+    }
+
+    /**
+     * The game's active holds: ready ones and the line, in order.
+     */
+    @GetMapping("/{id}/holds")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<List<HoldResponse>> getHolds(@PathVariable Long id) {
+        return ResponseEntity.ok(holdService.activeHolds(id));
+    }
+
+    @GetMapping("/holds")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<List<HoldResponse>> getAllHolds() {
+        return ResponseEntity.ok(holdService.activeHolds());
+    }
+
+    @PostMapping("/holds/{holdId}/pickup")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<HoldResponse> pickUp(@PathVariable Long holdId) {
+        return ResponseEntity.ok(holdService.pickUp(holdId));
+    }
+
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<Void> cancel(@PathVariable Long holdId) {
+        holdService.cancel(holdId);
+        return ResponseEntity.noContent().build();
+    }
+}
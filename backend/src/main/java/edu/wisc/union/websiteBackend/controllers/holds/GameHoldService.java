@@ -0,0 +1,272 @@
+package edu.wisc.union.websiteBackend.controllers.holds;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.audit.AuditEvent;
+import edu.wisc.union.websiteBackend.controllers.games.CheckoutBatchService;
+import edu.wisc.union.websiteBackend.controllers.holds.HoldObjects.HoldResponse;
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import edu.wisc.union.websiteBackend.jpa.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.api.OpenApiResourceNotFoundException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Hold queues for games whose copies are all out. Every change to a game's holds first locks the game's row.
+ * Checkouts, single or batched through the {@link CheckoutBatchService}, and returns take the same lock, so
+ * handing a returned copy to the head of the queue is atomic with the return and nodes sharing the database
+ * agree on the order. Expiry is driven by the {@link HoldExpiryTimer}.
+ */
+@Slf4j
+@Service
+public class GameHoldService {
+    private static final ZoneId GAME_NIGHT_ZONE = ZoneId.of("America/Chicago");
+    private static final List<GameHold.Status> ACTIVE = List.of(GameHold.Status.WAITING, GameHold.Status.READY);
+
+    private final GameHoldRepository holdRepository;
+    private final BoardGameRepository boardGameRepository;
+    private final BoardGameCheckoutRepository boardGameCheckoutRepository;
+    private final HoldExpiryTimer timer;
+    private final HoldProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public GameHoldService(GameHoldRepository holdRepository, BoardGameRepository boardGameRepository,
+                           BoardGameCheckoutRepository boardGameCheckoutRepository, HoldExpiryTimer timer,
+                           HoldProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.holdRepository = holdRepository;
+        this.boardGameRepository = boardGameRepository;
+        this.boardGameCheckoutRepository = boardGameCheckoutRepository;
+        this.timer = timer;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public HoldResponse place(Long gameId, String guestName) {
+        if (guestName == null || guestName.isBlank()) {
+            throw new InputErrorException("A110", "A hold needs the guest's name.");
+        }
+        if (guestName.trim().length() > 100) {
+            throw new InputErrorException("A110", "The guest's name can be at most 100 characters.");
+        }
+        BoardGame game = lock(gameId);
+        if (available(game) > 0) {
+            throw new InputErrorException("A111", "Copies of this game are available; check one out instead.");
+        }
+        long waiting = holdRepository.countByBoardGameIdAndStatus(gameId, GameHold.Status.WAITING);
+        if (waiting >= properties.getMaxWaitingPerGame()) {
+            throw new InputErrorException("A111", "The line for this game is full.");
+        }
+
+        Instant now = Instant.now();
+        GameHold hold = new GameHold();
+        hold.setBoardGame(game);
+        hold.setGuestName(guestName.trim());
+        hold.setStatus(GameHold.Status.WAITING);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plus(properties.getTtl()));
+        holdRepository.save(hold);
+        timer.schedule(hold.getId(), hold.getExpiresAt());
+        return toResponse(hold, (int) waiting + 1);
+    }
+
+    /**
+     * The guest collects the copy set aside for them; counts as a checkout.
+     */
+    @Transactional
+    public HoldResponse pickUp(Long holdId) {
+        GameHold hold = lockHold(holdId);
+        if (hold.getStatus() != GameHold.Status.READY) {
+            throw new InputErrorException("A112", hold.getStatus() == GameHold.Status.WAITING
+                    ? "No copy has been returned for this hold yet."
+                    : "This hold is no longer active.");
+        }
+        hold.setStatus(GameHold.Status.FULFILLED);
+        timer.cancel(holdId);
+
+        BoardGame game = hold.getBoardGame();
+        BoardGameCheckout.BoardGameCheckoutKey key = new BoardGameCheckout.BoardGameCheckoutKey(game, LocalDate.now(GAME_NIGHT_ZONE));
+        BoardGameCheckout checkout = boardGameCheckoutRepository.findById(key).orElse(new BoardGameCheckout(key, 0));
+        checkout.setCount(checkout.getCount() + 1);
+        boardGameCheckoutRepository.save(checkout);
+        game.setCheckoutCount(game.getCheckoutCount() == null ? 1 : game.getCheckoutCount() + 1);
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, game.getId()));
+        eventPublisher.publishEvent(AuditEvent.of(AuditEvent.Action.CHECKOUT, game, 1));
+        return toResponse(hold, null);
+    }
+
+    @Transactional
+    public void cancel(Long holdId) {
+        GameHold hold = lockHold(holdId);
+        if (!ACTIVE.contains(hold.getStatus())) {
+            throw new InputErrorException("A112", "This hold is no longer active.");
+        }
+        end(hold, GameHold.Status.CANCELLED);
+    }
+
+    @Async
+    @EventListener
+    @Transactional
+    public void onHoldDue(HoldDueEvent event) {
+        Long gameId = holdRepository.findBoardGameIdById(event.holdId()).orElse(null);
+        if (gameId == null) {
+            // The game was deleted
+            return;
+        }
+        lock(gameId);
+        GameHold hold = holdRepository.findById(event.holdId()).orElseThrow();
+        if (!ACTIVE.contains(hold.getStatus())) {
+            return;
+        }
+        if (hold.getExpiresAt().isAfter(Instant.now())) {
+            timer.schedule(hold.getId(), hold.getExpiresAt());
+            return;
+        }
+        log.debug("Hold {} for game {} expired while {}", hold.getId(), gameId, hold.getStatus());
+        end(hold, GameHold.Status.EXPIRED);
+    }
+
+    @Transactional(readOnly = true)
+    public List<HoldResponse> activeHolds(Long gameId) {
+        return toResponses(holdRepository.findByBoardGame(gameId, ACTIVE));
+    }
+
+    @Transactional(readOnly = true)
+    public List<HoldResponse> activeHolds() {
+        return toResponses(holdRepository.findByStatus(ACTIVE));
+    }
+
+    /**
+     * Give up to {@code copies} returned copies of a game to the head of its line. The caller must hold the
+     * game's row lock.
+     *
+     * @return the number of copies set aside; the rest go back on the shelf
+     */
+    public int handOff(BoardGame game, int copies) {
+        int handed = 0;
+        Instant now = Instant.now();
+        while (handed < copies) {
+            GameHold next = holdRepository
+                    .findFirstByBoardGameIdAndStatusOrderByIdAsc(game.getId(), GameHold.Status.WAITING).orElse(null);
+            if (next == null) {
+                break;
+            }
+            if (!next.getExpiresAt().isAfter(now)) {
+                // Lapsed, its timer has not got to it yet
+                next.setStatus(GameHold.Status.EXPIRED);
+                timer.cancel(next.getId());
+                continue;
+            }
+            next.setStatus(GameHold.Status.READY);
+            next.setExpiresAt(now.plus(properties.getPickupWindow()));
+            timer.schedule(next.getId(), next.getExpiresAt());
+            handed++;
+        }
+        return handed;
+    }
+
+    /**
+     * Copies of the game set aside for ready holds, which are neither on the shelf nor checked out.
+     */
+    public int readyCopies(Long gameId) {
+        return (int) holdRepository.countByBoardGameIdAndStatus(gameId, GameHold.Status.READY);
+    }
+
+    public Map<Long, Integer> readyCopies(Collection<Long> gameIds) {
+        return countByGame(gameIds, GameHold.Status.READY);
+    }
+
+    public Set<Long> gamesWithWaitingHolds(Collection<Long> gameIds) {
+        return countByGame(gameIds, GameHold.Status.WAITING).keySet();
+    }
+
+    /**
+     * Ends every active hold, for when all copies go back on the shelf at closing time.
+     */
+    public void expireAll() {
+        if (holdRepository.updateStatus(ACTIVE, GameHold.Status.EXPIRED) > 0) {
+            timer.cancelAll();
+        }
+    }
+
+    @Transactional
+    public void deleteHolds(BoardGame game) {
+        holdRepository.deleteByBoardGame(game);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleActiveHolds() {
+        List<GameHold> active = holdRepository.findByStatus(ACTIVE);
+        active.forEach(hold -> timer.schedule(hold.getId(), hold.getExpiresAt()));
+        if (!active.isEmpty()) {
+            log.info("Scheduled expiry of {} active game holds", active.size());
+        }
+    }
+
+    // A ready hold's copy goes to the next guest in line, or back on the shelf if there is none
+    private void end(GameHold hold, GameHold.Status status) {
+        boolean wasReady = hold.getStatus() == GameHold.Status.READY;
+        hold.setStatus(status);
+        timer.cancel(hold.getId());
+        if (wasReady && handOff(hold.getBoardGame(), 1) == 0) {
+            BoardGame game = hold.getBoardGame();
+            game.setAvailableCopies(game.getAvailableCopies() + 1);
+            eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.BOARD_GAME, game.getId()));
+        }
+    }
+
+    private BoardGame lock(Long gameId) {
+        return boardGameRepository.findAllByIdForUpdate(List.of(gameId)).stream().findFirst()
+                .orElseThrow(() -> new OpenApiResourceNotFoundException("Game not found with ID: " + gameId));
+    }
+
+    // Locks the hold's game first, so the hold is read after any change in progress has committed
+    private GameHold lockHold(Long holdId) {
+        Long gameId = holdRepository.findBoardGameIdById(holdId)
+                .orElseThrow(() -> new OpenApiResourceNotFoundException("Hold not found with ID: " + holdId));
+        lock(gameId);
+        return holdRepository.findById(holdId)
+                .orElseThrow(() -> new OpenApiResourceNotFoundException("Hold not found with ID: " + holdId));
+    }
+
+    // Same defaults as a checkout for games whose copies were never set
+    private static int available(BoardGame game) {
+        if (game.getAvailableCopies() != null) {
+            return game.getAvailableCopies();
+        }
+        return game.getQuantity() == null ? 1 : game.getQuantity();
+    }
+
+    private Map<Long, Integer> countByGame(Collection<Long> gameIds, GameHold.Status status) {
+        if (gameIds.isEmpty()) {
+            return Map.of();
+        }
+        return holdRepository.countByBoardGame(gameIds, status).stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> ((Long) row[1]).intValue()));
+    }
+
+    private static List<HoldResponse> toResponses(List<GameHold> holds) {
+        Map<Long, Integer> lineLengths = new HashMap<>();
+        return holds.stream()
+                .map(hold -> toResponse(hold, hold.getStatus() == GameHold.Status.WAITING
+                        ? lineLengths.merge(hold.getBoardGame().getId(), 1, Integer::sum)
+                        : null))
+                .toList();
+    }
+
+    private static HoldResponse toResponse(GameHold hold, Integer position) {
+        BoardGame game = hold.getBoardGame();
+        return new HoldResponse(hold.getId(), game.getId(), game.getName(), hold.getGuestName(), hold.getStatus(),
+                position, hold.getCreatedAt(), hold.getExpiresAt());
+    }
+}
@@ -0,0 +1,7 @@
+package edu.wisc.union.websiteBackend.controllers.holds;
+
+/**
+ * Published by the {@link HoldExpiryTimer} when a hold reaches its expiry time.
+ */
+public record HoldDueEvent(Long holdId) {
+}
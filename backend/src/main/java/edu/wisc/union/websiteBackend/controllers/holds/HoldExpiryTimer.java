@@ -0,0 +1,96 @@
+package edu.wisc.union.websiteBackend.controllers.holds;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One hashed timer wheel for the expiry of every active hold: scheduling and cancelling are O(1), and a single
+ * thread ticks the wheel however many holds there are. Due holds are only announced with a {@link HoldDueEvent};
+ * the database work happens on the async executor. Changes made inside a transaction take effect once it commits,
+ * so a rolled back hold never fires.
+ */
+@Component
+public class HoldExpiryTimer implements DisposableBean {
+    private static final int WHEEL_SIZE = 512;
+
+    private final HashedWheelTimer wheel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Timeout> timeouts = new ConcurrentHashMap<>();
+
+    public HoldExpiryTimer(HoldProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        this.wheel = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry-timer");
+            thread.setDaemon(true);
+            return thread;
+        }, properties.getTimerTick().toMillis(), TimeUnit.MILLISECONDS, WHEEL_SIZE);
+    }
+
+    /**
+     * Fire a {@link HoldDueEvent} for the hold at {@code dueAt}, replacing the time it was scheduled for before.
+     */
+    public void schedule(Long holdId, Instant dueAt) {
+        afterCommit(() -> {
+            long delay = Math.max(0, Duration.between(Instant.now(), dueAt).toMillis());
+            Timeout timeout = wheel.newTimeout(fired -> {
+                timeouts.remove(holdId, fired);
+                eventPublisher.publishEvent(new HoldDueEvent(holdId));
+            }, delay, TimeUnit.MILLISECONDS);
+            Timeout previous = timeouts.put(holdId, timeout);
+            if (previous != null) {
+                previous.cancel();
+            }
+        });
+    }
+
+    public void cancel(Long holdId) {
+        afterCommit(() -> {
+            Timeout timeout = timeouts.remove(holdId);
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        });
+    }
+
+    public void cancelAll() {
+        afterCommit(() -> timeouts.keySet().forEach(holdId -> {
+            Timeout timeout = timeouts.remove(holdId);
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }));
+    }
+
+    public int scheduled() {
+        return timeouts.size();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        wheel.stop();
+    }
+}
@@ -0,0 +1,41 @@
+package edu.wisc.union.websiteBackend.controllers.holds;
+
+import edu.wisc.union.websiteBackend.jpa.GameHold;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Request and response bodies of the {@code /api/games/.../holds} endpoints.
+ */
+public class HoldObjects {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HoldRequest {
+        private String guestName;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HoldResponse {
+        private Long id;
+        private Long gameId;
+        private String gameName;
+        private String guestName;
+        private GameHold.Status status;
+        /**
+         * Place in line for a waiting hold, starting at 1; null otherwise.
+         */
+        private Integer position;
+        private Instant createdAt;
+        private Instant expiresAt;
+    }
+}
@@ -0,0 +1,29 @@
+package edu.wisc.union.websiteBackend.controllers.holds;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "holds")
+@Data
+public class HoldProperties {
+    /**
+     * How long a hold waits in line before it lapses.
+     */
+    private Duration ttl = Duration.ofHours(2);
+    /**
+     * How long a returned copy stays set aside for the guest at the head of the line.
+     */
+    private Duration pickupWindow = Duration.ofMinutes(15);
+    /**
+     * Longest line allowed for one game.
+     */
+    private int maxWaitingPerGame = 25;
+    /**
+     * Resolution of the expiry timer wheel; holds expire up to this much late.
+     */
+    private Duration timerTick = Duration.ofSeconds(1);
+}
@@ -0,0 +1,18 @@
+package edu.wisc.union.websiteBackend.controllers.images;
+
+import edu.wisc.union.websiteBackend.jpa.CachedImage;
+
+/**
+ * Published when a game is saved with a (possibly new) box-art URL, or deleted, in which case {@code url} is
+ * {@code null}. The image cache picks it up in the background once the surrounding transaction has committed.
+ */
+public record BoxArtChangedEvent(CachedImage.OwnerType ownerType, Long ownerId, String url) {
+
+    public static BoxArtChangedEvent boardGame(Long id, String url) {
+        return new BoxArtChangedEvent(CachedImage.OwnerType.BOARD_GAME, id, url);
+    }
+
+    public static BoxArtChangedEvent consoleGame(Long id, String url) {
+        return new BoxArtChangedEvent(CachedImage.OwnerType.CONSOLE_GAME, id, url);
+    }
+}
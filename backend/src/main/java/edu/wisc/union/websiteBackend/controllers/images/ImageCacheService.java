@@ -0,0 +1,186 @@
+package edu.wisc.union.websiteBackend.controllers.images;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import edu.wisc.union.websiteBackend.jpa.CachedImage;
+import edu.wisc.union.websiteBackend.jpa.CachedImageRepository;
+import edu.wisc.union.websiteBackend.jpa.ConsoleGameRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Downloads box art into the {@link ImageStore} and keeps the {@link CachedImage} index in step with the games.
+ * Fetches run on the async executor after the change that triggered them has committed; a given game is only
+ * fetched by one thread at a time, and a failed URL is left alone for {@link ImageProperties#getRetryAfter()}.
+ */
+@Slf4j
+@Service
+public class ImageCacheService {
+    private final CachedImageRepository cachedImageRepository;
+    private final BoardGameRepository boardGameRepository;
+    private final ConsoleGameRepository consoleGameRepository;
+    private final ImageStore imageStore;
+    private final ImageProperties properties;
+    private final WebClient webClient;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> failures = new ConcurrentHashMap<>();
+
+    public ImageCacheService(CachedImageRepository cachedImageRepository, BoardGameRepository boardGameRepository,
+                             ConsoleGameRepository consoleGameRepository, ImageStore imageStore,
+                             ImageProperties properties, WebClient.Builder webClientBuilder) {
+        this.cachedImageRepository = cachedImageRepository;
+        this.boardGameRepository = boardGameRepository;
+        this.consoleGameRepository = consoleGameRepository;
+        this.imageStore = imageStore;
+        this.properties = properties;
+        this.webClient = webClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(properties.getMaxBytes()))
+                .build();
+    }
+
+    /**
+     * The box-art URL the game currently has, if the game exists and has one.
+     */
+    public Optional<String> currentUrl(CachedImage.OwnerType ownerType, Long ownerId) {
+        return switch (ownerType) {
+            case BOARD_GAME -> boardGameRepository.findBoxImageUrlById(ownerId);
+            case CONSOLE_GAME -> consoleGameRepository.findBoxImageUrlById(ownerId);
+        };
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBoxArtChanged(BoxArtChangedEvent event) {
+        if (event.url() == null || event.url().isBlank()) {
+            cachedImageRepository.deleteByOwnerTypeAndOwnerId(event.ownerType(), event.ownerId());
+            return;
+        }
+        refresh(event.ownerType(), event.ownerId(), event.url().trim());
+    }
+
+    void refresh(CachedImage.OwnerType ownerType, Long ownerId, String url) {
+        String key = ownerType + ":" + ownerId;
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            CachedImage image = cachedImageRepository.findByOwnerTypeAndOwnerId(ownerType, ownerId).orElse(null);
+            if (image != null && url.equals(image.getSourceUrl()) && Files.exists(imageStore.original(image.getSha256()))) {
+                return;
+            }
+            Instant failedAt = failures.get(url);
+            if (failedAt != null && failedAt.plus(properties.getRetryAfter()).isAfter(Instant.now())) {
+                return;
+            }
+
+            if (image == null) {
+                image = new CachedImage();
+                image.setOwnerType(ownerType);
+                image.setOwnerId(ownerId);
+            }
+            download(image, url);
+            image.setSourceUrl(url);
+            image.setFetchedAt(Instant.now());
+            cachedImageRepository.save(image);
+            failures.remove(url);
+            log.debug("Cached box art for {} as {}", key, image.getSha256());
+        } catch (DataIntegrityViolationException e) {
+            // The game was deleted, or another node indexed it first; either way there is nothing to do
+            log.debug("Skipped indexing box art for {}: {}", key, e.getMessage());
+        } catch (Exception e) {
+            failures.put(url, Instant.now());
+            log.warn("Could not cache box art for {} from {}: {}", key, url, e.getMessage());
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private void download(CachedImage image, String url) throws IOException {
+        URI uri = URI.create(url);
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IOException("Unsupported image URL scheme");
+        }
+
+        ResponseEntity<byte[]> response = webClient.get()
+                .uri(uri)
+                .accept(MediaType.parseMediaType("image/*"))
+                .retrieve()
+                .toEntity(byte[].class)
+                .block(properties.getFetchTimeout());
+        if (response == null || response.getBody() == null || response.getBody().length == 0) {
+            throw new IOException("Empty response");
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType == null || !"image".equals(contentType.getType())) {
+            throw new IOException("Not an image: " + contentType);
+        }
+
+        byte[] bytes = response.getBody();
+        String sha256 = imageStore.put(bytes);
+        image.setSha256(sha256);
+        image.setContentType(contentType.getType() + "/" + contentType.getSubtype());
+        image.setByteSize((long) bytes.length);
+
+        // Another game already uses the same art, and its thumbnails are on disk
+        Optional<CachedImage> twin = cachedImageRepository.findFirstBySha256(sha256);
+        if (twin.isPresent() && twin.get().getThumbnailWidths() != null) {
+            image.setWidth(twin.get().getWidth());
+            image.setHeight(twin.get().getHeight());
+            image.setThumbnailWidths(twin.get().getThumbnailWidths());
+            if (thumbnailWidths(image).stream().allMatch(width -> Files.exists(imageStore.thumbnail(sha256, width)))) {
+                return;
+            }
+        }
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (decoded == null) {
+            // No ImageIO reader for this format (e.g. WebP): serve the original at every size
+            image.setWidth(null);
+            image.setHeight(null);
+            image.setThumbnailWidths("");
+            return;
+        }
+        image.setWidth(decoded.getWidth());
+        image.setHeight(decoded.getHeight());
+
+        List<Integer> widths = properties.getThumbnailWidths().stream()
+                .filter(width -> width > 0 && width < decoded.getWidth())
+                .distinct()
+                .sorted()
+                .toList();
+        for (int width : widths) {
+            imageStore.putThumbnail(sha256, decoded, width);
+        }
+        image.setThumbnailWidths(widths.stream().map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    /**
+     * The thumbnail widths available for {@code image}, smallest first.
+     */
+    public static List<Integer> thumbnailWidths(CachedImage image) {
+        if (image.getThumbnailWidths() == null || image.getThumbnailWidths().isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(image.getThumbnailWidths().split(","))
+                .map(Integer::valueOf)
+                .sorted()
+                .toList();
+    }
+}
@@ -0,0 +1,144 @@
+package edu.wisc.union.websiteBackend.controllers.images;
+
+import edu.wisc.union.websiteBackend.jpa.CachedImage;
+import edu.wisc.union.websiteBackend.jpa.CachedImageRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Box art served from the local {@link ImageStore}.
+ * <ul>
+ *     <li>{@code /api/images/{gameId}} and {@code /api/images/consoles/{gameId}}: a game's current box art,
+ *     short-lived in caches but revalidated cheaply through its ETag. Until the image has been fetched this
+ *     redirects to the remote URL and queues the fetch.</li>
+ *     <li>{@code /api/images/objects/{sha256}}: an image by content hash, which can be cached forever.</li>
+ * </ul>
+ * All of them take an optional {@code w}, answered with the smallest thumbnail at least that wide.
+ */
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+    // Tomcat's sendfile request attributes, see org.apache.coyote.Constants
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final CachedImageRepository cachedImageRepository;
+    private final ImageCacheService imageCacheService;
+    private final ImageStore imageStore;
+    private final ImageProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ImageController(CachedImageRepository cachedImageRepository, ImageCacheService imageCacheService,
+                           ImageStore imageStore, ImageProperties properties,
+                           ApplicationEventPublisher eventPublisher) {
+        this.cachedImageRepository = cachedImageRepository;
+        this.imageCacheService = imageCacheService;
+        this.imageStore = imageStore;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @GetMapping("/{gameId}")
+    public void getBoardGameImage(@PathVariable Long gameId, @RequestParam(required = false) Integer w,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serveGameImage(CachedImage.OwnerType.BOARD_GAME, gameId, w, request, response);
+    }
+
+    @GetMapping("/consoles/{gameId}")
+    public void getConsoleGameImage(@PathVariable Long gameId, @RequestParam(required = false) Integer w,
+                                    HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serveGameImage(CachedImage.OwnerType.CONSOLE_GAME, gameId, w, request, response);
+    }
+
+    @GetMapping("/objects/{sha256}")
+    public void getImageObject(@PathVariable String sha256, @RequestParam(required = false) Integer w,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<CachedImage> image = ImageStore.isHash(sha256)
+                ? cachedImageRepository.findFirstBySha256(sha256) : Optional.empty();
+        if (image.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serve(image.get(), w, CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable(), request, response);
+    }
+
+    private void serveGameImage(CachedImage.OwnerType ownerType, Long gameId, Integer width,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<String> url = imageCacheService.currentUrl(ownerType, gameId).filter(u -> !u.isBlank());
+        if (url.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        Optional<CachedImage> image = cachedImageRepository.findByOwnerTypeAndOwnerId(ownerType, gameId)
+                .filter(cached -> url.get().trim().equals(cached.getSourceUrl()));
+        if (image.isEmpty() || !Files.exists(imageStore.original(image.get().getSha256()))) {
+            // Not cached yet (or the box art changed): let the browser go to the source meanwhile
+            eventPublisher.publishEvent(new BoxArtChangedEvent(ownerType, gameId, url.get()));
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            response.sendRedirect(url.get());
+            return;
+        }
+        serve(image.get(), width, CacheControl.maxAge(properties.getGameImageMaxAge()).cachePublic(), request, response);
+    }
+
+    private void serve(CachedImage image, Integer width, CacheControl cacheControl,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String sha256 = image.getSha256();
+        Path file = imageStore.original(sha256);
+        String contentType = image.getContentType();
+        String etag = sha256;
+
+        Integer thumbnail = thumbnailFor(image, width);
+        if (thumbnail != null) {
+            file = imageStore.thumbnail(sha256, thumbnail);
+            contentType = "image/jpeg";
+            etag = sha256 + "-w" + thumbnail;
+        }
+        if (!Files.exists(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified("\"" + etag + "\"")) {
+            return;
+        }
+
+        long length = Files.size(file);
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if (!"HEAD".equals(request.getMethod())) {
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                // Tomcat hands the file to the kernel after the handler returns
+                request.setAttribute(SENDFILE_FILENAME, file.toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, length);
+            } else {
+                Files.copy(file, response.getOutputStream());
+            }
+        }
+    }
+
+    private static Integer thumbnailFor(CachedImage image, Integer width) {
+        if (width == null) {
+            return null;
+        }
+        List<Integer> widths = ImageCacheService.thumbnailWidths(image);
+        return widths.stream().filter(available -> available >= width).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,35 @@
+package edu.wisc.union.websiteBackend.controllers.images;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "images")
+@Data
+public class ImageProperties {
+    /**
+     * Root of the content-addressed image store.
+     */
+    private String directory = "data/images";
+    /**
+     * Widths of the JPEG thumbnails generated for every cached image.
+     */
+    private List<Integer> thumbnailWidths = List.of(160, 320, 640);
+    private Duration fetchTimeout = Duration.ofSeconds(20);
+    /**
+     * Remote images larger than this are not cached; the proxy keeps redirecting to them.
+     */
+    private int maxBytes = 10 * 1024 * 1024;
+    /**
+     * How long to wait before fetching an image again after a failed attempt.
+     */
+    private Duration retryAfter = Duration.ofMinutes(10);
+    /**
+     * Cache lifetime of {@code /api/images/{gameId}}, whose content changes when the box art does.
+     */
+    private Duration gameImageMaxAge = Duration.ofMinutes(5);
+}
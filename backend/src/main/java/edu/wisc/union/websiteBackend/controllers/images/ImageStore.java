@@ -0,0 +1,121 @@
+package edu.wisc.union.websiteBackend.controllers.images;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed file store for box art. Every file is named after the SHA-256 of the original image
+ * ({@code ab/cd/abcd...} for the original, {@code ab/cd/abcd...-w320.jpg} for a thumbnail), so a file never
+ * changes once written and identical images are stored once no matter how many games use them.
+ */
+@Component
+public class ImageStore {
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public ImageStore(ImageProperties properties) {
+        this.root = Path.of(properties.getDirectory()).toAbsolutePath();
+    }
+
+    public static boolean isHash(String value) {
+        return value != null && SHA256.matcher(value).matches();
+    }
+
+    public static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Path original(String sha256) {
+        return directory(sha256).resolve(sha256);
+    }
+
+    public Path thumbnail(String sha256, int width) {
+        return directory(sha256).resolve(sha256 + "-w" + width + ".jpg");
+    }
+
+    /**
+     * Store an original image.
+     *
+     * @return the SHA-256 it is stored under
+     */
+    public String put(byte[] bytes) {
+        String sha256 = hash(bytes);
+        write(original(sha256), bytes);
+        return sha256;
+    }
+
+    /**
+     * Scale {@code image} down to {@code width} pixels wide and store it as a JPEG thumbnail of {@code sha256}.
+     */
+    public void putThumbnail(String sha256, BufferedImage image, int width) {
+        Path target = thumbnail(sha256, width);
+        if (Files.exists(target)) {
+            return;
+        }
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        // JPEG has no alpha channel, so flatten onto white
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(scaled, "jpg", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        write(target, out.toByteArray());
+    }
+
+    private Path directory(String sha256) {
+        if (!isHash(sha256)) {
+            throw new IllegalArgumentException("Not a SHA-256 hash: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4));
+    }
+
+    // Write to a temporary file and move it into place, so readers never see a partial file
+    private void write(Path target, byte[] bytes) {
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".part", null);
+            try {
+                Files.write(temp, bytes);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
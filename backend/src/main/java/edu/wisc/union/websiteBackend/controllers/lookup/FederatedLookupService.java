@@ -0,0 +1,163 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchService;
+import edu.wisc.union.websiteBackend.controllers.games.BoardGameService;
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Asks every external catalog at once and answers with whatever has arrived when a single, global deadline
+ * expires, so the latency is bounded by the deadline rather than by the slowest source. Hits are de-duplicated
+ * by normalized title and ranked by how well that title matches the query.
+ */
+@Slf4j
+@Service
+public class FederatedLookupService {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    private final BoardGameService boardGameService;
+    private final ConsoleSearchService consoleSearchService;
+
+    @Value("${lookup.deadline:1500ms}")
+    private Duration defaultDeadline = Duration.ofMillis(1500);
+
+    @Value("${lookup.max-deadline:5000ms}")
+    private Duration maxDeadline = Duration.ofMillis(5000);
+
+    public FederatedLookupService(BoardGameService boardGameService, ConsoleSearchService consoleSearchService) {
+        this.boardGameService = boardGameService;
+        this.consoleSearchService = consoleSearchService;
+    }
+
+    /**
+     * @param query    the title to look for
+     * @param deadline how long to wait for the sources, or {@code null} for the configured default
+     * @throws InputErrorException if the deadline is zero or negative
+     */
+    public Mono<LookupResponse> lookup(String query, Duration deadline) {
+        if (deadline != null && (deadline.isZero() || deadline.isNegative())) {
+            throw new InputErrorException("A122", "The deadline must be a positive number of milliseconds.");
+        }
+        Duration bound = deadline == null ? defaultDeadline
+                : deadline.compareTo(maxDeadline) > 0 ? maxDeadline : deadline;
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // One timer for every source, so they all stop at the same instant
+            Mono<Long> cutoff = Mono.delay(bound).cache();
+
+            return Mono.zip(
+                    collect(LookupResult.Source.BGG, boardGameService.streamBoardGames(query).map(LookupResult::of), cutoff, start),
+                    collect(LookupResult.Source.VGG, consoleSearchService.streamVideoGames(query).map(LookupResult::of), cutoff, start),
+                    collect(LookupResult.Source.STEAM, consoleSearchService.streamSteamApps(query).map(LookupResult::of), cutoff, start)
+            ).map(outcomes -> {
+                List<SourceResults> all = List.of(outcomes.getT1(), outcomes.getT2(), outcomes.getT3());
+                return new LookupResponse(query, elapsedMillis(start), rank(query, all),
+                        all.stream().map(SourceResults::status).toList());
+            });
+        });
+    }
+
+    private Mono<SourceResults> collect(LookupResult.Source source, Flux<LookupResult> results, Mono<Long> cutoff,
+                                        long start) {
+        AtomicBoolean completed = new AtomicBoolean();
+        AtomicReference<Long> finishedAt = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        return results
+                .doOnComplete(() -> {
+                    completed.set(true);
+                    finishedAt.set(elapsedMillis(start));
+                })
+                .onErrorResume(e -> {
+                    log.warn("{} lookup failed: {}", source, e.getMessage());
+                    failure.set(e);
+                    finishedAt.set(elapsedMillis(start));
+                    return Flux.empty();
+                })
+                .takeUntilOther(cutoff)
+                .collectList()
+                .map(items -> {
+                    LookupResponse.SourceStatus.Outcome outcome = completed.get() ? LookupResponse.SourceStatus.Outcome.COMPLETE
+                            : failure.get() != null ? LookupResponse.SourceStatus.Outcome.FAILED
+                            : LookupResponse.SourceStatus.Outcome.TIMED_OUT;
+                    long elapsed = finishedAt.get() != null ? finishedAt.get() : elapsedMillis(start);
+                    return new SourceResults(new LookupResponse.SourceStatus(source, outcome, items.size(), elapsed), items);
+                });
+    }
+
+    private List<LookupResponse.Hit> rank(String query, List<SourceResults> all) {
+        String normalizedQuery = normalize(query);
+        Map<String, LookupResponse.Hit> byTitle = new LinkedHashMap<>();
+        for (SourceResults results : all) {
+            for (LookupResult result : results.items()) {
+                String title = normalize(result.getName());
+                if (title.isEmpty()) {
+                    continue;
+                }
+                LookupResponse.Hit hit = byTitle.computeIfAbsent(title, t -> new LookupResponse.Hit(
+                        result.getName(), null, null, score(normalizedQuery, t), new ArrayList<>()));
+                hit.getMatches().add(result);
+                if (hit.getYear() == null) {
+                    hit.setYear(result.getYear());
+                }
+                if (hit.getImageUrl() == null) {
+                    hit.setImageUrl(result.getImageUrl());
+                }
+            }
+        }
+
+        List<LookupResponse.Hit> hits = new ArrayList<>(byTitle.values());
+        // Stable sort: equal scores keep source-then-arrival order; a title found in more catalogs ranks higher
+        hits.sort(Comparator.comparingInt(LookupResponse.Hit::getScore).reversed()
+                .thenComparing(hit -> -hit.getMatches().size()));
+        return hits;
+    }
+
+    static int score(String query, String title) {
+        if (title.equals(query)) {
+            return 100;
+        }
+        if (title.startsWith(query)) {
+            return 75;
+        }
+        if (title.contains(query)) {
+            return 50;
+        }
+        String[] words = query.split(" ");
+        long found = Arrays.stream(words).filter(word -> !word.isEmpty() && title.contains(word)).count();
+        return (int) (40 * found / Math.max(words.length, 1));
+    }
+
+    /**
+     * Lower-case ASCII letters and digits separated by single spaces, with accents and a leading "the" removed,
+     * so that "The Légend of Zelda:" and "legend of zelda" compare equal.
+     */
+    public static String normalize(String title) {
+        if (title == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(title, Normalizer.Form.NFD)).replaceAll("");
+        String normalized = NON_ALPHANUMERIC.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return normalized.startsWith("the ") ? normalized.substring(4) : normalized;
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private record SourceResults(LookupResponse.SourceStatus status, List<LookupResult> items) {
+    }
+}
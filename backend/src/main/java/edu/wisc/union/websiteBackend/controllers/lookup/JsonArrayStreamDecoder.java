@@ -0,0 +1,143 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the elements of one JSON array out of a response body while it is still arriving, instead of
+ * buffering the whole document first. The array is either the document itself ({@code [...]}, as Steam's
+ * app search returns) or a top-level field of it ({@code {"items": [...]}}, as the Geek sites return).
+ */
+@Component
+public class JsonArrayStreamDecoder {
+    private final ObjectMapper objectMapper;
+
+    public JsonArrayStreamDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param body       the raw response body
+     * @param arrayField the top-level field holding the array, or {@code null} if the body is the array
+     * @param type       the element type
+     * @return the array elements, emitted as soon as each one has been fully received
+     */
+    public <T> Flux<T> decode(Flux<DataBuffer> body, String arrayField, Class<T> type) {
+        return Flux.defer(() -> {
+            Tokenizer tokenizer = new Tokenizer(arrayField);
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+                    .map(tokens -> read(tokens, type));
+        });
+    }
+
+    private <T> T read(TokenBuffer tokens, Class<T> type) {
+        try {
+            return objectMapper.readValue(tokens.asParser(objectMapper), type);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Feeds chunks into Jackson's non-blocking parser and cuts complete array elements out of the token stream.
+     * One instance per subscription.
+     */
+    private final class Tokenizer {
+        private final String arrayField;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+
+        private int depth;
+        private int arrayDepth = -1;
+        private boolean fieldMatched;
+        private TokenBuffer element;
+
+        private Tokenizer(String arrayField) {
+            this.arrayField = arrayField;
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private List<TokenBuffer> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        private List<TokenBuffer> endOfInput() {
+            feeder.endOfInput();
+            try {
+                return drain();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private List<TokenBuffer> drain() throws IOException {
+            List<TokenBuffer> complete = new ArrayList<>();
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (element != null) {
+                    // Inside an element: copy until its closing token brings us back to the array
+                    element.copyCurrentEvent(parser);
+                    depth += nesting(token);
+                    if (depth == arrayDepth) {
+                        complete.add(element);
+                        element = null;
+                    }
+                } else if (arrayDepth >= 0 && depth == arrayDepth) {
+                    if (token == JsonToken.END_ARRAY) {
+                        depth--;
+                        arrayDepth = -1;
+                        continue;
+                    }
+                    element = new TokenBuffer(parser);
+                    element.copyCurrentEvent(parser);
+                    if (token.isStructStart()) {
+                        depth++;
+                    } else {
+                        complete.add(element);
+                        element = null;
+                    }
+                } else if (token == JsonToken.START_ARRAY && (arrayField == null ? depth == 0 : fieldMatched && depth == 1)) {
+                    depth++;
+                    arrayDepth = depth;
+                    fieldMatched = false;
+                } else {
+                    fieldMatched = token == JsonToken.FIELD_NAME && depth == 1 && arrayField != null
+                            && arrayField.equals(parser.currentName());
+                    depth += nesting(token);
+                }
+            }
+            return complete;
+        }
+
+        private int nesting(JsonToken token) {
+            return token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+        }
+    }
+}
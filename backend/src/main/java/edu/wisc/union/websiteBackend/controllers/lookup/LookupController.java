@@ -0,0 +1,24 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/lookup")
+public class LookupController {
+    private final FederatedLookupService federatedLookupService;
+
+    public LookupController(FederatedLookupService federatedLookupService) {
+        this.federatedLookupService = federatedLookupService;
+    }
+
+    @GetMapping
+    public Mono<LookupResponse> lookup(@RequestParam String q, @RequestParam(required = false) Long deadlineMs) {
+        return federatedLookupService.lookup(q, deadlineMs == null ? null : Duration.ofMillis(deadlineMs));
+    }
+}
@@ -0,0 +1,54 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Result of a federated lookup: the merged hits and how each source fared against the deadline.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupResponse {
+    private String query;
+    private long elapsedMillis;
+    private List<Hit> results;
+    private List<SourceStatus> sources;
+
+    /**
+     * One title, possibly found in several catalogs.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private String name;
+        private String year;
+        private String imageUrl;
+        private int score;
+        private List<LookupResult> matches;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SourceStatus {
+        public enum Outcome {
+            COMPLETE,
+            TIMED_OUT,
+            FAILED
+        }
+
+        private LookupResult.Source source;
+        private Outcome outcome;
+        private int resultCount;
+        private long elapsedMillis;
+    }
+}
@@ -0,0 +1,41 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchObjects;
+import edu.wisc.union.websiteBackend.controllers.games.BGGObjects;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One search hit from any of the external catalogs, in a common shape.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LookupResult {
+    public enum Source {
+        BGG,
+        VGG,
+        STEAM
+    }
+
+    private Source source;
+    private String id;
+    private String name;
+    private String year;
+    private String imageUrl;
+
+    public static LookupResult of(BGGObjects.BoardGameSearchResult result) {
+        return new LookupResult(Source.BGG, result.getId(), result.getName(), result.getYearPublished(), null);
+    }
+
+    public static LookupResult of(ConsoleSearchObjects.ConsoleGameSearchResult result) {
+        return new LookupResult(Source.VGG, result.getId(), result.getName(), null, null);
+    }
+
+    public static LookupResult of(ConsoleSearchObjects.SteamApp app) {
+        return new LookupResult(Source.STEAM, app.getAppid(), app.getName(), null, app.getLogo());
+    }
+}
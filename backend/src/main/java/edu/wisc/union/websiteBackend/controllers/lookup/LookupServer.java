@@ -0,0 +1,176 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchObjects;
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchService;
+import edu.wisc.union.websiteBackend.controllers.games.BGGObjects;
+import edu.wisc.union.websiteBackend.controllers.games.BoardGameService;
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * A standalone, fully non-blocking HTTP server for the external lookup endpoints. It serves the same paths as
+ * {@code BGGController} and {@code ConsoleSearchController}, plus {@code /api/search/everywhere} and {@code /api/lookup},
+ * so a reverse proxy can route {@code /api/bgg/**}, {@code /api/consoles/steam/**}, {@code /api/consoles/vgg/**},
+ * {@code /api/search/**} and {@code /api/lookup} here and keep those requests off the servlet container entirely.
+ * <p>
+ * It runs on the same event loops as the outbound WebClients, so a lookup never changes threads between the
+ * inbound request, the remote call and the streamed response.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "lookup.server", name = "enabled", havingValue = "true")
+public class LookupServer implements SmartLifecycle {
+    private final LookupServerProperties properties;
+    private final ReactorResourceFactory resourceFactory;
+    private final BoardGameService boardGameService;
+    private final ConsoleSearchService consoleSearchService;
+    private final SearchEverywhereService searchEverywhereService;
+    private final FederatedLookupService federatedLookupService;
+
+    private volatile DisposableServer server;
+
+    public LookupServer(LookupServerProperties properties, ReactorResourceFactory resourceFactory,
+                        BoardGameService boardGameService, ConsoleSearchService consoleSearchService,
+                        SearchEverywhereService searchEverywhereService,
+                        FederatedLookupService federatedLookupService) {
+        this.properties = properties;
+        this.resourceFactory = resourceFactory;
+        this.boardGameService = boardGameService;
+        this.consoleSearchService = consoleSearchService;
+        this.searchEverywhereService = searchEverywhereService;
+        this.federatedLookupService = federatedLookupService;
+    }
+
+    RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .add(RouterFunctions.route(GET("/api/bgg/search"), request -> streamed(request, "gameName",
+                        q -> boardGameService.streamBoardGames(q), BGGObjects.BoardGameSearchResult.class)))
+                .add(RouterFunctions.route(GET("/api/bgg/details"), request -> single(request, "id",
+                        boardGameService::getBoardGameDetails, BGGObjects.BoardGameDetails.class)))
+                .add(RouterFunctions.route(GET("/api/consoles/steam/search"), request -> streamed(request, "name",
+                        consoleSearchService::streamSteamApps, ConsoleSearchObjects.SteamApp.class)))
+                .add(RouterFunctions.route(GET("/api/consoles/steam/details"), request -> single(request, "appId",
+                        consoleSearchService::getSteamAppDetails, ConsoleSearchObjects.SteamAppDetails.class)))
+                .add(RouterFunctions.route(GET("/api/consoles/vgg/search"), request -> streamed(request, "gameName",
+                        consoleSearchService::streamVideoGames, ConsoleSearchObjects.ConsoleGameSearchResult.class)))
+                .add(RouterFunctions.route(GET("/api/consoles/vgg/details"), request -> single(request, "id",
+                        consoleSearchService::getVideoGameDetails, ConsoleSearchObjects.ConsoleGameDetails.class)))
+                .add(RouterFunctions.route(GET("/api/search/everywhere"), request -> {
+                    Optional<String> query = request.queryParam("q");
+                    if (query.isEmpty()) {
+                        return missing("q");
+                    }
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .body(searchEverywhereService.search(query.get()), LookupResult.class);
+                }))
+                .add(RouterFunctions.route(GET("/api/lookup"), request -> {
+                    Optional<String> query = request.queryParam("q");
+                    if (query.isEmpty()) {
+                        return missing("q");
+                    }
+                    Duration deadline;
+                    try {
+                        deadline = request.queryParam("deadlineMs").map(Long::parseLong).map(Duration::ofMillis).orElse(null);
+                    } catch (NumberFormatException e) {
+                        return invalid("deadlineMs");
+                    }
+                    Mono<LookupResponse> response;
+                    try {
+                        response = federatedLookupService.lookup(query.get(), deadline);
+                    } catch (InputErrorException e) {
+                        return ServerResponse.badRequest().bodyValue(e.getErrorMessage());
+                    }
+                    return ServerResponse.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(response, LookupResponse.class);
+                }))
+                .build();
+    }
+
+    // The JSON array is written element by element as the upstream response is decoded
+    private <T> Mono<ServerResponse> streamed(ServerRequest request, String param, Function<String, Flux<T>> search,
+                                              Class<T> type) {
+        Optional<String> value = request.queryParam(param);
+        if (value.isEmpty()) {
+            return missing(param);
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(search.apply(value.get()), type);
+    }
+
+    private <T> Mono<ServerResponse> single(ServerRequest request, String param, Function<String, Mono<T>> lookup,
+                                            Class<T> type) {
+        Optional<String> value = request.queryParam(param);
+        if (value.isEmpty()) {
+            return missing(param);
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(lookup.apply(value.get()), type);
+    }
+
+    private Mono<ServerResponse> missing(String param) {
+        return ServerResponse.badRequest().bodyValue("Missing required query parameter '" + param + "'");
+    }
+
+    private Mono<ServerResponse> invalid(String param) {
+        return ServerResponse.badRequest().bodyValue("Query parameter '" + param + "' must be a whole number");
+    }
+
+    @Override
+    public void start() {
+        CorsConfiguration cors = new CorsConfiguration();
+        cors.addAllowedOriginPattern("*");
+        cors.addAllowedHeader("*");
+        cors.addAllowedMethod("*");
+        UrlBasedCorsConfigurationSource corsSource = new UrlBasedCorsConfigurationSource();
+        corsSource.registerCorsConfiguration("/**", cors);
+
+        HttpHandler handler = WebHttpHandlerBuilder.webHandler(RouterFunctions.toWebHandler(routes()))
+                .filter(new CorsWebFilter(corsSource))
+                .build();
+        server = HttpServer.create()
+                .host(properties.getHost())
+                .port(properties.getPort())
+                .runOn(resourceFactory.getLoopResources())
+                .handle(new ReactorHttpHandlerAdapter(handler))
+                .bindNow();
+        log.info("Lookup server listening on {}:{}", properties.getHost(), server.port());
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.resources.LoopResources;
+
+@Configuration
+public class LookupServerConfig {
+
+    /**
+     * One set of Netty event loops for both the outbound BGG/Steam WebClients (via Spring Boot's
+     * {@code WebClient.Builder}) and the inbound {@link LookupServer}.
+     */
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(LookupServerProperties properties) {
+        ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        int threads = properties.getEventLoopThreads() > 0
+                ? properties.getEventLoopThreads()
+                : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        factory.setLoopResourcesSupplier(() -> LoopResources.create("lookup", threads, true));
+        return factory;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "lookup.server")
+@Data
+public class LookupServerProperties {
+    /**
+     * Serve the external search endpoints from a separate Reactor Netty server instead of only through Spring MVC.
+     */
+    private boolean enabled = false;
+    private String host = "0.0.0.0";
+    private int port = 8081;
+    /**
+     * Event loop threads shared by the lookup server and the outbound WebClients; 0 uses Reactor Netty's default.
+     */
+    private int eventLoopThreads = 0;
+}
@@ -0,0 +1,26 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/**
+ * Servlet-side entry point for the fan-out search, for deployments that do not run the {@link LookupServer}.
+ */
+@RestController
+@RequestMapping("/api/search")
+public class SearchEverywhereController {
+    private final SearchEverywhereService searchEverywhereService;
+
+    public SearchEverywhereController(SearchEverywhereService searchEverywhereService) {
+        this.searchEverywhereService = searchEverywhereService;
+    }
+
+    @GetMapping(value = "/everywhere", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<LookupResult> searchEverywhere(@RequestParam String q) {
+        return searchEverywhereService.search(q);
+    }
+}
@@ -0,0 +1,37 @@
+package edu.wisc.union.websiteBackend.controllers.lookup;
+
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchService;
+import edu.wisc.union.websiteBackend.controllers.games.BoardGameService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+/**
+ * Queries BoardGameGeek, VideoGameGeek and Steam concurrently and merges their hits in arrival order.
+ * A source that fails is logged and left out rather than failing the whole search.
+ */
+@Slf4j
+@Service
+public class SearchEverywhereService {
+    private final BoardGameService boardGameService;
+    private final ConsoleSearchService consoleSearchService;
+
+    public SearchEverywhereService(BoardGameService boardGameService, ConsoleSearchService consoleSearchService) {
+        this.boardGameService = boardGameService;
+        this.consoleSearchService = consoleSearchService;
+    }
+
+    public Flux<LookupResult> search(String query) {
+        return Flux.merge(
+                guard(LookupResult.Source.BGG, boardGameService.streamBoardGames(query).map(LookupResult::of)),
+                guard(LookupResult.Source.VGG, consoleSearchService.streamVideoGames(query).map(LookupResult::of)),
+                guard(LookupResult.Source.STEAM, consoleSearchService.streamSteamApps(query).map(LookupResult::of)));
+    }
+
+    private Flux<LookupResult> guard(LookupResult.Source source, Flux<LookupResult> results) {
+        return results.onErrorResume(e -> {
+            log.warn("{} search failed: {}", source, e.getMessage());
+            return Flux.empty();
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.wisc.union.websiteBackend.jpa.SteamAccount;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Libraries saved as GetOwnedGames responses, one {@code <steamAccountId>.json} per account. Used for tests and
+ * for accounts whose libraries are exported by hand.
+ */
+@Component
+@ConditionalOnProperty(prefix = "steam.sync", name = "source", havingValue = "json", matchIfMissing = true)
+class JsonDumpLibrarySource implements SteamLibrarySource {
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    JsonDumpLibrarySource(SteamSyncProperties properties, ObjectMapper objectMapper) {
+        this.directory = Path.of(properties.getDumpDirectory());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Optional<List<OwnedApp>> ownedApps(SteamAccount account) throws IOException {
+        Path dump = directory.resolve(account.getSteamAccountId() + ".json");
+        if (!Files.isRegularFile(dump)) {
+            return Optional.empty();
+        }
+        return SteamLibrarySource.fromOwnedGames(objectMapper.readTree(dump.toFile()));
+    }
+}
@@ -0,0 +1,154 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import edu.wisc.union.websiteBackend.controllers.lookup.FederatedLookupService;
+import edu.wisc.union.websiteBackend.jpa.SteamGame;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * In-memory view of which accounts own which games and when each account is booked, so a request can be matched
+ * without reading every account and request. Games map to the accounts owning them (by app id and by normalized
+ * title); each account keeps its bookings in a tree keyed by start day. Bookings of one account never overlap, so
+ * a free check is one floor lookup: O(log b) per candidate account. {@link #findFree} tries the owners of the game
+ * in order, so a lookup costs O(k log b) for the k accounts owning it, not O(log n) over all accounts; it never
+ * touches accounts without the game or the requests.
+ * <p>
+ * The index only proposes an account. The database has the final say (see {@link SteamRentalService}), so a
+ * stale entry costs a retry, never a double booking.
+ */
+class RentalIndex {
+    /**
+     * A booked interval; {@code end} is exclusive.
+     */
+    record Booking(int requestId, LocalDate start, LocalDate end) {
+        boolean overlaps(LocalDate otherStart, LocalDate otherEnd) {
+            return start.isBefore(otherEnd) && otherStart.isBefore(end);
+        }
+    }
+
+    private final Map<String, NavigableSet<Integer>> accountsByGame = new HashMap<>();
+    private final Map<Integer, Set<String>> gamesByAccount = new HashMap<>();
+    private final Map<Integer, NavigableMap<LocalDate, Booking>> bookings = new HashMap<>();
+
+    static String key(String gameName) {
+        return FederatedLookupService.normalize(gameName);
+    }
+
+    synchronized void clear() {
+        accountsByGame.clear();
+        gamesByAccount.clear();
+        bookings.clear();
+    }
+
+    /**
+     * Replace what the index knows about the games on an account.
+     */
+    synchronized void putAccount(Integer accountId, Collection<SteamGame> games) {
+        removeGames(accountId);
+        Set<String> keys = new HashSet<>();
+        for (SteamGame game : games) {
+            keys.add(game.getId());
+            if (game.getName() != null && !key(game.getName()).isEmpty()) {
+                keys.add(key(game.getName()));
+            }
+        }
+        keys.forEach(key -> accountsByGame.computeIfAbsent(key, k -> new TreeSet<>()).add(accountId));
+        gamesByAccount.put(accountId, keys);
+        bookings.computeIfAbsent(accountId, id -> new TreeMap<>());
+    }
+
+    synchronized void removeAccount(Integer accountId) {
+        removeGames(accountId);
+        bookings.remove(accountId);
+    }
+
+    /**
+     * Replace the known bookings of an account, e.g. after another node booked it.
+     */
+    synchronized void setBookings(Integer accountId, Collection<Booking> accountBookings) {
+        NavigableMap<LocalDate, Booking> tree = new TreeMap<>();
+        accountBookings.forEach(booking -> tree.put(booking.start(), booking));
+        bookings.put(accountId, tree);
+    }
+
+    /**
+     * The lowest-numbered account that owns the game and is free for the whole interval, skipping
+     * {@code excluded}.
+     *
+     * @param game an app id or a title, matched after normalization
+     */
+    synchronized Optional<Integer> findFree(String game, LocalDate start, LocalDate end, Set<Integer> excluded) {
+        for (Integer accountId : owners(game)) {
+            if (!excluded.contains(accountId) && isFree(accountId, start, end)) {
+                return Optional.of(accountId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    synchronized int countFree(String game, LocalDate start, LocalDate end) {
+        int free = 0;
+        for (Integer accountId : owners(game)) {
+            if (isFree(accountId, start, end)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * @return false, changing nothing, if the account is already booked during the interval
+     */
+    synchronized boolean book(Integer accountId, Booking booking) {
+        if (!isFree(accountId, booking.start(), booking.end())) {
+            return false;
+        }
+        bookings.computeIfAbsent(accountId, id -> new TreeMap<>()).put(booking.start(), booking);
+        return true;
+    }
+
+    synchronized void release(Integer accountId, Booking booking) {
+        NavigableMap<LocalDate, Booking> tree = bookings.get(accountId);
+        if (tree != null) {
+            tree.remove(booking.start(), booking);
+        }
+    }
+
+    private Set<Integer> owners(String game) {
+        if (game == null) {
+            return Set.of();
+        }
+        NavigableSet<Integer> byId = accountsByGame.get(game.trim());
+        NavigableSet<Integer> byName = accountsByGame.get(key(game));
+        if (byId == null || byName == null) {
+            return byId != null ? byId : byName != null ? byName : Set.of();
+        }
+        NavigableSet<Integer> owners = new TreeSet<>(byId);
+        owners.addAll(byName);
+        return owners;
+    }
+
+    // The booking starting last before the interval ends is the only one that can overlap it
+    private boolean isFree(Integer accountId, LocalDate start, LocalDate end) {
+        NavigableMap<LocalDate, Booking> tree = bookings.get(accountId);
+        if (tree == null) {
+            return true;
+        }
+        Map.Entry<LocalDate, Booking> previous = tree.lowerEntry(end);
+        return previous == null || !previous.getValue().overlaps(start, end);
+    }
+
+    private void removeGames(Integer accountId) {
+        Set<String> keys = gamesByAccount.remove(accountId);
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            NavigableSet<Integer> owners = accountsByGame.get(key);
+            if (owners != null && owners.remove(accountId) && owners.isEmpty()) {
+                accountsByGame.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.wisc.union.websiteBackend.jpa.SteamAccount;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Where the library sync reads the apps each account owns; chosen with {@code steam.sync.source}.
+ */
+public interface SteamLibrarySource {
+
+    record OwnedApp(String appid, String name) {
+    }
+
+    /**
+     * @return the account's apps, or empty if the source knows nothing about the account, in which case its
+     * stored library is left as it is
+     */
+    Optional<List<OwnedApp>> ownedApps(SteamAccount account) throws IOException;
+
+    /**
+     * Reads a GetOwnedGames response, {@code {"response": {"game_count": 2, "games": [{"appid": 10, "name": ...}]}}}.
+     * A response without a {@code game_count} (a private profile, for instance) tells nothing about the library.
+     */
+    static Optional<List<OwnedApp>> fromOwnedGames(JsonNode root) {
+        JsonNode response = root.path("response");
+        if (!response.has("game_count")) {
+            return Optional.empty();
+        }
+        List<OwnedApp> apps = new ArrayList<>();
+        for (JsonNode game : response.path("games")) {
+            if (game.hasNonNull("appid")) {
+                apps.add(new OwnedApp(game.get("appid").asText(), game.path("name").asText(null)));
+            }
+        }
+        return Optional.of(apps);
+    }
+}
@@ -0,0 +1,271 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchObjects.SteamAppDetails;
+import edu.wisc.union.websiteBackend.controllers.console.ConsoleSearchService;
+import edu.wisc.union.websiteBackend.controllers.steam.SteamLibrarySource.OwnedApp;
+import edu.wisc.union.websiteBackend.jpa.SteamAccount;
+import edu.wisc.union.websiteBackend.jpa.SteamAccountRepository;
+import edu.wisc.union.websiteBackend.jpa.SteamGame;
+import edu.wisc.union.websiteBackend.jpa.SteamGameRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the games on every Steam account in step with what the account actually owns. A sync reads each
+ * library from the {@link SteamLibrarySource}, diffs it against the stored games in memory, and writes only the
+ * differences in one transaction, which Hibernate sends as JDBC batches. Games seen for the first time then get
+ * their platforms from the store, a bounded number of lookups at a time.
+ * <p>
+ * Syncs run one at a time on their own thread, on a schedule when {@code steam.sync.enabled} is set and
+ * whenever an admin asks.
+ */
+@Slf4j
+@Service
+public class SteamLibrarySync implements DisposableBean {
+    private static final int WRITE_CHUNK = 500;
+
+    private final SteamLibrarySource source;
+    private final SteamAccountRepository accountRepository;
+    private final SteamGameRepository gameRepository;
+    private final ConsoleSearchService consoleSearchService;
+    private final SteamRentalService rentalService;
+    private final SteamSyncProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "steam-library-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, Instant> lookupFailures = new ConcurrentHashMap<>();
+    private volatile SyncReport lastReport;
+
+    public SteamLibrarySync(SteamLibrarySource source, SteamAccountRepository accountRepository,
+                            SteamGameRepository gameRepository, ConsoleSearchService consoleSearchService,
+                            SteamRentalService rentalService, SteamSyncProperties properties,
+                            ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
+        this.source = source;
+        this.accountRepository = accountRepository;
+        this.gameRepository = gameRepository;
+        this.consoleSearchService = consoleSearchService;
+        this.rentalService = rentalService;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * @param accounts           accounts synced
+     * @param accountsSkipped    accounts the source knew nothing about, or failed to read
+     * @param appsSeen           distinct apps across the synced libraries
+     * @param gamesAdded         games stored for the first time
+     * @param gamesRenamed       games whose stored title changed
+     * @param libraryAdded       games added to an account
+     * @param libraryRemoved     games no longer on an account
+     * @param platformsFound     games whose platforms were filled in
+     * @param platformLookupsFailed store lookups that failed; retried after {@code steam.sync.retry-after}
+     */
+    public record SyncReport(Instant startedAt, long durationMillis, int accounts, int accountsSkipped, int appsSeen,
+                             int gamesAdded, int gamesRenamed, int libraryAdded, int libraryRemoved,
+                             int platformsFound, int platformLookupsFailed) {
+    }
+
+    public record SyncStatus(boolean running, SyncReport lastReport) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleSyncs() {
+        if (properties.isEnabled()) {
+            long interval = properties.getInterval().toMillis();
+            executor.scheduleWithFixedDelay(this::runQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Start a sync in the background.
+     *
+     * @return false if one is already running
+     */
+    public boolean start() {
+        if (running.get()) {
+            return false;
+        }
+        executor.execute(this::runQuietly);
+        return true;
+    }
+
+    public SyncStatus status() {
+        return new SyncStatus(running.get(), lastReport);
+    }
+
+    private void runQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            log.warn("Steam library sync failed: {}", e.getMessage(), e);
+        }
+    }
+
+    SyncReport sync() {
+        if (!running.compareAndSet(false, true)) {
+            return lastReport;
+        }
+        try {
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+
+            Map<Integer, List<OwnedApp>> libraries = new LinkedHashMap<>();
+            List<SteamAccount> accounts = accountRepository.findAll();
+            for (SteamAccount account : accounts) {
+                try {
+                    source.ownedApps(account).ifPresent(apps -> libraries.put(account.getSteamAccountId(), apps));
+                } catch (Exception e) {
+                    log.warn("Could not read the library of Steam account {}: {}", account.getSteamAccountId(), e.getMessage());
+                }
+            }
+
+            LibraryChanges changes = transactionTemplate.execute(status -> applyLibraries(libraries));
+            if (changes.changedAnything()) {
+                rentalService.reloadAll();
+            }
+            int[] platforms = fillInPlatforms();
+
+            lastReport = new SyncReport(startedAt, (System.nanoTime() - start) / 1_000_000, libraries.size(),
+                    accounts.size() - libraries.size(), changes.appsSeen, changes.gamesAdded, changes.gamesRenamed,
+                    changes.libraryAdded, changes.libraryRemoved, platforms[0], platforms[1]);
+            log.info("Steam library sync: {}", lastReport);
+            return lastReport;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static final class LibraryChanges {
+        int appsSeen, gamesAdded, gamesRenamed, libraryAdded, libraryRemoved;
+
+        boolean changedAnything() {
+            return gamesAdded + gamesRenamed + libraryAdded + libraryRemoved > 0;
+        }
+    }
+
+    private LibraryChanges applyLibraries(Map<Integer, List<OwnedApp>> libraries) {
+        LibraryChanges changes = new LibraryChanges();
+        // One name per app; a dump without names keeps the stored ones
+        Map<String, String> names = new HashMap<>();
+        libraries.values().forEach(apps -> apps.forEach(app -> names.merge(app.appid(),
+                app.name() == null ? "" : app.name(), (known, other) -> known.isEmpty() ? other : known)));
+        changes.appsSeen = names.size();
+
+        Map<String, SteamGame> games = gameRepository.findAll().stream()
+                .collect(Collectors.toMap(SteamGame::getId, Function.identity()));
+        names.forEach((appId, name) -> {
+            SteamGame game = games.get(appId);
+            if (game == null) {
+                game = new SteamGame();
+                game.setId(appId);
+                game.setName(name.isEmpty() ? null : name);
+                entityManager.persist(game);
+                games.put(appId, game);
+                changes.gamesAdded++;
+            } else if (!name.isEmpty() && !name.equals(game.getName())) {
+                game.setName(name);
+                changes.gamesRenamed++;
+            }
+        });
+
+        for (SteamAccount account : accountRepository.findAllWithGamesById(libraries.keySet())) {
+            Set<String> owned = libraries.get(account.getSteamAccountId()).stream()
+                    .map(OwnedApp::appid).collect(Collectors.toSet());
+            Set<SteamGame> stored = account.getGamesOnAccount();
+            int before = stored.size();
+            stored.removeIf(game -> !owned.contains(game.getId()));
+            changes.libraryRemoved += before - stored.size();
+
+            Set<String> storedIds = stored.stream().map(SteamGame::getId).collect(Collectors.toSet());
+            for (String appId : owned) {
+                if (!storedIds.contains(appId)) {
+                    stored.add(games.get(appId));
+                    changes.libraryAdded++;
+                }
+            }
+        }
+        if (changes.changedAnything()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.all(CatalogChangedEvent.Entity.STEAM_ACCOUNT, false));
+        }
+        return changes;
+    }
+
+    /**
+     * Look up the platforms of games that have none yet.
+     *
+     * @return games filled in, and lookups that failed
+     */
+    private int[] fillInPlatforms() {
+        Instant now = Instant.now();
+        lookupFailures.values().removeIf(failedAt -> failedAt.plus(properties.getRetryAfter()).isBefore(now));
+        List<String> appIds = gameRepository.findIdsWithoutPlatforms().stream()
+                .filter(appId -> !lookupFailures.containsKey(appId))
+                .limit(properties.getEnrichLimit())
+                .toList();
+        if (appIds.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        Map<String, SteamAppDetails> found = Flux.fromIterable(appIds)
+                .flatMap(appId -> consoleSearchService.getSteamAppDetails(appId)
+                        .timeout(properties.getEnrichTimeout())
+                        .filter(details -> details.getPlatforms() != null)
+                        .map(details -> Map.entry(appId, details))
+                        .onErrorResume(e -> Mono.empty())
+                        .switchIfEmpty(Mono.fromRunnable(() -> lookupFailures.put(appId, Instant.now()))),
+                        properties.getEnrichConcurrency())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+
+        List<String> foundIds = new ArrayList<>(found.keySet());
+        for (int from = 0; from < foundIds.size(); from += WRITE_CHUNK) {
+            List<String> chunk = foundIds.subList(from, Math.min(from + WRITE_CHUNK, foundIds.size()));
+            transactionTemplate.executeWithoutResult(status -> gameRepository.findAllById(chunk).forEach(game -> {
+                SteamAppDetails details = found.get(game.getId());
+                game.setWindows(Boolean.TRUE.equals(details.getPlatforms().getWindows()));
+                game.setMacos(Boolean.TRUE.equals(details.getPlatforms().getMac()));
+                game.setLinux(Boolean.TRUE.equals(details.getPlatforms().getLinux()));
+                if (game.getDescription() == null && details.getShort_description() != null) {
+                    String description = details.getShort_description();
+                    game.setDescription(description.length() > 512 ? description.substring(0, 512) : description);
+                }
+            }));
+        }
+        return new int[]{found.size(), appIds.size() - found.size()};
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,121 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import edu.wisc.union.websiteBackend.controllers.steam.SteamRentalObjects.*;
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import edu.wisc.union.websiteBackend.jpa.SteamAccountRequest;
+import edu.wisc.union.websiteBackend.jpa.SteamGame;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rentals of the club's Steam accounts. Guests submit requests and check availability; hosts assign and cancel
+ * requests; admins manage the accounts and the games on them, or sync the games from the accounts' libraries.
+ */
+@RestController
+@RequestMapping("/api/steam")
+public class SteamRentalController {
+    private final SteamRentalService rentalService;
+    private final SteamLibrarySync librarySync;
+
+    public SteamRentalController(SteamRentalService rentalService, SteamLibrarySync librarySync) {
+        this.rentalService = rentalService;
+        this.librarySync = librarySync;
+    }
+
+    @PostMapping("/requests")
+    public ResponseEntity<RentalResponse> submitRequest(@RequestBody RentalRequestBody body) {
+        return ResponseEntity.status(201).body(rentalService.submit(body));
+    }
+
+    @GetMapping("/requests")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<List<RentalResponse>> getRequests(
+            @RequestParam(required = false) SteamAccountRequest.Status status) {
+        return ResponseEntity.ok(rentalService.requests(status));
+    }
+
+    @PostMapping("/requests/{id}/assign")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<RentalResponse> assignRequest(@PathVariable Integer id) {
+        return ResponseEntity.ok(rentalService.assign(id));
+    }
+
+    @PostMapping("/requests:assign-pending")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<List<RentalResponse>> assignPendingRequests() {
+        return ResponseEntity.ok(rentalService.assignPending());
+    }
+
+    @PostMapping("/requests/{id}/cancel")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<RentalResponse> cancelRequest(@PathVariable Integer id) {
+        return ResponseEntity.ok(rentalService.cancel(id));
+    }
+
+    /**
+     * How many accounts could take a rental of the game from {@code start}.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<Availability> getAvailability(
+            @RequestParam String game,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start) {
+        return ResponseEntity.ok(rentalService.availability(game, start));
+    }
+
+    @GetMapping("/accounts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<AccountResponse>> getAccounts() {
+        return ResponseEntity.ok(rentalService.accounts());
+    }
+
+    @PutMapping("/accounts/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AccountResponse> saveAccount(@PathVariable Integer id, @RequestBody AccountBody body) {
+        return ResponseEntity.ok(rentalService.saveAccount(id, body));
+    }
+
+    @DeleteMapping("/accounts/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteAccount(@PathVariable Integer id) {
+        rentalService.deleteAccount(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/games")
+    @PreAuthorize("hasRole('HOST') or hasRole('ADMIN')")
+    public ResponseEntity<List<SteamGame>> getGames() {
+        return ResponseEntity.ok(rentalService.games());
+    }
+
+    /**
+     * Create or update Steam games by app id.
+     */
+    @PutMapping("/games")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SteamGame>> saveGames(@RequestBody List<SteamGame> games) {
+        return ResponseEntity.ok(rentalService.saveGames(games));
+    }
+
+    /**
+     * Start syncing every account's games from its Steam library; poll {@code GET /api/steam/sync} for the result.
+     */
+    @PostMapping("/sync")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SteamLibrarySync.SyncStatus> startSync() {
+        if (!librarySync.start()) {
+            throw new InputErrorException("A118", "A library sync is already running.");
+        }
+        return ResponseEntity.accepted().body(librarySync.status());
+    }
+
+    @GetMapping("/sync")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<SteamLibrarySync.SyncStatus> getSyncStatus() {
+        return ResponseEntity.ok(librarySync.status());
+    }
+}
@@ -0,0 +1,90 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request and response bodies of the {@code /api/steam} endpoints.
+ */
+public class SteamRentalObjects {
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RentalRequestBody {
+        private String name;
+        private String email;
+        /**
+         * A Steam app id or a title; titles match regardless of case, accents and punctuation.
+         */
+        private String gameName;
+        private String comments;
+        private LocalDate rentalStartDay;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RentalResponse {
+        private Integer requestId;
+        private String status;
+        private String name;
+        private String email;
+        private String gameName;
+        private String comments;
+        private LocalDate rentalStartDay;
+        /**
+         * Last day of the rental, inclusive.
+         */
+        private LocalDate rentalEndDay;
+        /**
+         * The assigned account; only shown to hosts.
+         */
+        private Integer assignedAccountId;
+        private String assignedAccountUsername;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountBody {
+        private String username;
+        /**
+         * Left unchanged when omitted.
+         */
+        private String password;
+        /**
+         * Steam app ids of the games on the account; left unchanged when omitted.
+         */
+        private List<String> gameIds;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AccountResponse {
+        private Integer steamAccountId;
+        private String username;
+        private int gameCount;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Availability {
+        private String gameName;
+        private LocalDate rentalStartDay;
+        private LocalDate rentalEndDay;
+        private int freeAccounts;
+    }
+}
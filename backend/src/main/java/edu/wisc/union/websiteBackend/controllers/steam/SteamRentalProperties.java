@@ -0,0 +1,19 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "steam.rentals")
+@Data
+public class SteamRentalProperties {
+    /**
+     * Length of a rental, counted from its start day.
+     */
+    private int rentalDays = 7;
+    /**
+     * Assign an account as soon as a request comes in; otherwise requests wait for a host to assign them.
+     */
+    private boolean autoAssign = true;
+}
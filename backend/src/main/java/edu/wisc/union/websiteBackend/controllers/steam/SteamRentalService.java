@@ -0,0 +1,359 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.controllers.steam.RentalIndex.Booking;
+import edu.wisc.union.websiteBackend.controllers.steam.SteamRentalObjects.*;
+import edu.wisc.union.websiteBackend.exception.InputErrorException;
+import edu.wisc.union.websiteBackend.jpa.*;
+import edu.wisc.union.websiteBackend.jpa.SteamAccountRequest.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.api.OpenApiResourceNotFoundException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Steam account rentals: guests ask for a game from a start day, and get one of the club's accounts that owns the
+ * game and is free for the whole rental. Candidates come from the in-memory {@link RentalIndex}; the chosen
+ * account is then locked and checked for overlapping bookings in the database, so concurrent requests, on this
+ * node or another, never share an account.
+ */
+@Slf4j
+@Service
+public class SteamRentalService {
+    private static final ZoneId GAME_NIGHT_ZONE = ZoneId.of("America/Chicago");
+
+    private final SteamAccountRequestRepository requestRepository;
+    private final SteamAccountRepository accountRepository;
+    private final SteamGameRepository gameRepository;
+    private final SteamRentalProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RentalIndex index = new RentalIndex();
+
+    public SteamRentalService(SteamAccountRequestRepository requestRepository, SteamAccountRepository accountRepository,
+                              SteamGameRepository gameRepository, SteamRentalProperties properties,
+                              ApplicationEventPublisher eventPublisher) {
+        this.requestRepository = requestRepository;
+        this.accountRepository = accountRepository;
+        this.gameRepository = gameRepository;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public RentalResponse submit(RentalRequestBody body) {
+        if (isBlank(body.getName()) || isBlank(body.getEmail()) || isBlank(body.getGameName())) {
+            throw new InputErrorException("A113", "A rental request needs a name, an email and a game.");
+        }
+        if (body.getRentalStartDay() == null || body.getRentalStartDay().isBefore(today())) {
+            throw new InputErrorException("A113", "The rental must start today or later.");
+        }
+        SteamAccountRequest request = new SteamAccountRequest();
+        request.setName(body.getName().trim());
+        request.setEmail(body.getEmail().trim());
+        request.setGameName(body.getGameName().trim());
+        request.setComments(body.getComments());
+        request.setRentalStartDay(body.getRentalStartDay());
+        request.setStatus(Status.PENDING.name());
+        requestRepository.save(request);
+        if (properties.isAutoAssign()) {
+            tryAssign(request);
+        }
+        return toResponse(request, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RentalResponse> requests(Status status) {
+        return requestRepository.findByStatus(status == null ? null : status.name()).stream()
+                .map(request -> toResponse(request, true))
+                .toList();
+    }
+
+    @Transactional
+    public RentalResponse assign(Integer requestId) {
+        SteamAccountRequest request = lockRequest(requestId);
+        if (!Status.PENDING.name().equals(request.getStatus())) {
+            throw new InputErrorException("A114", "Only pending requests can be assigned.");
+        }
+        if (!tryAssign(request)) {
+            throw new InputErrorException("A115", "No account with " + request.getGameName() + " is free from "
+                    + request.getRentalStartDay() + " to " + lastDay(request.getRentalStartDay()) + ".");
+        }
+        return toResponse(request, true);
+    }
+
+    /**
+     * Try to assign every pending request that has not started yet, earliest start first.
+     *
+     * @return the requests that got an account
+     */
+    @Transactional
+    public List<RentalResponse> assignPending() {
+        List<RentalResponse> assigned = new ArrayList<>();
+        for (Integer requestId : requestRepository.findPendingIdsFrom(today())) {
+            SteamAccountRequest request = lockRequest(requestId);
+            if (Status.PENDING.name().equals(request.getStatus()) && tryAssign(request)) {
+                assigned.add(toResponse(request, true));
+            }
+        }
+        return assigned;
+    }
+
+    @Transactional
+    public RentalResponse cancel(Integer requestId) {
+        SteamAccountRequest request = lockRequest(requestId);
+        if (Status.CANCELLED.name().equals(request.getStatus())) {
+            throw new InputErrorException("A114", "The request is already cancelled.");
+        }
+        SteamAccount account = request.getAssignedAccount();
+        if (Status.ASSIGNED.name().equals(request.getStatus()) && account != null) {
+            Integer accountId = account.getSteamAccountId();
+            Booking booking = booking(request);
+            afterCommit(() -> index.release(accountId, booking));
+            publishChanged(accountId);
+        }
+        request.setStatus(Status.CANCELLED.name());
+        return toResponse(request, true);
+    }
+
+    public Availability availability(String gameName, LocalDate start) {
+        if (isBlank(gameName) || start == null) {
+            throw new InputErrorException("A113", "Give a game and a start day.");
+        }
+        LocalDate end = start.plusDays(properties.getRentalDays());
+        return new Availability(gameName, start, lastDay(start), index.countFree(gameName, start, end));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountResponse> accounts() {
+        Map<Integer, Integer> gameCounts = accountRepository.countGamesByAccount().stream()
+                .collect(Collectors.toMap(row -> (Integer) row[0], row -> ((Number) row[1]).intValue()));
+        return accountRepository.findAll(Sort.by("steamAccountId")).stream()
+                .map(account -> new AccountResponse(account.getSteamAccountId(), account.getSteamAccountUsername(),
+                        gameCounts.getOrDefault(account.getSteamAccountId(), 0)))
+                .toList();
+    }
+
+    /**
+     * Create or update an account. Steam account ids are assigned by Steam, so the caller names the id.
+     */
+    @Transactional
+    public AccountResponse saveAccount(Integer accountId, AccountBody body) {
+        SteamAccount account = accountRepository.findByIdForUpdate(accountId).orElseGet(() -> {
+            SteamAccount created = new SteamAccount();
+            created.setSteamAccountId(accountId);
+            created.setGamesOnAccount(new HashSet<>());
+            return created;
+        });
+        if (body.getUsername() != null) {
+            account.setSteamAccountUsername(body.getUsername().trim());
+        }
+        if (body.getPassword() != null) {
+            account.setSteamAccountPassword(body.getPassword());
+        }
+        if (isBlank(account.getSteamAccountUsername())) {
+            throw new InputErrorException("A116", "An account needs a username.");
+        }
+        if (body.getGameIds() != null) {
+            Set<String> ids = new HashSet<>(body.getGameIds());
+            List<SteamGame> games = gameRepository.findAllById(ids);
+            if (games.size() != ids.size()) {
+                games.forEach(game -> ids.remove(game.getId()));
+                throw new InputErrorException("A116", "Unknown Steam games: " + String.join(", ", ids));
+            }
+            account.setGamesOnAccount(new HashSet<>(games));
+        }
+        accountRepository.save(account);
+
+        List<SteamGame> games = new ArrayList<>(account.getGamesOnAccount());
+        afterCommit(() -> index.putAccount(accountId, games));
+        publishChanged(accountId);
+        return new AccountResponse(accountId, account.getSteamAccountUsername(), games.size());
+    }
+
+    @Transactional
+    public void deleteAccount(Integer accountId) {
+        SteamAccount account = accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new OpenApiResourceNotFoundException("Steam account not found with ID: " + accountId));
+        if (requestRepository.existsByAssignedAccountSteamAccountIdAndStatusAndRentalStartDayAfter(accountId,
+                Status.ASSIGNED.name(), bookingHorizon())) {
+            throw new InputErrorException("A116", "The account has current or upcoming rentals.");
+        }
+        // Past rentals keep their history, minus the account
+        requestRepository.detachAccount(accountId);
+        accountRepository.delete(account);
+        afterCommit(() -> index.removeAccount(accountId));
+        eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Entity.STEAM_ACCOUNT,
+                accountId.longValue()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SteamGame> games() {
+        return gameRepository.findAll(Sort.by("name"));
+    }
+
+    @Transactional
+    public List<SteamGame> saveGames(List<SteamGame> games) {
+        if (games.stream().anyMatch(game -> game == null || isBlank(game.getId()))) {
+            throw new InputErrorException("A117", "Every Steam game needs its app 'id'.");
+        }
+        List<SteamGame> saved = gameRepository.saveAll(games);
+        // Titles are index keys; renames are rare, so rebuild
+        afterCommit(this::reloadAll);
+        eventPublisher.publishEvent(CatalogChangedEvent.all(CatalogChangedEvent.Entity.STEAM_ACCOUNT, false));
+        return saved;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadAll() {
+        List<SteamAccount> accounts = accountRepository.findAllWithGames();
+        Map<Integer, List<Booking>> bookings = bookingsByAccount(requestRepository.findBookingsAfter(bookingHorizon()));
+        synchronized (index) {
+            index.clear();
+            accounts.forEach(account -> index.putAccount(account.getSteamAccountId(), account.getGamesOnAccount()));
+            bookings.forEach(index::setBookings);
+        }
+        log.debug("Rental index loaded {} Steam accounts", accounts.size());
+    }
+
+    /**
+     * Another node changed accounts or their bookings; reread them.
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!event.remote() || event.entity() != CatalogChangedEvent.Entity.STEAM_ACCOUNT) {
+            return;
+        }
+        if (event.allRows()) {
+            reloadAll();
+            return;
+        }
+        List<Integer> accountIds = event.ids().stream().map(Long::intValue).toList();
+        Set<Integer> missing = new HashSet<>(accountIds);
+        for (SteamAccount account : accountRepository.findAllWithGamesById(accountIds)) {
+            index.putAccount(account.getSteamAccountId(), account.getGamesOnAccount());
+            missing.remove(account.getSteamAccountId());
+        }
+        missing.forEach(index::removeAccount);
+        reloadBookings(accountIds);
+    }
+
+    private boolean tryAssign(SteamAccountRequest request) {
+        Booking booking = booking(request);
+        Set<Integer> tried = new HashSet<>();
+        while (true) {
+            Integer accountId = index.findFree(request.getGameName(), booking.start(), booking.end(), tried).orElse(null);
+            if (accountId == null) {
+                return false;
+            }
+            tried.add(accountId);
+            SteamAccount account = accountRepository.findByIdForUpdate(accountId).orElse(null);
+            if (account == null) {
+                index.removeAccount(accountId);
+                continue;
+            }
+            // Bookings of the same length overlap when their start days are less than a rental apart
+            if (requestRepository.existsBookingStartingBetween(accountId,
+                    booking.start().minusDays(properties.getRentalDays()), booking.end())) {
+                // Booked by another node since this index last heard about it
+                reloadBookings(List.of(accountId));
+                continue;
+            }
+            if (!index.book(accountId, booking)) {
+                continue;
+            }
+            afterRollback(() -> index.release(accountId, booking));
+            request.setAssignedAccount(account);
+            request.setStatus(Status.ASSIGNED.name());
+            publishChanged(accountId);
+            return true;
+        }
+    }
+
+    private void reloadBookings(List<Integer> accountIds) {
+        Map<Integer, List<Booking>> bookings = bookingsByAccount(
+                requestRepository.findBookingsAfter(bookingHorizon(), accountIds));
+        accountIds.forEach(accountId -> index.setBookings(accountId, bookings.getOrDefault(accountId, List.of())));
+    }
+
+    private Map<Integer, List<Booking>> bookingsByAccount(List<Object[]> rows) {
+        int days = properties.getRentalDays();
+        return rows.stream().collect(Collectors.groupingBy(row -> (Integer) row[0], Collectors.mapping(row ->
+                new Booking((Integer) row[1], (LocalDate) row[2], ((LocalDate) row[2]).plusDays(days)), Collectors.toList())));
+    }
+
+    // Rentals starting on or before this day are over
+    private LocalDate bookingHorizon() {
+        return today().minusDays(properties.getRentalDays());
+    }
+
+    private Booking booking(SteamAccountRequest request) {
+        LocalDate start = request.getRentalStartDay();
+        return new Booking(request.getRequestId(), start, start.plusDays(properties.getRentalDays()));
+    }
+
+    private LocalDate lastDay(LocalDate start) {
+        return start.plusDays(properties.getRentalDays() - 1L);
+    }
+
+    private SteamAccountRequest lockRequest(Integer requestId) {
+        return requestRepository.findByIdForUpdate(requestId)
+                .orElseThrow(() -> new OpenApiResourceNotFoundException("Rental request not found with ID: " + requestId));
+    }
+
+    private void publishChanged(Integer accountId) {
+        eventPublisher.publishEvent(CatalogChangedEvent.saved(CatalogChangedEvent.Entity.STEAM_ACCOUNT,
+                accountId.longValue()));
+    }
+
+    private RentalResponse toResponse(SteamAccountRequest request, boolean withAccount) {
+        SteamAccount account = withAccount ? request.getAssignedAccount() : null;
+        return new RentalResponse(request.getRequestId(), request.getStatus(), request.getName(), request.getEmail(),
+                request.getGameName(), request.getComments(), request.getRentalStartDay(),
+                request.getRentalStartDay() == null ? null : lastDay(request.getRentalStartDay()),
+                account == null ? null : account.getSteamAccountId(),
+                account == null ? null : account.getSteamAccountUsername());
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(GAME_NIGHT_ZONE);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static void afterRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,42 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "steam.sync")
+@Data
+public class SteamSyncProperties {
+    /**
+     * Sync every {@link #interval}; a sync can always be started by hand.
+     */
+    private boolean enabled = false;
+    private Duration interval = Duration.ofHours(6);
+    /**
+     * Where account libraries come from: {@code json} reads {@link #dumpDirectory}, {@code web-api} asks the Steam
+     * Web API with {@link #apiKey}.
+     */
+    private String source = "json";
+    /**
+     * One {@code <steamAccountId>.json} per account, in the shape of the Web API's GetOwnedGames response.
+     */
+    private String dumpDirectory = "data/steam-libraries";
+    private String apiKey;
+    /**
+     * Store lookups in flight at once when filling in the platforms of new games.
+     */
+    private int enrichConcurrency = 4;
+    /**
+     * Most games looked up per sync; the rest wait for the next one. The store API allows about 200 calls in
+     * 5 minutes.
+     */
+    private int enrichLimit = 150;
+    private Duration enrichTimeout = Duration.ofSeconds(10);
+    /**
+     * How long to wait before looking a game up again after a failed attempt.
+     */
+    private Duration retryAfter = Duration.ofHours(12);
+}
@@ -0,0 +1,60 @@
+package edu.wisc.union.websiteBackend.controllers.steam;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import edu.wisc.union.websiteBackend.jpa.SteamAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Libraries straight from the Steam Web API's {@code IPlayerService/GetOwnedGames}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "steam.sync", name = "source", havingValue = "web-api")
+class SteamWebApiLibrarySource implements SteamLibrarySource {
+    /**
+     * Added to the 32-bit account id to get the 64-bit Steam id the Web API wants.
+     */
+    private static final long STEAM_ID_64_BASE = 76561197960265728L;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final WebClient client;
+    private final String apiKey;
+
+    SteamWebApiLibrarySource(WebClient.Builder webClientBuilder, SteamSyncProperties properties,
+                             @Value("${external.steam-api.url:https://api.steampowered.com}") String apiUrl) {
+        if (properties.getApiKey() == null || properties.getApiKey().isBlank()) {
+            throw new IllegalStateException("steam.sync.source=web-api needs steam.sync.api-key");
+        }
+        this.client = webClientBuilder.clone()
+                .baseUrl(apiUrl)
+                // A large library is a few hundred KB
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build();
+        this.apiKey = properties.getApiKey();
+    }
+
+    @Override
+    public Optional<List<OwnedApp>> ownedApps(SteamAccount account) {
+        JsonNode response = client.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/IPlayerService/GetOwnedGames/v1/")
+                        .queryParam("key", apiKey)
+                        .queryParam("steamid", STEAM_ID_64_BASE + account.getSteamAccountId())
+                        .queryParam("include_appinfo", "1")
+                        .queryParam("include_played_free_games", "1")
+                        .build())
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block(TIMEOUT);
+        return response == null ? Optional.empty() : SteamLibrarySource.fromOwnedGames(response);
+    }
+}
@@ -1,22 +1,41 @@
 package edu.wisc.union.websiteBackend.jpa;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "boardGames")
+@Table(name = "boardGames",
+        indexes = @Index(name = "idx_board_games_name_lower", columnList = "name_lower"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BOARD_GAME)
 @Getter
 @Setter
 public class BoardGame {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_games_gen")
-    @SequenceGenerator(name = "board_games_gen", sequenceName = "board_games_seq")
+    @SequenceGenerator(name = "board_games_gen", sequenceName = "board_games_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
     private String name;
+
+    /**
+     * {@code LOWER(name)}, computed by the database so the case-insensitive name check can use an index
+     * (H2 has no expression indexes).
+     */
+    @JsonIgnore
+    @Column(name = "name_lower", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (LOWER(name))")
+    private String nameLower;
+
     private Integer minPlaytime;
     private Integer maxPlaytime;
     private Integer minPlayerCount;
@@ -33,4 +52,14 @@ public class BoardGame {
     private Integer checkoutCount;
     private String internalNotes;
 
+    /**
+     * The genres named in {@link #genre}; see {@link BoardGameGenre}.
+     */
+    @JsonIgnore
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(name = "board_game_genre_links",
+            joinColumns = @JoinColumn(name = "board_game_id"),
+            inverseJoinColumns = @JoinColumn(name = "genre_id"))
+    private Set<BoardGameGenre> genres = new HashSet<>();
+
 }
@@ -3,12 +3,15 @@ package edu.wisc.union.websiteBackend.jpa;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.EmbeddedId;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.*;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_board_game_checkout_date", columnList = "date"))
 @Setter
 @Getter
 @NoArgsConstructor
@@ -1,9 +1,11 @@
 package edu.wisc.union.websiteBackend.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface BoardGameCheckoutRepository extends JpaRepository<BoardGameCheckout, BoardGameCheckout.BoardGameCheckoutKey> {
@@ -11,6 +13,13 @@ public interface BoardGameCheckoutRepository extends JpaRepository<BoardGameChec
 
     List<BoardGameCheckout> findByKey_DateBetween(LocalDate dateStart, LocalDate dateEnd);
 
+    @Query("SELECT b.key.boardGame.id FROM BoardGameCheckout b WHERE b.key.date = :date AND b.key.boardGame.id IN :ids")
+    List<Long> findBoardGameIdsCheckedOutOn(LocalDate date, Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE BoardGameCheckout b SET b.count = b.count + :count WHERE b.key.date = :date AND b.key.boardGame.id IN :ids")
+    int addCheckouts(LocalDate date, Collection<Long> ids, int count);
+
     @Query("SELECT b.key.boardGame.id, b.key.boardGame.name, SUM(b.count) AS totalCheckouts " +
             "FROM BoardGameCheckout b " +
             "WHERE (:startDate IS NULL OR b.key.date >= :startDate) " +
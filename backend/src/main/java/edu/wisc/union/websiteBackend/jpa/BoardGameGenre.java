@@ -0,0 +1,83 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One genre of the board game catalog. {@link BoardGame#getGenre()} stays the text hosts edit and guests see;
+ * its comma-separated parts are kept in step as links to these rows, which the genre filter joins on.
+ */
+@Entity
+@Table(name = "boardGameGenres")
+@Getter
+@Setter
+@NoArgsConstructor
+public class BoardGameGenre {
+    public static final int MAX_NAME = 100;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "board_game_genres_gen")
+    @SequenceGenerator(name = "board_game_genres_gen", sequenceName = "board_game_genres_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * Spelling of the first game that used the genre.
+     */
+    @Column(length = MAX_NAME, nullable = false)
+    private String name;
+
+    /**
+     * {@link #key(String)} of the name; genres that differ only in case or spacing are the same genre.
+     */
+    @JsonIgnore
+    @Column(length = MAX_NAME, nullable = false, unique = true)
+    private String nameKey;
+
+    public BoardGameGenre(String name) {
+        this.name = name;
+        this.nameKey = key(name);
+    }
+
+    /**
+     * @return the name trimmed, with inner whitespace collapsed and cut to {@link #MAX_NAME} characters
+     */
+    public static String normalize(String name) {
+        String normalized = name.trim().replaceAll("\\s+", " ");
+        return normalized.length() > MAX_NAME ? normalized.substring(0, MAX_NAME).trim() : normalized;
+    }
+
+    /**
+     * @return the {@link #normalize(String) normalized} name in lower case, which is how genres are stored and
+     * filtered on
+     */
+    public static String key(String name) {
+        return normalize(name).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split a game's genre text into its genres, e.g. {@code "Card, Party"}.
+     *
+     * @return the genre names by {@link #key(String)}, in order of appearance, without duplicates
+     */
+    public static Map<String, String> split(String genres) {
+        Map<String, String> names = new LinkedHashMap<>();
+        if (genres == null) {
+            return names;
+        }
+        for (String part : genres.split("[,;]")) {
+            String name = normalize(part);
+            if (!name.isEmpty()) {
+                names.putIfAbsent(key(name), name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BoardGameGenreRepository extends JpaRepository<BoardGameGenre, Long> {
+    List<BoardGameGenre> findByNameKeyIn(Collection<String> nameKeys);
+
+    @Query("SELECT g.nameKey FROM BoardGame b JOIN b.genres g WHERE b.id = :boardGameId")
+    List<String> findNameKeysByBoardGameId(@Param("boardGameId") Long boardGameId);
+
+    /**
+     * Genres of at least one game, by name.
+     */
+    @Query("SELECT DISTINCT g FROM BoardGame b JOIN b.genres g ORDER BY g.name")
+    List<BoardGameGenre> findAllInUse();
+}
@@ -1,29 +1,125 @@
 package edu.wisc.union.websiteBackend.jpa;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BoardGameRepository extends JpaRepository<BoardGame, Long> {
+public interface BoardGameRepository extends CachedRepository<BoardGame, Long> {
+    // The casts type the parameters when they are null; PostgreSQL otherwise sees lower(bytea). The
+    // lower(...) like '%...%' filter is served by the trigram indexes there (see db/migration/postgresql).
+    // A genre matches one of the game's genres exactly, by BoardGameGenre.key. The uncorrelated subquery reads
+    // the genre's games once through idx_board_game_genre_links_genre instead of probing per game.
     @Query("SELECT b FROM BoardGame b WHERE " +
-            "(:name IS NULL OR LOWER(b.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:genre IS NULL OR LOWER(b.genre) LIKE LOWER(CONCAT('%', :genre, '%'))) AND " +
+            "(:name IS NULL OR LOWER(b.name) LIKE LOWER(CONCAT('%', CAST(:name AS String), '%'))) AND " +
+            "(:genreKey IS NULL OR b.id IN (SELECT l.id FROM BoardGame l JOIN l.genres g " +
+            "WHERE g.nameKey = CAST(:genreKey AS String))) AND " +
             "(:minPlayTime IS NULL OR b.minPlaytime >= :minPlayTime) AND " +
             "(:maxPlayTime IS NULL OR b.maxPlaytime <= :maxPlayTime) AND " +
             "(:playerCount IS NULL OR (b.minPlayerCount <= :playerCount AND b.maxPlayerCount >= :playerCount))")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<BoardGame> findFiltered(@Param("name") String name,
-                                 @Param("genre") String genre,
+                                 @Param("genreKey") String genreKey,
                                  @Param("minPlayTime") Integer minPlayTime,
                                  @Param("maxPlayTime") Integer maxPlayTime,
                                  @Param("playerCount") Integer playerCount,
                                  Sort order);
 
-    boolean existsByNameIgnoreCase(String name);
+    @Query("SELECT COUNT(b) > 0 FROM BoardGame b WHERE b.nameLower = LOWER(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
 
     @Query("SELECT SUM(b.availableCopies) FROM BoardGame b")
     Integer findTotalAvailableCopies();
 
+    @Query("SELECT b.boxImageUrl FROM BoardGame b WHERE b.id = :id")
+    Optional<String> findBoxImageUrlById(@Param("id") Long id);
+
+    /**
+     * Lock the given games until the end of the transaction, in id order so concurrent batches cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM BoardGame b WHERE b.id IN :ids ORDER BY b.id")
+    List<BoardGame> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Take {@code count} copies of each game off the shelf, skipping games with fewer available. Games that never
+     * had their copies set count as fully available, as in a single checkout.
+     *
+     * @return the number of games updated
+     */
+    @Modifying
+    @Query("UPDATE BoardGame b SET b.quantity = COALESCE(b.quantity, 1), " +
+            "b.availableCopies = COALESCE(b.availableCopies, b.quantity, 1) - :count, " +
+            "b.checkoutCount = COALESCE(b.checkoutCount, 0) + :count " +
+            "WHERE b.id IN :ids AND COALESCE(b.availableCopies, b.quantity, 1) >= :count")
+    int checkOutCopies(@Param("ids") Collection<Long> ids, @Param("count") int count);
+
+    /**
+     * Put {@code count} copies of each game back, skipping games that would end up with more than their quantity.
+     *
+     * @return the number of games updated
+     */
+    @Modifying
+    @Query("UPDATE BoardGame b SET b.availableCopies = b.availableCopies + :count " +
+            "WHERE b.id IN :ids AND b.availableCopies + :count <= b.quantity")
+    int returnCopies(@Param("ids") Collection<Long> ids, @Param("count") int count);
+
+    /**
+     * Lock every game with copies still out (or never set) and read what a return-all will report for it.
+     * Stands in for {@code UPDATE ... RETURNING}, which JPQL lacks: the locked rows are exactly the ones
+     * {@link #returnAllCopies()} then updates.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.id AS id, b.name AS name, b.quantity AS quantity, b.availableCopies AS availableCopies FROM BoardGame b " +
+            "WHERE b.availableCopies IS DISTINCT FROM b.quantity ORDER BY b.id")
+    List<OutstandingGame> findOutstandingForUpdate();
+
+    /**
+     * Put every copy of every game back on the shelf in one statement.
+     *
+     * @return the number of games updated
+     */
+    @Modifying
+    @Query("UPDATE BoardGame b SET b.availableCopies = b.quantity WHERE b.availableCopies IS DISTINCT FROM b.quantity")
+    int returnAllCopies();
+
+    /**
+     * The next games, in id order after {@code afterId}, that lack any of the metadata BGG can fill in.
+     */
+    @Query("SELECT b.id AS id, b.name AS name FROM BoardGame b WHERE b.id > :afterId AND b.name IS NOT NULL AND (" +
+            "b.minPlayerCount IS NULL OR b.maxPlayerCount IS NULL OR b.minPlaytime IS NULL OR " +
+            "b.maxPlaytime IS NULL OR b.description IS NULL OR b.boxImageUrl IS NULL) ORDER BY b.id")
+    List<GameToEnrich> findMissingMetadataAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT COUNT(b) FROM BoardGame b WHERE b.id > :afterId AND b.name IS NOT NULL AND (" +
+            "b.minPlayerCount IS NULL OR b.maxPlayerCount IS NULL OR b.minPlaytime IS NULL OR " +
+            "b.maxPlaytime IS NULL OR b.description IS NULL OR b.boxImageUrl IS NULL)")
+    long countMissingMetadataAfter(@Param("afterId") long afterId);
+
+    interface GameToEnrich {
+        Long getId();
+
+        String getName();
+    }
+
+    interface OutstandingGame {
+        Long getId();
+
+        String getName();
+
+        Integer getQuantity();
+
+        Integer getAvailableCopies();
+    }
+
 }
@@ -0,0 +1,27 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import java.util.List;
+
+/**
+ * Hibernate second-level cache regions. Each cached entity names its region explicitly so the regions can be
+ * sized in configuration ({@code hibernate-cache.regions.<name>}) without spelling out class names.
+ */
+public final class CacheRegions {
+    public static final String BOARD_GAME = "boardGame";
+    public static final String CONSOLE = "console";
+    public static final String CONSOLE_GENRE = "consoleGenre";
+
+    /**
+     * Results of queries marked cacheable; invalidated by Hibernate whenever one of their tables is written.
+     */
+    public static final String QUERY_RESULTS = "default-query-results-region";
+    /**
+     * Last-write time per table, used to invalidate query results. Must never be evicted.
+     */
+    public static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    public static final List<String> ENTITY_REGIONS = List.of(BOARD_GAME, CONSOLE, CONSOLE_GENRE);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,54 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Index entry for a locally cached box-art image. The bytes themselves live in the on-disk image store,
+ * addressed by {@link #sha256}, so several games sharing the same art share one file.
+ */
+@Entity
+@Table(name = "cachedImages",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"ownerType", "ownerId"}))
+@Getter
+@Setter
+public class CachedImage {
+    public enum OwnerType {
+        BOARD_GAME,
+        CONSOLE_GAME
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cached_images_gen")
+    @SequenceGenerator(name = "cached_images_gen", sequenceName = "cached_images_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OwnerType ownerType;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Column(length = 1024, columnDefinition = "VARCHAR(1024)")
+    private String sourceUrl;
+
+    @Column(length = 64, nullable = false)
+    private String sha256;
+
+    private String contentType;
+    private Long byteSize;
+    private Integer width;
+    private Integer height;
+
+    /**
+     * Comma separated widths of the thumbnails generated for this image, empty if the format could not be decoded.
+     */
+    private String thumbnailWidths;
+
+    private Instant fetchedAt;
+}
@@ -0,0 +1,15 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface CachedImageRepository extends JpaRepository<CachedImage, Long> {
+    Optional<CachedImage> findByOwnerTypeAndOwnerId(CachedImage.OwnerType ownerType, Long ownerId);
+
+    Optional<CachedImage> findFirstBySha256(String sha256);
+
+    @Transactional
+    void deleteByOwnerTypeAndOwnerId(CachedImage.OwnerType ownerType, Long ownerId);
+}
@@ -0,0 +1,33 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository for an entity held in the second-level cache (see {@link CacheRegions}).
+ */
+@NoRepositoryBean
+public interface CachedRepository<T, ID> extends JpaRepository<T, ID> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<T> findAll();
+
+    /**
+     * Like {@link #findAllById(Iterable)}, but loads each entity by id so cached ones never reach the database.
+     * Meant for the handful of ids in a single request; missing ids are skipped.
+     */
+    default List<T> findAllByIdFromCache(Iterable<ID> ids) {
+        List<T> entities = new ArrayList<>();
+        for (ID id : ids) {
+            findById(id).ifPresent(entities::add);
+        }
+        return entities;
+    }
+}
@@ -3,17 +3,21 @@ package edu.wisc.union.websiteBackend.jpa;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Set;
 
 @Entity
 @Table(name = "console")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CONSOLE)
 @Getter
 @Setter
 public class Console {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "console_gen")
-    @SequenceGenerator(name = "console_gen", sequenceName = "console_seq")
+    @SequenceGenerator(name = "console_gen", sequenceName = "console_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
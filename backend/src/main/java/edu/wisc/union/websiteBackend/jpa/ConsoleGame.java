@@ -14,7 +14,7 @@ import java.util.List;
 public class ConsoleGame {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "console_games_gen")
-    @SequenceGenerator(name = "console_games_gen", sequenceName = "console_games_seq")
+    @SequenceGenerator(name = "console_games_gen", sequenceName = "console_games_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -1,6 +1,12 @@
 package edu.wisc.union.websiteBackend.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface ConsoleGameRepository extends JpaRepository<ConsoleGame, Long> {
-}
\ No newline at end of file
+    @Query("SELECT g.boxImageUrl FROM ConsoleGame g WHERE g.id = :id")
+    Optional<String> findBoxImageUrlById(@Param("id") Long id);
+}
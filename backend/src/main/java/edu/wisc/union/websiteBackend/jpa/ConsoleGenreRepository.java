@@ -1,11 +1,14 @@
 package edu.wisc.union.websiteBackend.jpa;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface ConsoleGenreRepository extends JpaRepository<ConsoleGenre, Long> {
+public interface ConsoleGenreRepository extends CachedRepository<ConsoleGenre, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ConsoleGenre> findByNameIgnoreCase(String name);
-}
\ No newline at end of file
+}
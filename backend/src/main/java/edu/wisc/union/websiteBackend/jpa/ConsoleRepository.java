@@ -1,6 +1,4 @@
 package edu.wisc.union.websiteBackend.jpa;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-
-public interface ConsoleRepository extends JpaRepository<Console, Long> {
-}
\ No newline at end of file
+public interface ConsoleRepository extends CachedRepository<Console, Long> {
+}
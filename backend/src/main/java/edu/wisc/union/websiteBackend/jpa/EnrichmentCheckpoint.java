@@ -0,0 +1,54 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * How far a background enrichment job got through the catalog. A pass walks the games in id order; the row is
+ * written in the same transaction as each batch of updates, so after a restart the job carries on right after
+ * the last game it saved.
+ */
+@Entity
+@Table(name = "enrichmentCheckpoints")
+@Getter
+@Setter
+public class EnrichmentCheckpoint {
+    @Id
+    @Column(length = 32, nullable = false)
+    private String job;
+
+    /**
+     * Id of the last game of the last saved batch; 0 at the start of a pass.
+     */
+    @Column(nullable = false)
+    private long lastGameId;
+
+    @Column(nullable = false)
+    private Instant passStartedAt;
+
+    /**
+     * When the pass reached the end of the catalog; {@code null} while it is under way.
+     */
+    private Instant completedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private int processed;
+
+    @Column(nullable = false)
+    private int enriched;
+
+    @Column(nullable = false)
+    private int notFound;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(nullable = false)
+    private long requests;
+}
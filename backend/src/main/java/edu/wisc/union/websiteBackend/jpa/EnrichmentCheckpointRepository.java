@@ -0,0 +1,15 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface EnrichmentCheckpointRepository extends JpaRepository<EnrichmentCheckpoint, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM EnrichmentCheckpoint c WHERE c.job = :job")
+    Optional<EnrichmentCheckpoint> findByJobForUpdate(@Param("job") String job);
+}
@@ -0,0 +1,57 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A guest's place in line for a game whose copies are all out. Waiting holds of a game form a FIFO queue in id
+ * order; a returned copy goes to the head of the queue, which becomes {@link Status#READY} until the guest picks
+ * it up or {@link #expiresAt} passes.
+ */
+@Entity
+@Table(name = "gameHolds", indexes = {
+        @Index(name = "idx_game_holds_queue", columnList = "board_game_id, status, id"),
+        @Index(name = "idx_game_holds_status", columnList = "status")})
+@Getter
+@Setter
+public class GameHold {
+    public enum Status {
+        WAITING,
+        /**
+         * A returned copy is set aside for the guest; it is not counted in the game's available copies.
+         */
+        READY,
+        FULFILLED,
+        EXPIRED,
+        CANCELLED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_holds_gen")
+    @SequenceGenerator(name = "game_holds_gen", sequenceName = "game_holds_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "board_game_id", nullable = false)
+    private BoardGame boardGame;
+
+    @Column(length = 100, nullable = false)
+    private String guestName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When a waiting hold lapses, or when a ready one gives up its copy.
+     */
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,37 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface GameHoldRepository extends JpaRepository<GameHold, Long> {
+    /**
+     * The head of a game's queue; an index seek on {@code idx_game_holds_queue}.
+     */
+    Optional<GameHold> findFirstByBoardGameIdAndStatusOrderByIdAsc(Long boardGameId, GameHold.Status status);
+
+    long countByBoardGameIdAndStatus(Long boardGameId, GameHold.Status status);
+
+    @Query("SELECT h.boardGame.id FROM GameHold h WHERE h.id = :id")
+    Optional<Long> findBoardGameIdById(Long id);
+
+    @Query("SELECT h FROM GameHold h JOIN FETCH h.boardGame WHERE h.boardGame.id = :boardGameId AND h.status IN :statuses ORDER BY h.id")
+    List<GameHold> findByBoardGame(Long boardGameId, Collection<GameHold.Status> statuses);
+
+    @Query("SELECT h FROM GameHold h JOIN FETCH h.boardGame WHERE h.status IN :statuses ORDER BY h.id")
+    List<GameHold> findByStatus(Collection<GameHold.Status> statuses);
+
+    @Query("SELECT h.boardGame.id, COUNT(h) FROM GameHold h " +
+            "WHERE h.boardGame.id IN :boardGameIds AND h.status = :status GROUP BY h.boardGame.id")
+    List<Object[]> countByBoardGame(Collection<Long> boardGameIds, GameHold.Status status);
+
+    @Modifying
+    @Query("UPDATE GameHold h SET h.status = :to WHERE h.status IN :from")
+    int updateStatus(Collection<GameHold.Status> from, GameHold.Status to);
+
+    long deleteByBoardGame(BoardGame boardGame);
+}
@@ -0,0 +1,28 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SteamAccountRepository extends JpaRepository<SteamAccount, Integer> {
+    @Query("SELECT DISTINCT a FROM SteamAccount a LEFT JOIN FETCH a.gamesOnAccount")
+    List<SteamAccount> findAllWithGames();
+
+    @Query("SELECT DISTINCT a FROM SteamAccount a LEFT JOIN FETCH a.gamesOnAccount WHERE a.steamAccountId IN :ids")
+    List<SteamAccount> findAllWithGamesById(Collection<Integer> ids);
+
+    /**
+     * Lock the account until the end of the transaction; serializes bookings of it across nodes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM SteamAccount a WHERE a.steamAccountId = :id")
+    Optional<SteamAccount> findByIdForUpdate(Integer id);
+
+    @Query("SELECT a.steamAccountId, SIZE(a.gamesOnAccount) FROM SteamAccount a")
+    List<Object[]> countGamesByAccount();
+}
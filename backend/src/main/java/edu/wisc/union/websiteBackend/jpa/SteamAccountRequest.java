@@ -7,13 +7,27 @@ import lombok.Setter;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "steamAccountRequests")
+@Table(name = "steamAccountRequests", indexes = {
+        @Index(name = "idx_steam_requests_account_day", columnList = "assigned_account_steam_account_id, rental_start_day"),
+        @Index(name = "idx_steam_requests_status_day", columnList = "status, rental_start_day")})
 @Getter
 @Setter
 public class SteamAccountRequest {
+    public enum Status {
+        PENDING,
+        ASSIGNED,
+        CANCELLED
+    }
+
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "steam_account_requests_gen")
+    @SequenceGenerator(name = "steam_account_requests_gen", sequenceName = "steam_account_requests_seq", allocationSize = 50)
     private Integer requestId;
 
+    /**
+     * One of {@link Status}; stored as plain text.
+     */
+
     private String status;
     private String name;
     private String email;
@@ -21,8 +35,6 @@ public class SteamAccountRequest {
     private String comments;
     private LocalDate rentalStartDay;
 
-
-
     @ManyToOne
     private SteamAccount assignedAccount;
 }
@@ -0,0 +1,51 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SteamAccountRequestRepository extends JpaRepository<SteamAccountRequest, Integer> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM SteamAccountRequest r LEFT JOIN FETCH r.assignedAccount WHERE r.requestId = :id")
+    Optional<SteamAccountRequest> findByIdForUpdate(Integer id);
+
+    @Query("SELECT r FROM SteamAccountRequest r LEFT JOIN FETCH r.assignedAccount " +
+            "WHERE (:status IS NULL OR r.status = :status) ORDER BY r.rentalStartDay, r.requestId")
+    List<SteamAccountRequest> findByStatus(String status);
+
+    @Query("SELECT r.requestId FROM SteamAccountRequest r " +
+            "WHERE r.status = 'PENDING' AND r.rentalStartDay >= :from ORDER BY r.rentalStartDay, r.requestId")
+    List<Integer> findPendingIdsFrom(LocalDate from);
+
+    /**
+     * Bookings whose start day is in {@code (after, before)}; a range probe on idx_steam_requests_account_day.
+     */
+    @Query("SELECT COUNT(r) > 0 FROM SteamAccountRequest r WHERE r.assignedAccount.steamAccountId = :accountId " +
+            "AND r.status = 'ASSIGNED' AND r.rentalStartDay > :after AND r.rentalStartDay < :before")
+    boolean existsBookingStartingBetween(Integer accountId, LocalDate after, LocalDate before);
+
+    boolean existsByAssignedAccountSteamAccountIdAndStatusAndRentalStartDayAfter(Integer accountId, String status,
+                                                                                 LocalDate after);
+
+    /**
+     * Account id, request id and start day of the bookings starting after {@code after}.
+     */
+    @Query("SELECT r.assignedAccount.steamAccountId, r.requestId, r.rentalStartDay FROM SteamAccountRequest r " +
+            "WHERE r.status = 'ASSIGNED' AND r.rentalStartDay > :after")
+    List<Object[]> findBookingsAfter(LocalDate after);
+
+    @Query("SELECT r.assignedAccount.steamAccountId, r.requestId, r.rentalStartDay FROM SteamAccountRequest r " +
+            "WHERE r.status = 'ASSIGNED' AND r.rentalStartDay > :after AND r.assignedAccount.steamAccountId IN :accountIds")
+    List<Object[]> findBookingsAfter(LocalDate after, Collection<Integer> accountIds);
+
+    @Modifying
+    @Query("UPDATE SteamAccountRequest r SET r.assignedAccount = NULL WHERE r.assignedAccount.steamAccountId = :accountId")
+    int detachAccount(Integer accountId);
+}
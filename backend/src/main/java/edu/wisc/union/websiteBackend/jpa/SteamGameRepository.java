@@ -0,0 +1,14 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface SteamGameRepository extends JpaRepository<SteamGame, String> {
+    /**
+     * Games whose platforms have never been looked up.
+     */
+    @Query("SELECT g.id FROM SteamGame g WHERE g.windows IS NULL AND g.macos IS NULL AND g.linux IS NULL ORDER BY g.id")
+    List<String> findIdsWithoutPlatforms();
+}
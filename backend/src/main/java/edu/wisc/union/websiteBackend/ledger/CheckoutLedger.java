@@ -0,0 +1,306 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import edu.wisc.union.websiteBackend.cluster.ClusterProperties;
+import edu.wisc.union.websiteBackend.controllers.audit.AuditEvent;
+import edu.wisc.union.websiteBackend.controllers.holds.GameHoldService;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameCheckout;
+import edu.wisc.union.websiteBackend.jpa.BoardGameCheckoutRepository;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Event-sourced record of every checkout and return, kept in a {@link LedgerStore} next to the database,
+ * from which the {@link CheckoutProjection} answers availability and game night questions in memory, for
+ * now or for any point in the past, and the {@link TurnoverProjection} how long copies stay out.
+ * <p>
+ * The database stays the system of record for writes; the ledger follows it through the {@link AuditEvent}s
+ * and {@link StockChangedEvent}s of each change, appended just before it commits while the game's row is
+ * still locked, and a game whose change rolls back after all is read again. Before the server takes requests,
+ * the ledger is reconciled with the database: games whose stock differs get a STOCK record and daily checkout
+ * counts that differ a HISTORY record. On the first start that imports the whole catalog and checkout history;
+ * later it makes up for events lost in a crash.
+ */
+@Slf4j
+@Component
+public class CheckoutLedger implements SmartInitializingSingleton, DisposableBean {
+    private final LedgerProperties properties;
+    private final boolean active;
+    private final BoardGameRepository boardGameRepository;
+    private final BoardGameCheckoutRepository boardGameCheckoutRepository;
+    private final GameHoldService gameHoldService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate resyncTemplate;
+    private final CheckoutProjection checkouts = new CheckoutProjection();
+    private final TurnoverProjection turnover = new TurnoverProjection();
+    private final ExecutorService snapshots = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ledger-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+    private volatile long snapshotSequence;
+    private LedgerStore store;
+
+    public CheckoutLedger(LedgerProperties properties, ClusterProperties clusterProperties,
+                          BoardGameRepository boardGameRepository,
+                          BoardGameCheckoutRepository boardGameCheckoutRepository,
+                          GameHoldService gameHoldService, TransactionTemplate transactionTemplate) {
+        this.properties = properties;
+        this.active = properties.isEnabled() && !clusterProperties.isEnabled();
+        this.boardGameRepository = boardGameRepository;
+        this.boardGameCheckoutRepository = boardGameCheckoutRepository;
+        this.gameHoldService = gameHoldService;
+        this.transactionTemplate = transactionTemplate;
+        // Runs after a rollback, when the rolled back transaction's resources may still be bound
+        this.resyncTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.resyncTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!active) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            store = LedgerStore.open(Paths.get(properties.getDirectory()), properties.getSegmentRecords(),
+                    List.of(checkouts, turnover));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the checkout ledger in " + properties.getDirectory(), e);
+        }
+        snapshotSequence = store.snapshotSequence();
+        log.info("Checkout ledger at record {}: replayed {} records after snapshot {} in {} ms",
+                store.lastSequence(), store.replayed(), store.snapshotSequence(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        transactionTemplate.executeWithoutResult(status -> reconcile());
+        maybeSnapshot();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * The projection as of the latest record.
+     */
+    public CheckoutProjection checkouts() {
+        return checkouts;
+    }
+
+    /**
+     * Time out and activity per night, as of the latest record.
+     */
+    public TurnoverProjection turnover() {
+        return turnover;
+    }
+
+    /**
+     * The projection as it stood at {@code at}.
+     */
+    public CheckoutProjection checkoutsAt(Instant at) throws IOException {
+        return store.project(new CheckoutProjection(), at.toEpochMilli());
+    }
+
+    public long lastSequence() {
+        return store == null ? 0 : store.lastSequence();
+    }
+
+    // Before the commit, so records land in the order the game's row lock was taken
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAudit(AuditEvent event) {
+        if (store == null || event.gameId() == null) {
+            return;
+        }
+        long gameId = event.gameId();
+        try {
+            switch (event.action()) {
+                case CHECKOUT -> store.append(LedgerRecord.Type.CHECKOUT, gameId, event.quantity(), 0);
+                case RETURN, RETURN_ALL -> {
+                    if (event.quantity() != null && event.quantity() > 0) {
+                        store.append(LedgerRecord.Type.RETURN, gameId, event.quantity(), 0);
+                    }
+                }
+                case DELETE -> store.append(LedgerRecord.Type.REMOVE, gameId, 0, 0);
+                // Their stock comes with a StockChangedEvent
+                case ADD, IMPORT, UPDATE, PATCH -> {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Cannot append {} to the checkout ledger", event, e);
+            return;
+        }
+        maybeSnapshot();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.append(LedgerRecord.Type.STOCK, event.gameId(), event.copiesOut(), event.quantity());
+        } catch (IOException e) {
+            log.error("Cannot append {} to the checkout ledger", event, e);
+            return;
+        }
+        maybeSnapshot();
+    }
+
+    // A transaction can still roll back after its records were appended, e.g. when its flush fails
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onAuditRolledBack(AuditEvent event) {
+        if (store != null && event.gameId() != null) {
+            resync(event.gameId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onStockRolledBack(StockChangedEvent event) {
+        if (store != null) {
+            resync(event.gameId());
+        }
+    }
+
+    /**
+     * Brings one game's stock and tonight's checkout count back in line with the database, under the game's
+     * row lock so that no checkout or return of it is appended in between.
+     */
+    private void resync(long gameId) {
+        LocalDate tonight = LocalDate.now(LedgerRecord.GAME_NIGHT_ZONE);
+        try {
+            resyncTemplate.executeWithoutResult(status -> {
+                BoardGame game = boardGameRepository.findAllByIdForUpdate(List.of(gameId)).stream()
+                        .findFirst().orElse(null);
+                try {
+                    if (game == null) {
+                        if (checkouts.stock().containsKey(gameId)) {
+                            store.append(LedgerRecord.Type.REMOVE, gameId, 0, 0);
+                        }
+                        return;
+                    }
+                    StockChangedEvent stock = StockChangedEvent.of(game, gameHoldService.readyCopies(gameId));
+                    if (!new CheckoutProjection.GameStock(stock.quantity(), stock.copiesOut())
+                            .equals(checkouts.stock().get(gameId))) {
+                        store.append(LedgerRecord.Type.STOCK, gameId, stock.copiesOut(), stock.quantity());
+                    }
+                    int counted = boardGameCheckoutRepository
+                            .findById(new BoardGameCheckout.BoardGameCheckoutKey(game, tonight))
+                            .map(BoardGameCheckout::getCount).orElse(0);
+                    int difference = counted - checkouts.checkouts(gameId, tonight);
+                    if (difference != 0) {
+                        store.append(LedgerRecord.Type.HISTORY, gameId, difference, (int) tonight.toEpochDay());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Cannot bring game {} in the checkout ledger back in line after a rollback", gameId, e);
+        }
+    }
+
+    private void reconcile() {
+        List<BoardGame> games = boardGameRepository.findAll();
+        Map<Long, Integer> ready = gameHoldService.readyCopies(games.stream().map(BoardGame::getId).toList());
+        Map<Long, CheckoutProjection.GameStock> known = checkouts.stock();
+        Set<Long> removed = new HashSet<>(known.keySet());
+        List<StockChangedEvent> restocked = new ArrayList<>();
+        int history = 0;
+        for (BoardGame game : games) {
+            removed.remove(game.getId());
+            StockChangedEvent expected = StockChangedEvent.of(game, ready.getOrDefault(game.getId(), 0));
+            if (!new CheckoutProjection.GameStock(expected.quantity(), expected.copiesOut())
+                    .equals(known.get(game.getId()))) {
+                restocked.add(expected);
+            }
+        }
+        try {
+            for (StockChangedEvent expected : restocked) {
+                store.append(LedgerRecord.Type.STOCK, expected.gameId(), expected.copiesOut(), expected.quantity());
+            }
+            for (Long gameId : removed) {
+                store.append(LedgerRecord.Type.REMOVE, gameId, 0, 0);
+            }
+            // Counts the database doesn't have, e.g. after it was restored from a backup, are taken back
+            Map<LocalDate, Map<Long, Integer>> counted = new HashMap<>();
+            for (BoardGameCheckout row : boardGameCheckoutRepository.findAll()) {
+                counted.computeIfAbsent(row.getKey().getDate(), night -> new HashMap<>())
+                        .put(row.getKey().getBoardGame().getId(), row.getCount());
+            }
+            for (Map.Entry<LocalDate, Map<Long, Integer>> night : checkouts.nights(null, null).entrySet()) {
+                for (Long gameId : night.getValue().keySet()) {
+                    counted.computeIfAbsent(night.getKey(), key -> new HashMap<>()).putIfAbsent(gameId, 0);
+                }
+            }
+            for (Map.Entry<LocalDate, Map<Long, Integer>> night : counted.entrySet()) {
+                for (Map.Entry<Long, Integer> count : night.getValue().entrySet()) {
+                    int difference = count.getValue() - checkouts.checkouts(count.getKey(), night.getKey());
+                    if (difference != 0) {
+                        store.append(LedgerRecord.Type.HISTORY, count.getKey(), difference,
+                                (int) night.getKey().toEpochDay());
+                        history++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (restocked.size() + history + removed.size() > 0) {
+            log.info("Reconciled the checkout ledger with the database: {} games restocked, {} removed, {} daily "
+                    + "checkout counts caught up", restocked.size(), removed.size(), history);
+        }
+    }
+
+    private void maybeSnapshot() {
+        if (store.lastSequence() - snapshotSequence >= properties.getSnapshotEvery()
+                && snapshotPending.compareAndSet(false, true)) {
+            snapshots.execute(() -> {
+                try {
+                    snapshotSequence = store.snapshot(properties.getSnapshotsKept());
+                } catch (IOException e) {
+                    log.error("Cannot write a checkout ledger snapshot", e);
+                } finally {
+                    snapshotPending.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        snapshots.shutdown();
+        snapshots.awaitTermination(10, TimeUnit.SECONDS);
+        if (store != null) {
+            // Spares the next start the replay
+            if (store.lastSequence() > snapshotSequence) {
+                store.snapshot(properties.getSnapshotsKept());
+            }
+            store.close();
+        }
+    }
+}
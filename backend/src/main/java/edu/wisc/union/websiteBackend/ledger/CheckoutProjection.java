@@ -0,0 +1,134 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Copies out per game and checkouts per game and night, the two things the {@code board_games} availability
+ * columns and the {@code board_game_checkout} table record, rebuilt from the ledger.
+ * <p>
+ * Copies set aside for a hold count as returned: they come back with a RETURN and go out again with the
+ * CHECKOUT of the pickup.
+ */
+public class CheckoutProjection implements LedgerProjection {
+
+    /**
+     * @param quantity  copies the game has, as last reported by the database
+     * @param copiesOut copies with guests
+     */
+    public record GameStock(int quantity, int copiesOut) {
+    }
+
+    private final ConcurrentHashMap<Long, GameStock> stock = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, Integer>> nights = new ConcurrentSkipListMap<>();
+
+    @Override
+    public String name() {
+        return "checkouts";
+    }
+
+    @Override
+    public void apply(LedgerRecord record) {
+        long gameId = record.gameId();
+        switch (record.type()) {
+            case CHECKOUT -> {
+                stock.merge(gameId, new GameStock(0, record.copies()),
+                        (current, added) -> new GameStock(current.quantity(), current.copiesOut() + record.copies()));
+                countCheckouts(record.night(), gameId, record.copies());
+            }
+            case RETURN -> stock.computeIfPresent(gameId, (id, current) ->
+                    new GameStock(current.quantity(), Math.max(0, current.copiesOut() - record.copies())));
+            case STOCK -> stock.put(gameId, new GameStock(record.value(), record.copies()));
+            case HISTORY -> countCheckouts(record.night(), gameId, record.copies());
+            case REMOVE -> {
+                stock.remove(gameId);
+                nights.values().forEach(counts -> counts.remove(gameId));
+                nights.values().removeIf(Map::isEmpty);
+            }
+        }
+    }
+
+    // A HISTORY record may take checkouts back, down to none
+    private void countCheckouts(LocalDate night, long gameId, int copies) {
+        ConcurrentHashMap<Long, Integer> counts = nights.computeIfAbsent(night, key -> new ConcurrentHashMap<>());
+        counts.compute(gameId, (id, current) -> {
+            int total = (current == null ? 0 : current) + copies;
+            return total > 0 ? total : null;
+        });
+        if (counts.isEmpty()) {
+            nights.remove(night, counts);
+        }
+    }
+
+    /**
+     * Every game the ledger knows of, by id.
+     */
+    public Map<Long, GameStock> stock() {
+        return Collections.unmodifiableMap(stock);
+    }
+
+    /**
+     * Checkouts per game on each night from {@code from} to {@code to}, both included and either open.
+     */
+    public NavigableMap<LocalDate, Map<Long, Integer>> nights(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, ConcurrentHashMap<Long, Integer>> range = nights;
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+        return Collections.unmodifiableNavigableMap(range);
+    }
+
+    public int checkouts(long gameId, LocalDate night) {
+        Map<Long, Integer> counts = nights.get(night);
+        return counts == null ? 0 : counts.getOrDefault(gameId, 0);
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(stock.size());
+        for (Map.Entry<Long, GameStock> entry : stock.entrySet()) {
+            out.writeLong(entry.getKey());
+            out.writeInt(entry.getValue().quantity());
+            out.writeInt(entry.getValue().copiesOut());
+        }
+        out.writeInt(nights.size());
+        for (Map.Entry<LocalDate, ConcurrentHashMap<Long, Integer>> night : nights.entrySet()) {
+            out.writeLong(night.getKey().toEpochDay());
+            out.writeInt(night.getValue().size());
+            for (Map.Entry<Long, Integer> count : night.getValue().entrySet()) {
+                out.writeLong(count.getKey());
+                out.writeInt(count.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        stock.clear();
+        nights.clear();
+        int games = in.readInt();
+        for (int i = 0; i < games; i++) {
+            stock.put(in.readLong(), new GameStock(in.readInt(), in.readInt()));
+        }
+        int nightCount = in.readInt();
+        for (int i = 0; i < nightCount; i++) {
+            LocalDate night = LocalDate.ofEpochDay(in.readLong());
+            int size = in.readInt();
+            ConcurrentHashMap<Long, Integer> counts = new ConcurrentHashMap<>(size * 2);
+            for (int j = 0; j < size; j++) {
+                counts.put(in.readLong(), in.readInt());
+            }
+            nights.put(night, counts);
+        }
+    }
+}
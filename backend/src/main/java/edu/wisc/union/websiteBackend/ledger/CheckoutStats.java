@@ -0,0 +1,280 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import edu.wisc.union.websiteBackend.cluster.CatalogChangedEvent;
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+import edu.wisc.union.websiteBackend.jpa.BoardGameRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The game night stats of {@code /api/games/stats}, computed from the {@link CheckoutProjection} instead of
+ * aggregating {@code board_game_checkout} in SQL, and the turnover stats from the {@link TurnoverProjection}.
+ * The few game columns the stats need are kept alongside and reloaded, from the second-level cache where
+ * possible, when a {@link CatalogChangedEvent} names the game.
+ */
+@Component
+public class CheckoutStats {
+
+    private record GameFacts(String name, Double players, Double playtime, Integer availableCopies) {
+
+        static GameFacts of(BoardGame game) {
+            return new GameFacts(game.getName(), middle(game.getMinPlayerCount(), game.getMaxPlayerCount()),
+                    middle(game.getMinPlaytime(), game.getMaxPlaytime()), game.getAvailableCopies());
+        }
+
+        private static Double middle(Integer min, Integer max) {
+            return min == null || max == null ? null : (min + max) / 2.0;
+        }
+    }
+
+    private final CheckoutLedger ledger;
+    private final BoardGameRepository boardGameRepository;
+    private final ConcurrentHashMap<Long, GameFacts> facts = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private volatile boolean complete;
+
+    public CheckoutStats(CheckoutLedger ledger, BoardGameRepository boardGameRepository) {
+        this.ledger = ledger;
+        this.boardGameRepository = boardGameRepository;
+    }
+
+    public boolean isActive() {
+        return ledger.isActive();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.entity() != CatalogChangedEvent.Entity.BOARD_GAME) {
+            return;
+        }
+        if (event.allRows()) {
+            complete = false;
+        } else {
+            stale.addAll(event.ids());
+        }
+    }
+
+    /**
+     * The stats over the nights from {@code startDate} to {@code endDate}, both included and either open,
+     * under the same keys and with the same values as the SQL version.
+     */
+    public Map<String, Object> stats(LocalDate startDate, LocalDate endDate) {
+        Map<Long, GameFacts> games = facts();
+        Map<Long, Integer> perGame = new HashMap<>();
+        LocalDate bestNight = null;
+        int bestNightCheckouts = -1;
+        int rows = 0;
+        int total = 0;
+        Averager players = new Averager();
+        Averager playtime = new Averager();
+        for (Map.Entry<LocalDate, Map<Long, Integer>> night : ledger.checkouts().nights(startDate, endDate).entrySet()) {
+            int nightCheckouts = 0;
+            for (Map.Entry<Long, Integer> count : night.getValue().entrySet()) {
+                rows++;
+                nightCheckouts += count.getValue();
+                perGame.merge(count.getKey(), count.getValue(), Integer::sum);
+                GameFacts game = games.get(count.getKey());
+                if (game != null) {
+                    players.add(game.players());
+                    playtime.add(game.playtime());
+                }
+            }
+            total += nightCheckouts;
+            if (nightCheckouts > bestNightCheckouts) {
+                bestNight = night.getKey();
+                bestNightCheckouts = nightCheckouts;
+            }
+        }
+
+        Object mostPopularGameId = "N/A";
+        Object mostPopularGameName = "No data available";
+        Long bestGame = perGame.entrySet().stream()
+                .max(Map.Entry.<Long, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey((a, b) -> Long.compare(b, a))))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        if (bestGame != null) {
+            mostPopularGameId = bestGame;
+            GameFacts game = games.get(bestGame);
+            mostPopularGameName = game == null ? null : game.name();
+        }
+        int totalAvailableCopies = games.values().stream()
+                .map(GameFacts::availableCopies)
+                .filter(copies -> copies != null)
+                .mapToInt(Integer::intValue)
+                .sum();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("mostPopularGameId", mostPopularGameId);
+        stats.put("mostPopularGameName", mostPopularGameName);
+        stats.put("averageGamesCheckout", rows == 0 ? 0.0 : (double) total / rows);
+        stats.put("mostPopularGameNight", bestNight == null ? "N/A" : bestNight);
+        stats.put("totalCheckouts", total);
+        stats.put("averagePlayersPerGame", players.average());
+        stats.put("averagePlaytimePerGame", playtime.average());
+        stats.put("totalAvailableCopies", totalAvailableCopies);
+        return stats;
+    }
+
+    /**
+     * @param averageMinutesOut null if no copy checked out in the period has come back
+     * @param nightsAllOut      nights on which every copy was out at once
+     */
+    public record GameTurnover(Long id, String name, int quantity, int checkouts, int returns,
+                               Double averageMinutesOut, int peakCopiesOut, int nightsAllOut) {
+    }
+
+    /**
+     * @param utilization     average share of the copies out while the night was running
+     * @param peakUtilization share of the copies out at the peak
+     */
+    public record NightUtilization(LocalDate night, int checkouts, int copies, int peakCopiesOut, Instant peakAt,
+                                   double utilization, double peakUtilization) {
+    }
+
+    public record ShelfGame(Long id, String name, int quantity) {
+    }
+
+    /**
+     * @param games           games checked out in the period, those most often all out first
+     * @param peak            the night with the most copies out at once, null if there was none
+     * @param neverCheckedOut games with copies that were not checked out in the period
+     */
+    public record Turnover(List<GameTurnover> games, List<NightUtilization> nights, NightUtilization peak,
+                           List<ShelfGame> neverCheckedOut) {
+    }
+
+    /**
+     * Time out per game, utilization per night and games left on the shelf over the nights from
+     * {@code startDate} to {@code endDate}, both included and either open. Times only cover checkouts and
+     * returns the ledger saw; checkouts imported from the daily counts are counted but not timed.
+     */
+    public Turnover turnover(LocalDate startDate, LocalDate endDate) {
+        Map<Long, GameFacts> games = facts();
+        Map<Long, CheckoutProjection.GameStock> stock = ledger.checkouts().stock();
+        Map<Long, Integer> checkouts = new HashMap<>();
+        ledger.checkouts().nights(startDate, endDate).values().forEach(night ->
+                night.forEach((gameId, count) -> checkouts.merge(gameId, count, Integer::sum)));
+
+        Map<Long, GameTotals> timed = new HashMap<>();
+        for (Map<Long, TurnoverProjection.GameNight> night : ledger.turnover().gameNights(startDate, endDate).values()) {
+            night.forEach((gameId, game) -> {
+                CheckoutProjection.GameStock current = stock.get(gameId);
+                timed.computeIfAbsent(gameId, id -> new GameTotals())
+                        .add(game, current != null && current.quantity() > 0 && game.peakCopiesOut() >= current.quantity());
+            });
+        }
+
+        List<GameTurnover> played = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : checkouts.entrySet()) {
+            Long gameId = entry.getKey();
+            GameTotals totals = timed.getOrDefault(gameId, new GameTotals());
+            GameFacts game = games.get(gameId);
+            CheckoutProjection.GameStock current = stock.get(gameId);
+            played.add(new GameTurnover(gameId, game == null ? null : game.name(),
+                    current == null ? 0 : current.quantity(), entry.getValue(), totals.returns,
+                    totals.returns == 0 ? null : totals.millisOut / (double) totals.returns / 60_000,
+                    totals.peakCopiesOut, totals.nightsAllOut));
+        }
+        played.sort(Comparator.comparingInt(GameTurnover::nightsAllOut).reversed()
+                .thenComparing(Comparator.comparingInt(GameTurnover::checkouts).reversed())
+                .thenComparing(GameTurnover::id));
+
+        List<NightUtilization> nights = new ArrayList<>();
+        NightUtilization peak = null;
+        for (Map.Entry<LocalDate, TurnoverProjection.NightTurnover> entry
+                : ledger.turnover().nights(startDate, endDate).entrySet()) {
+            TurnoverProjection.NightTurnover night = entry.getValue();
+            NightUtilization utilization = new NightUtilization(entry.getKey(), night.checkouts(), night.copies(),
+                    night.peakCopiesOut(), Instant.ofEpochMilli(night.peakAt()), night.utilization(),
+                    night.copies() == 0 ? 0 : (double) night.peakCopiesOut() / night.copies());
+            nights.add(utilization);
+            if (peak == null || utilization.peakCopiesOut() > peak.peakCopiesOut()) {
+                peak = utilization;
+            }
+        }
+
+        List<ShelfGame> neverCheckedOut = new ArrayList<>();
+        stock.forEach((gameId, current) -> {
+            if (current.quantity() > 0 && !checkouts.containsKey(gameId)) {
+                GameFacts game = games.get(gameId);
+                neverCheckedOut.add(new ShelfGame(gameId, game == null ? null : game.name(), current.quantity()));
+            }
+        });
+        neverCheckedOut.sort(Comparator.comparing(ShelfGame::id));
+        return new Turnover(played, nights, peak, neverCheckedOut);
+    }
+
+    // A write during a reload marks its game again, so the next call reloads it once more
+    private Map<Long, GameFacts> facts() {
+        if (!complete) {
+            synchronized (this) {
+                if (!complete) {
+                    complete = true;
+                    stale.clear();
+                    try {
+                        Map<Long, GameFacts> loaded = new HashMap<>();
+                        boardGameRepository.findAll().forEach(game -> loaded.put(game.getId(), GameFacts.of(game)));
+                        facts.keySet().retainAll(loaded.keySet());
+                        facts.putAll(loaded);
+                    } catch (RuntimeException e) {
+                        complete = false;
+                        throw e;
+                    }
+                }
+            }
+        } else if (!stale.isEmpty()) {
+            List<Long> ids = new ArrayList<>(stale);
+            stale.removeAll(ids);
+            Set<Long> missing = new HashSet<>(ids);
+            for (BoardGame game : boardGameRepository.findAllByIdFromCache(ids)) {
+                facts.put(game.getId(), GameFacts.of(game));
+                missing.remove(game.getId());
+            }
+            missing.forEach(facts::remove);
+        }
+        return facts;
+    }
+
+    private static final class GameTotals {
+        private int returns;
+        private long millisOut;
+        private int peakCopiesOut;
+        private int nightsAllOut;
+
+        void add(TurnoverProjection.GameNight night, boolean allOut) {
+            returns += night.returns();
+            millisOut += night.millisOut();
+            peakCopiesOut = Math.max(peakCopiesOut, night.peakCopiesOut());
+            if (allOut) {
+                nightsAllOut++;
+            }
+        }
+    }
+
+    private static final class Averager {
+        private double sum;
+        private int count;
+
+        void add(Double value) {
+            if (value != null) {
+                sum += value;
+                count++;
+            }
+        }
+
+        double average() {
+            return count == 0 ? 0.0 : sum / count;
+        }
+    }
+}
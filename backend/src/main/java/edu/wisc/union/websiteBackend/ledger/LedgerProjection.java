@@ -0,0 +1,30 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * State derived from the {@link LedgerStore} by applying its records in order. The store applies every
+ * record as it is appended, under its write lock; readers may look at the state at any time, so it must be
+ * safe to read while a record is being applied.
+ */
+public interface LedgerProjection {
+
+    /**
+     * Names the projection's part of a snapshot; a snapshot without it is not used.
+     */
+    String name();
+
+    void apply(LedgerRecord record);
+
+    /**
+     * Write the whole state, for a snapshot. Called with no record being applied.
+     */
+    void write(DataOutput out) throws IOException;
+
+    /**
+     * Replace the state with one written by {@link #write}.
+     */
+    void read(DataInput in) throws IOException;
+}
@@ -0,0 +1,32 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ledger")
+@Data
+public class LedgerProperties {
+    /**
+     * Keep the checkout ledger and answer the game night stats from it; see {@link CheckoutLedger}. Has no
+     * effect in cluster mode, where each node would only see its own checkouts.
+     */
+    private boolean enabled = true;
+    /**
+     * Where the segments and snapshots are kept.
+     */
+    private String directory = "data/ledger";
+    /**
+     * Records per segment file, 40 bytes each.
+     */
+    private int segmentRecords = 1 << 18;
+    /**
+     * Take a snapshot of the projections after this many new records, so a restart only replays the rest.
+     */
+    private int snapshotEvery = 10_000;
+    /**
+     * Snapshots kept; older ones still serve point-in-time queries for their period.
+     */
+    private int snapshotsKept = 3;
+}
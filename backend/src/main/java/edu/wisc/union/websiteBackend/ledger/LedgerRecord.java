@@ -0,0 +1,95 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.zip.CRC32C;
+
+/**
+ * One event of the {@link LedgerStore}, stored as a fixed-size record so that its position in a segment follows
+ * from its sequence number.
+ * <pre>
+ * sequence(8) at(8, epoch millis) gameId(8) type(4) copies(4) value(4) CRC32C of the rest(4)
+ * </pre>
+ *
+ * @param copies CHECKOUT and RETURN: the copies that went out or came back; STOCK: copies out;
+ *               HISTORY: checkouts added to the night, or taken back if negative
+ * @param value  STOCK: the game's quantity; HISTORY: the night, as an epoch day; otherwise 0
+ */
+public record LedgerRecord(long sequence, long at, Type type, long gameId, int copies, int value) {
+    public static final int SIZE = 40;
+
+    /**
+     * Checkouts count towards the game night they happen on, in the venue's time zone.
+     */
+    public static final ZoneId GAME_NIGHT_ZONE = ZoneId.of("America/Chicago");
+
+    public enum Type {
+        /** Copies handed to guests. */
+        CHECKOUT,
+        /** Copies back from guests, whether they go on the shelf or to a hold. */
+        RETURN,
+        /** The game's quantity and copies out as the database has them, replacing what the ledger had. */
+        STOCK,
+        /**
+         * A correction to a past night's checkouts: ones the ledger never saw, e.g. from before it existed, or
+         * with negative copies, ones the database no longer has.
+         */
+        HISTORY,
+        /** The game was deleted, along with its checkout history. */
+        REMOVE
+    }
+
+    private static final Type[] TYPES = Type.values();
+
+    public Instant instant() {
+        return Instant.ofEpochMilli(at);
+    }
+
+    /**
+     * The game night the record belongs to: the one it corrects for HISTORY, otherwise the one it happened on.
+     */
+    public LocalDate night() {
+        return type == Type.HISTORY ? LocalDate.ofEpochDay(value) : nightOf(at);
+    }
+
+    /**
+     * The game night of a time in epoch millis.
+     */
+    public static LocalDate nightOf(long at) {
+        return Instant.ofEpochMilli(at).atZone(GAME_NIGHT_ZONE).toLocalDate();
+    }
+
+    void write(ByteBuffer buffer, int offset) {
+        buffer.putLong(offset, sequence);
+        buffer.putLong(offset + 8, at);
+        buffer.putLong(offset + 16, gameId);
+        buffer.putInt(offset + 24, type.ordinal());
+        buffer.putInt(offset + 28, copies);
+        buffer.putInt(offset + 32, value);
+        buffer.putInt(offset + 36, checksum(buffer, offset));
+    }
+
+    /**
+     * @return the record at {@code offset}, or null if the slot is empty or was torn by a crash
+     */
+    static LedgerRecord read(ByteBuffer buffer, int offset) {
+        long sequence = buffer.getLong(offset);
+        if (sequence <= 0 || buffer.getInt(offset + 36) != checksum(buffer, offset)) {
+            return null;
+        }
+        int type = buffer.getInt(offset + 24);
+        if (type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        return new LedgerRecord(sequence, buffer.getLong(offset + 8), TYPES[type], buffer.getLong(offset + 16),
+                buffer.getInt(offset + 28), buffer.getInt(offset + 32));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, SIZE - 4));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,218 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of {@code capacity} fixed-size {@link LedgerRecord} slots, memory-mapped whole and filled in order,
+ * with a sparse time index beside it.
+ * <p>
+ * The data file starts with a header: {@code "WUDL"}, the format version and the sequence number of the
+ * first slot. The index file holds the sequence number and time of every {@value #INDEX_INTERVAL}th record,
+ * so finding where a point in time falls takes a binary search over the index and a short scan, not a pass
+ * over the segment. The index is only a shortcut: entries missing after a crash are rebuilt from the records
+ * when the segment is opened.
+ */
+final class LedgerSegment implements Closeable {
+    static final int INDEX_INTERVAL = 256;
+    private static final int MAGIC = 0x5755444C; // "WUDL"
+    private static final int VERSION = 1;
+    private static final int HEADER = 32;
+    private static final int INDEX_ENTRY = 16;
+
+    private final long firstSequence;
+    private final int capacity;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private int count;
+
+    private LedgerSegment(long firstSequence, int capacity, MappedByteBuffer data, MappedByteBuffer index) {
+        this.firstSequence = firstSequence;
+        this.capacity = capacity;
+        this.data = data;
+        this.index = index;
+    }
+
+    static Path dataFile(Path directory, long firstSequence) {
+        return directory.resolve(String.format("ledger-%012d.dat", firstSequence));
+    }
+
+    static LedgerSegment create(Path directory, long firstSequence, int capacity) throws IOException {
+        Path path = dataFile(directory, firstSequence);
+        MappedByteBuffer data = map(path, HEADER + (long) capacity * LedgerRecord.SIZE);
+        data.putInt(0, MAGIC);
+        data.putInt(4, VERSION);
+        data.putLong(8, firstSequence);
+        data.putInt(16, capacity);
+        LedgerSegment segment = new LedgerSegment(firstSequence, capacity, data, map(indexFile(path), indexSize(capacity)));
+        segment.force();
+        return segment;
+    }
+
+    /**
+     * Open an existing segment, counting its records up to the first empty or torn slot.
+     */
+    static LedgerSegment open(Path path) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            data = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+        if (data.capacity() < HEADER || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a ledger segment: " + path);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported ledger segment version " + data.getInt(4) + ": " + path);
+        }
+        long firstSequence = data.getLong(8);
+        int capacity = data.getInt(16);
+        if (data.capacity() != HEADER + (long) capacity * LedgerRecord.SIZE) {
+            throw new IOException("Ledger segment has the wrong size: " + path);
+        }
+        LedgerSegment segment = new LedgerSegment(firstSequence, capacity, data,
+                map(indexFile(path), indexSize(capacity)));
+
+        // A full segment was sealed before the next one was started; only the last one needs counting
+        LedgerRecord last = segment.slot(capacity - 1);
+        if (last != null && last.sequence() == firstSequence + capacity - 1) {
+            segment.count = capacity;
+        } else {
+            while (segment.count < capacity) {
+                LedgerRecord record = segment.slot(segment.count);
+                if (record == null || record.sequence() != firstSequence + segment.count) {
+                    break;
+                }
+                segment.count++;
+            }
+        }
+        segment.repairIndex();
+        return segment;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    /**
+     * Sequence number of the last record, or one before the first if there is none yet.
+     */
+    long lastSequence() {
+        return firstSequence + count - 1;
+    }
+
+    int count() {
+        return count;
+    }
+
+    boolean isFull() {
+        return count == capacity;
+    }
+
+    void append(LedgerRecord record) {
+        if (record.sequence() != firstSequence + count) {
+            throw new IllegalArgumentException("Expected record " + (firstSequence + count) + ", got " + record.sequence());
+        }
+        record.write(data, offset(count));
+        if (count % INDEX_INTERVAL == 0) {
+            writeIndexEntry(count / INDEX_INTERVAL, record);
+        }
+        count++;
+    }
+
+    LedgerRecord get(int position) {
+        if (position < 0 || position >= count) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return slot(position);
+    }
+
+    /**
+     * Position of the first record after {@code at}, or {@link #count()} if there is none.
+     */
+    int firstAfter(long at) {
+        int low = 0;
+        int high = (count - 1) / INDEX_INTERVAL;
+        if (count == 0 || index.getLong(8) > at) {
+            return 0;
+        }
+        // Last indexed record at or before the time
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (index.getLong(mid * INDEX_ENTRY + 8) <= at) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int position = low * INDEX_INTERVAL;
+        while (position < count && data.getLong(offset(position) + 8) <= at) {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * Write the records through to the disk.
+     */
+    void force() {
+        data.force();
+        index.force();
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private LedgerRecord slot(int position) {
+        return LedgerRecord.read(data, offset(position));
+    }
+
+    private void repairIndex() {
+        for (int entry = 0; entry * INDEX_INTERVAL < count; entry++) {
+            LedgerRecord record = slot(entry * INDEX_INTERVAL);
+            if (record == null) {
+                break;
+            }
+            if (index.getLong(entry * INDEX_ENTRY) != record.sequence()
+                    || index.getLong(entry * INDEX_ENTRY + 8) != record.at()) {
+                writeIndexEntry(entry, record);
+            }
+        }
+    }
+
+    private void writeIndexEntry(int entry, LedgerRecord record) {
+        index.putLong(entry * INDEX_ENTRY, record.sequence());
+        index.putLong(entry * INDEX_ENTRY + 8, record.at());
+    }
+
+    private static int offset(int position) {
+        return HEADER + position * LedgerRecord.SIZE;
+    }
+
+    private static long indexSize(int capacity) {
+        return (long) ((capacity + INDEX_INTERVAL - 1) / INDEX_INTERVAL) * INDEX_ENTRY;
+    }
+
+    private static Path indexFile(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(name.substring(0, name.length() - ".dat".length()) + ".idx");
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            if (channel.size() > size) {
+                channel.truncate(size);
+            } else if (channel.size() < size) {
+                // Extends a new or short file with zeros
+                channel.write(ByteBuffer.allocate(1), size - 1);
+            }
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of {@link LedgerRecord}s in {@link LedgerSegment}s, feeding a fixed set of
+ * {@link LedgerProjection}s. Independent of Spring, so it can be benchmarked on its own.
+ * <p>
+ * Opening the store reads the latest usable snapshot into the projections and replays only the records
+ * after it. A snapshot is one file holding the sequence number and time it was taken at and each projection's
+ * state under its name; it ends with a CRC32C and is written under a temporary name first, so a snapshot
+ * that exists is complete. Records are forced to disk before a snapshot that includes them is written.
+ */
+public final class LedgerStore implements Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x57554453; // "WUDS"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final List<LedgerProjection> projections;
+
+    // Guarded by this
+    private final List<LedgerSegment> segments = new ArrayList<>();
+    private volatile long lastSequence;
+    private long lastAt;
+
+    private long snapshotSequence;
+    private int replayed;
+
+    private LedgerStore(Path directory, int segmentRecords, List<LedgerProjection> projections) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.projections = List.copyOf(projections);
+    }
+
+    /**
+     * Open the store in {@code directory}, creating it if needed, and bring the projections up to date.
+     *
+     * @param segmentRecords records per new segment
+     */
+    public static LedgerStore open(Path directory, int segmentRecords, List<LedgerProjection> projections)
+            throws IOException {
+        if (segmentRecords < LedgerSegment.INDEX_INTERVAL) {
+            throw new IllegalArgumentException("A segment needs room for at least " + LedgerSegment.INDEX_INTERVAL + " records");
+        }
+        Files.createDirectories(directory);
+        LedgerStore store = new LedgerStore(directory, segmentRecords, projections);
+        store.openSegments();
+        store.restore();
+        return store;
+    }
+
+    private void openSegments() throws IOException {
+        for (Path path : list("ledger-", ".dat")) {
+            LedgerSegment segment = LedgerSegment.open(path);
+            if (segment.firstSequence() != lastSequence + 1) {
+                throw new IOException("Ledger segment " + path + " starts at " + segment.firstSequence()
+                        + " but the ledger ends at " + lastSequence);
+            }
+            if (!segments.isEmpty() && !segments.get(segments.size() - 1).isFull()) {
+                throw new IOException("Ledger segment " + path + " follows one that was never filled");
+            }
+            segments.add(segment);
+            lastSequence = segment.lastSequence();
+            if (segment.count() > 0) {
+                lastAt = segment.get(segment.count() - 1).at();
+            }
+        }
+    }
+
+    private void restore() throws IOException {
+        Snapshot snapshot = latestSnapshot(Long.MAX_VALUE, projections);
+        if (snapshot != null) {
+            for (LedgerProjection projection : projections) {
+                projection.read(snapshot.section(projection.name()));
+            }
+            snapshotSequence = snapshot.sequence;
+        }
+        replay(snapshotSequence + 1, Long.MAX_VALUE, record -> {
+            projections.forEach(projection -> projection.apply(record));
+            replayed++;
+        });
+    }
+
+    /**
+     * Append a record and apply it to the projections.
+     */
+    public synchronized LedgerRecord append(LedgerRecord.Type type, long gameId, int copies, int value)
+            throws IOException {
+        // Times never go backwards, so the index stays sorted even if the clock does
+        long at = Math.max(System.currentTimeMillis(), lastAt);
+        LedgerRecord record = new LedgerRecord(lastSequence + 1, at, type, gameId, copies, value);
+        LedgerSegment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (segment == null || segment.isFull()) {
+            if (segment != null) {
+                segment.force();
+            }
+            segment = LedgerSegment.create(directory, record.sequence(), segmentRecords);
+            segments.add(segment);
+        }
+        segment.append(record);
+        lastSequence = record.sequence();
+        lastAt = at;
+        for (LedgerProjection projection : projections) {
+            projection.apply(record);
+        }
+        return record;
+    }
+
+    /**
+     * Pass the records from {@code fromSequence} on to {@code consumer}, in order, stopping before the first
+     * one after {@code untilAt} (epoch millis).
+     */
+    public void replay(long fromSequence, long untilAt, Consumer<LedgerRecord> consumer) {
+        List<LedgerSegment> current;
+        long last;
+        synchronized (this) {
+            current = List.copyOf(segments);
+            last = lastSequence;
+        }
+        for (LedgerSegment segment : current) {
+            if (segment.lastSequence() < fromSequence) {
+                continue;
+            }
+            int start = (int) Math.max(0, fromSequence - segment.firstSequence());
+            int end = (int) Math.min(segment.count(), last - segment.firstSequence() + 1);
+            if (untilAt != Long.MAX_VALUE) {
+                end = Math.min(end, segment.firstAfter(untilAt));
+            }
+            for (int position = start; position < end; position++) {
+                LedgerRecord record = segment.get(position);
+                if (record == null) {
+                    throw new IllegalStateException("Ledger record " + (segment.firstSequence() + position)
+                            + " is unreadable");
+                }
+                consumer.accept(record);
+            }
+            if (end < segment.count()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fill a fresh projection with the records up to {@code untilAt} (epoch millis), starting from the latest
+     * snapshot taken before then.
+     */
+    public <P extends LedgerProjection> P project(P projection, long untilAt) throws IOException {
+        Snapshot snapshot = latestSnapshot(untilAt, List.of(projection));
+        long from = 1;
+        if (snapshot != null) {
+            projection.read(snapshot.section(projection.name()));
+            from = snapshot.sequence + 1;
+        }
+        replay(from, untilAt, projection::apply);
+        return projection;
+    }
+
+    /**
+     * Write a snapshot of the projections as they are now and keep only the latest {@code keep}.
+     *
+     * @return the sequence number it was taken at
+     */
+    public long snapshot(int keep) throws IOException {
+        long sequence;
+        long at;
+        ByteArrayOutputStream sections = new ByteArrayOutputStream();
+        synchronized (this) {
+            sequence = lastSequence;
+            at = lastAt;
+            segments.forEach(LedgerSegment::force);
+            DataOutputStream out = new DataOutputStream(sections);
+            out.writeInt(projections.size());
+            for (LedgerProjection projection : projections) {
+                ByteArrayOutputStream state = new ByteArrayOutputStream();
+                projection.write(new DataOutputStream(state));
+                out.writeUTF(projection.name());
+                out.writeInt(state.size());
+                state.writeTo(out);
+            }
+        }
+
+        ByteArrayOutputStream file = new ByteArrayOutputStream(sections.size() + 32);
+        DataOutputStream out = new DataOutputStream(file);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(sequence);
+        out.writeLong(at);
+        sections.writeTo(out);
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.wrap(file.toByteArray()));
+        out.writeInt((int) crc.getValue());
+
+        Path target = directory.resolve(String.format("%s%012d.bin", SNAPSHOT_PREFIX, sequence));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temporary)) {
+            file.writeTo(stream);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, ".bin");
+        for (int i = 0; i < snapshots.size() - keep; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        return sequence;
+    }
+
+    public long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Sequence number of the snapshot the store was opened from, 0 if none.
+     */
+    public long snapshotSequence() {
+        return snapshotSequence;
+    }
+
+    /**
+     * Records replayed after the snapshot when the store was opened.
+     */
+    public int replayed() {
+        return replayed;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(LedgerSegment::close);
+    }
+
+    // Newest first, the first readable snapshot no later than the time that covers every projection
+    private Snapshot latestSnapshot(long untilAt, List<LedgerProjection> needed) throws IOException {
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, ".bin");
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            Snapshot snapshot = Snapshot.read(snapshots.get(i));
+            if (snapshot != null && snapshot.sequence <= lastSequence && snapshot.at <= untilAt
+                    && needed.stream().allMatch(projection -> snapshot.sections.containsKey(projection.name()))) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().toList();
+        }
+    }
+
+    private record Snapshot(long sequence, long at, Map<String, byte[]> sections) {
+
+        DataInputStream section(String name) {
+            return new DataInputStream(new ByteArrayInputStream(sections.get(name)));
+        }
+
+        // Null if the file is damaged or of another version
+        static Snapshot read(Path path) throws IOException {
+            byte[] bytes = Files.readAllBytes(path);
+            if (bytes.length < 28) {
+                return null;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, 0, bytes.length - 4);
+            if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - 4, 4).getInt()) {
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, bytes.length - 4));
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return null;
+            }
+            long sequence = in.readLong();
+            long at = in.readLong();
+            int count = in.readInt();
+            Map<String, byte[]> sections = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] state = new byte[in.readInt()];
+                in.readFully(state);
+                sections.put(name, state);
+            }
+            return new Snapshot(sequence, at, sections);
+        }
+    }
+}
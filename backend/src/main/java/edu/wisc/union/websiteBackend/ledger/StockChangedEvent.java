@@ -0,0 +1,23 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import edu.wisc.union.websiteBackend.jpa.BoardGame;
+
+/**
+ * Published when a game's quantity or copies may have been set by hand: on add, update, patch and import. The
+ * values are taken inside the writing transaction, with the game's row locked or not yet visible to anyone
+ * else, so the {@link CheckoutLedger} records the stock as it was at that point among the checkouts and returns.
+ *
+ * @param copiesOut copies with guests; those set aside for a hold count as in
+ */
+public record StockChangedEvent(long gameId, int quantity, int copiesOut) {
+
+    /**
+     * @param readyCopies copies of the game set aside for ready holds
+     */
+    public static StockChangedEvent of(BoardGame game, int readyCopies) {
+        // Unset counts mean every copy is in
+        int quantity = game.getQuantity() == null ? 0 : game.getQuantity();
+        int available = game.getAvailableCopies() == null ? quantity : game.getAvailableCopies();
+        return new StockChangedEvent(game.getId(), quantity, Math.max(0, quantity - available - readyCopies));
+    }
+}
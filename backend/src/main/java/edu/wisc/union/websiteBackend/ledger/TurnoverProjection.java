@@ -0,0 +1,274 @@
+package edu.wisc.union.websiteBackend.ledger;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * How long copies stay out and how busy each game night is, kept up to date record by record.
+ * <p>
+ * Returns are paired with the oldest open checkout of the same game, and the time between them is counted
+ * towards the night of the checkout. Copies the ledger saw go out only as part of a STOCK record, e.g. before
+ * the ledger existed, have no start time; they are the oldest, so they are returned first and left out of the
+ * times. Copies out are integrated over time within each night, between its first and last checkout or
+ * return, which gives the share of the catalog that was out while the night was running. Intervals that
+ * span two nights, such as copies left out until the next week's return-all, are not counted.
+ * <p>
+ * The state grows with the number of game nights and the games played on each, like the daily checkout
+ * counts, plus the copies out at the moment.
+ */
+public class TurnoverProjection implements LedgerProjection {
+
+    /**
+     * One night's activity; times are epoch millis.
+     *
+     * @param copyMillis    copies out integrated over the time between the first and last record
+     * @param checkouts     copies checked out
+     * @param peakCopiesOut most copies out at once, over all games
+     * @param copies        most copies in the catalog
+     */
+    public record NightTurnover(long firstAt, long lastAt, long copyMillis, int checkouts, int peakCopiesOut,
+                                long peakAt, int copies) {
+
+        /**
+         * Average share of the catalog's copies that were out while the night was running, 0 to 1.
+         */
+        public double utilization() {
+            long span = lastAt - firstAt;
+            return span <= 0 || copies <= 0 ? 0 : (double) copyMillis / span / copies;
+        }
+    }
+
+    /**
+     * One game on one night.
+     *
+     * @param returns       copies checked out that night and since returned
+     * @param millisOut     time those copies were out, summed
+     * @param peakCopiesOut most copies of the game out at once
+     */
+    public record GameNight(int returns, long millisOut, int peakCopiesOut) {
+    }
+
+    // Only touched while a record is applied or a snapshot is written or read
+    private static final class Game {
+        int quantity;
+        int unknownOut;
+        final ArrayDeque<Long> outSince = new ArrayDeque<>();
+
+        int copiesOut() {
+            return unknownOut + outSince.size();
+        }
+    }
+
+    private final Map<Long, Game> games = new HashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, NightTurnover> nights = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentHashMap<Long, GameNight>> gameNights = new ConcurrentSkipListMap<>();
+    private int copiesOut;
+    private int copies;
+    private long lastActivityAt;
+
+    @Override
+    public String name() {
+        return "turnover";
+    }
+
+    @Override
+    public void apply(LedgerRecord record) {
+        long gameId = record.gameId();
+        switch (record.type()) {
+            case CHECKOUT -> {
+                LocalDate night = advance(record);
+                Game game = games.computeIfAbsent(gameId, id -> new Game());
+                for (int i = 0; i < record.copies(); i++) {
+                    game.outSince.addLast(record.at());
+                }
+                copiesOut += record.copies();
+                int out = game.copiesOut();
+                gameNights.computeIfAbsent(night, key -> new ConcurrentHashMap<>()).merge(gameId,
+                        new GameNight(0, 0, out),
+                        (current, added) -> new GameNight(current.returns(), current.millisOut(),
+                                Math.max(current.peakCopiesOut(), out)));
+                NightTurnover current = nights.get(night);
+                boolean peak = copiesOut > current.peakCopiesOut();
+                nights.put(night, new NightTurnover(current.firstAt(), current.lastAt(), current.copyMillis(),
+                        current.checkouts() + record.copies(), peak ? copiesOut : current.peakCopiesOut(),
+                        peak ? record.at() : current.peakAt(), current.copies()));
+            }
+            case RETURN -> {
+                advance(record);
+                Game game = games.get(gameId);
+                if (game == null) {
+                    return;
+                }
+                for (int i = 0; i < record.copies() && game.copiesOut() > 0; i++) {
+                    copiesOut--;
+                    if (game.unknownOut > 0) {
+                        game.unknownOut--;
+                    } else {
+                        long since = game.outSince.pollFirst();
+                        LocalDate night = LedgerRecord.nightOf(since);
+                        gameNights.computeIfAbsent(night, key -> new ConcurrentHashMap<>()).merge(gameId,
+                                new GameNight(1, record.at() - since, 0),
+                                (current, added) -> new GameNight(current.returns() + 1,
+                                        current.millisOut() + added.millisOut(), current.peakCopiesOut()));
+                    }
+                }
+            }
+            case STOCK -> {
+                Game game = games.computeIfAbsent(gameId, id -> new Game());
+                copies += record.value() - game.quantity;
+                game.quantity = record.value();
+                int difference = record.copies() - game.copiesOut();
+                copiesOut += difference;
+                if (difference > 0) {
+                    game.unknownOut += difference;
+                }
+                // Copies the database says are back without a return we saw: no time to count
+                for (int i = difference; i < 0; i++) {
+                    if (game.unknownOut > 0) {
+                        game.unknownOut--;
+                    } else {
+                        game.outSince.pollFirst();
+                    }
+                }
+            }
+            case HISTORY -> {
+                // Daily counts without times; they are in the CheckoutProjection
+            }
+            case REMOVE -> {
+                Game game = games.remove(gameId);
+                if (game != null) {
+                    copies -= game.quantity;
+                    copiesOut -= game.copiesOut();
+                }
+                gameNights.values().forEach(counts -> counts.remove(gameId));
+                gameNights.values().removeIf(Map::isEmpty);
+            }
+        }
+    }
+
+    // Counts the copies out since the previous checkout or return towards the night, and opens it if needed
+    private LocalDate advance(LedgerRecord record) {
+        LocalDate night = record.night();
+        NightTurnover current = nights.get(night);
+        if (current == null) {
+            current = new NightTurnover(record.at(), record.at(), 0, 0, copiesOut, record.at(), copies);
+        } else {
+            long elapsed = LedgerRecord.nightOf(lastActivityAt).equals(night) ? record.at() - lastActivityAt : 0;
+            current = new NightTurnover(current.firstAt(), record.at(), current.copyMillis() + elapsed * copiesOut,
+                    current.checkouts(), current.peakCopiesOut(), current.peakAt(), Math.max(current.copies(), copies));
+        }
+        nights.put(night, current);
+        lastActivityAt = record.at();
+        return night;
+    }
+
+    /**
+     * The nights from {@code from} to {@code to}, both included and either open.
+     */
+    public NavigableMap<LocalDate, NightTurnover> nights(LocalDate from, LocalDate to) {
+        return Collections.unmodifiableNavigableMap(range(nights, from, to));
+    }
+
+    /**
+     * The games played on each night from {@code from} to {@code to}, both included and either open.
+     */
+    public NavigableMap<LocalDate, Map<Long, GameNight>> gameNights(LocalDate from, LocalDate to) {
+        return Collections.unmodifiableNavigableMap(range(gameNights, from, to));
+    }
+
+    private static <V> NavigableMap<LocalDate, V> range(NavigableMap<LocalDate, V> map, LocalDate from, LocalDate to) {
+        if (from != null) {
+            map = map.tailMap(from, true);
+        }
+        if (to != null) {
+            map = map.headMap(to, true);
+        }
+        return map;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(copiesOut);
+        out.writeInt(copies);
+        out.writeLong(lastActivityAt);
+        out.writeInt(games.size());
+        for (Map.Entry<Long, Game> entry : games.entrySet()) {
+            Game game = entry.getValue();
+            out.writeLong(entry.getKey());
+            out.writeInt(game.quantity);
+            out.writeInt(game.unknownOut);
+            out.writeInt(game.outSince.size());
+            for (long since : game.outSince) {
+                out.writeLong(since);
+            }
+        }
+        out.writeInt(nights.size());
+        for (Map.Entry<LocalDate, NightTurnover> entry : nights.entrySet()) {
+            NightTurnover night = entry.getValue();
+            out.writeLong(entry.getKey().toEpochDay());
+            out.writeLong(night.firstAt());
+            out.writeLong(night.lastAt());
+            out.writeLong(night.copyMillis());
+            out.writeInt(night.checkouts());
+            out.writeInt(night.peakCopiesOut());
+            out.writeLong(night.peakAt());
+            out.writeInt(night.copies());
+        }
+        out.writeInt(gameNights.size());
+        for (Map.Entry<LocalDate, ConcurrentHashMap<Long, GameNight>> entry : gameNights.entrySet()) {
+            out.writeLong(entry.getKey().toEpochDay());
+            out.writeInt(entry.getValue().size());
+            for (Map.Entry<Long, GameNight> game : entry.getValue().entrySet()) {
+                out.writeLong(game.getKey());
+                out.writeInt(game.getValue().returns());
+                out.writeLong(game.getValue().millisOut());
+                out.writeInt(game.getValue().peakCopiesOut());
+            }
+        }
+    }
+
+    @Override
+    public void read(DataInput in) throws IOException {
+        games.clear();
+        nights.clear();
+        gameNights.clear();
+        copiesOut = in.readInt();
+        copies = in.readInt();
+        lastActivityAt = in.readLong();
+        int gameCount = in.readInt();
+        for (int i = 0; i < gameCount; i++) {
+            Game game = new Game();
+            games.put(in.readLong(), game);
+            game.quantity = in.readInt();
+            game.unknownOut = in.readInt();
+            int open = in.readInt();
+            for (int j = 0; j < open; j++) {
+                game.outSince.addLast(in.readLong());
+            }
+        }
+        int nightCount = in.readInt();
+        for (int i = 0; i < nightCount; i++) {
+            nights.put(LocalDate.ofEpochDay(in.readLong()), new NightTurnover(in.readLong(), in.readLong(),
+                    in.readLong(), in.readInt(), in.readInt(), in.readLong(), in.readInt()));
+        }
+        int gameNightCount = in.readInt();
+        for (int i = 0; i < gameNightCount; i++) {
+            LocalDate night = LocalDate.ofEpochDay(in.readLong());
+            int size = in.readInt();
+            ConcurrentHashMap<Long, GameNight> counts = new ConcurrentHashMap<>(size * 2);
+            for (int j = 0; j < size; j++) {
+                counts.put(in.readLong(), new GameNight(in.readInt(), in.readLong(), in.readInt()));
+            }
+            gameNights.put(night, counts);
+        }
+    }
+}
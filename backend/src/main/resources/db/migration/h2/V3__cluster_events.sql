@@ -0,0 +1,12 @@
+-- Cache invalidation events between backend nodes (cluster.bus: jdbc). Rows are short-lived: every node
+-- deletes those older than cluster.jdbc.retention.
+
+create table cluster_events (
+    id         bigint generated by default as identity,
+    origin     varchar(64)                 not null,
+    created_at timestamp(6) with time zone not null,
+    payload    varchar(4096)               not null,
+    primary key (id)
+);
+
+create index idx_cluster_events_created_at on cluster_events (created_at);
@@ -0,0 +1,7 @@
+-- Steam account rentals: generated request ids, and the indexes behind the booking checks. A request's
+-- account and start day locate its overlapping bookings; status and start day find the pending ones.
+
+create sequence steam_account_requests_seq start with 1 increment by 50;
+
+create index idx_steam_requests_account_day on steam_account_requests (assigned_account_steam_account_id, rental_start_day);
+create index idx_steam_requests_status_day on steam_account_requests (status, rental_start_day);
@@ -0,0 +1,15 @@
+-- Progress of the background catalog enrichment jobs, one row per job, so a pass resumes after a restart.
+
+create table enrichment_checkpoints (
+    job             varchar(32)                 not null,
+    last_game_id    bigint                      not null,
+    pass_started_at timestamp(6) with time zone not null,
+    completed_at    timestamp(6) with time zone,
+    updated_at      timestamp(6) with time zone not null,
+    processed       integer                     not null,
+    enriched        integer                     not null,
+    not_found       integer                     not null,
+    failed          integer                     not null,
+    requests        bigint                      not null,
+    primary key (job)
+);
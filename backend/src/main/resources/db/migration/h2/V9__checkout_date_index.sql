@@ -0,0 +1,4 @@
+-- The game night stats filter board_game_checkout on a range of dates. Its primary key leads with
+-- board_game_id, as Hibernate created it, so without this index every stats query scans the whole table.
+
+create index if not exists idx_board_game_checkout_date on board_game_checkout (date);
@@ -0,0 +1,108 @@
+-- Schema of release 1.2.0, as Hibernate generated it with ddl-auto: update. Databases created by that
+-- release are baselined at this version instead of running it.
+
+create sequence board_games_seq start with 1 increment by 50;
+create sequence console_games_seq start with 1 increment by 50;
+create sequence console_genre_seq start with 1 increment by 1;
+create sequence console_seq start with 1 increment by 50;
+
+create table board_games (
+    id               bigint not null,
+    name             varchar(255),
+    min_playtime     integer,
+    max_playtime     integer,
+    min_player_count integer,
+    max_player_count integer,
+    available_copies integer,
+    quantity         integer,
+    checkout_count   integer,
+    genre            varchar(255),
+    box_image_url    varchar(255),
+    description      varchar(1024),
+    internal_notes   varchar(255),
+    primary key (id)
+);
+
+create table board_game_checkout (
+    date          date    not null,
+    board_game_id bigint  not null,
+    count         integer not null,
+    primary key (board_game_id, date)
+);
+
+create table console (
+    id   bigint not null,
+    name varchar(255),
+    primary key (id)
+);
+
+create table console_genre (
+    id   bigint       not null,
+    name varchar(255) not null unique,
+    primary key (id)
+);
+
+create table console_games (
+    id            bigint not null,
+    name          varchar(255),
+    release_date  varchar(255),
+    box_image_url varchar(255),
+    description   varchar(1024),
+    primary key (id)
+);
+
+create table console_games_consoles (
+    console_game_id bigint not null,
+    consoles_id     bigint not null
+);
+
+create table console_game_console_genre (
+    console_game_id  bigint not null,
+    console_genre_id bigint not null
+);
+
+create table steam_games (
+    id             varchar(255) not null,
+    name           varchar(255),
+    description    varchar(512),
+    internal_notes varchar(255),
+    checkout_count integer,
+    windows        boolean,
+    macos          boolean,
+    linux          boolean,
+    primary key (id)
+);
+
+create table steam_accounts (
+    steam_account_id       integer not null,
+    steam_account_username varchar(255),
+    steam_account_password varchar(255),
+    primary key (steam_account_id)
+);
+
+create table steam_accounts_games_on_account (
+    steam_account_steam_account_id integer      not null,
+    games_on_account_id            varchar(255) not null,
+    primary key (steam_account_steam_account_id, games_on_account_id)
+);
+
+create table steam_account_requests (
+    request_id                        integer not null,
+    name                              varchar(255),
+    email                             varchar(255),
+    game_name                         varchar(255),
+    comments                          varchar(255),
+    status                            varchar(255),
+    rental_start_day                  date,
+    assigned_account_steam_account_id integer,
+    primary key (request_id)
+);
+
+alter table board_game_checkout add constraint FKohh7ugmikthb6rd44pc92mss1 foreign key (board_game_id) references board_games;
+alter table console_game_console_genre add constraint FK3e4exaukpsmt2m346p9i7ag1h foreign key (console_genre_id) references console_genre;
+alter table console_game_console_genre add constraint FKmfiirs6lnshrj4idip28qjfuy foreign key (console_game_id) references console_games;
+alter table console_games_consoles add constraint FKgmyliml0koctcb0xt0drxlpwf foreign key (consoles_id) references console;
+alter table console_games_consoles add constraint FKtfnq3evyxwybu57uaomd6o3xk foreign key (console_game_id) references console_games;
+alter table steam_account_requests add constraint FK69at4985wln3522l168tc8g34 foreign key (assigned_account_steam_account_id) references steam_accounts;
+alter table steam_accounts_games_on_account add constraint FK1smoddtfoh4ceuoi3gwga5el1 foreign key (games_on_account_id) references steam_games;
+alter table steam_accounts_games_on_account add constraint FKb22c4uvmqrupjsf575017drxo foreign key (steam_account_steam_account_id) references steam_accounts;
@@ -0,0 +1,22 @@
+-- Box art cache and the case-insensitive name lookup column
+
+create sequence if not exists cached_images_seq start with 1 increment by 50;
+
+create table if not exists cached_images (
+    id               bigint       not null,
+    owner_type       varchar(16)  not null check (owner_type in ('BOARD_GAME','CONSOLE_GAME')),
+    owner_id         bigint       not null,
+    source_url       varchar(1024),
+    sha256           varchar(64)  not null,
+    content_type     varchar(255),
+    byte_size        bigint,
+    width            integer,
+    height           integer,
+    thumbnail_widths varchar(255),
+    fetched_at       timestamp(6) with time zone,
+    primary key (id),
+    unique (owner_type, owner_id)
+);
+
+alter table board_games add column if not exists name_lower varchar(255) generated always as (lower(name)) stored;
+create index if not exists idx_board_games_name_lower on board_games (name_lower);
@@ -0,0 +1,22 @@
+-- Trigram indexes for the substring filters of BoardGameRepository.findFiltered
+-- (lower(name) like '%...%', lower(genre) like '%...%'), which a b-tree cannot serve.
+-- pg_trgm ships with the contrib package and is a trusted extension, but a server without contrib or a role
+-- that may not create extensions should still migrate: the filters then fall back to a sequential scan.
+
+do $$
+begin
+    create extension if not exists pg_trgm;
+exception
+    when others then
+        raise notice 'pg_trgm is not available (%), skipping trigram indexes', sqlerrm;
+end
+$$;
+
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'pg_trgm') then
+        create index if not exists idx_board_games_name_trgm on board_games using gin (lower(name) gin_trgm_ops);
+        create index if not exists idx_board_games_genre_trgm on board_games using gin (lower(genre) gin_trgm_ops);
+    end if;
+end
+$$;
@@ -0,0 +1,18 @@
+-- Hold queue for games whose copies are all out. Each game's waiting holds are read in id order through
+-- idx_game_holds_queue; idx_game_holds_status finds the active ones when a node starts.
+
+create sequence game_holds_seq start with 1 increment by 50;
+
+create table game_holds (
+    id            bigint       not null,
+    board_game_id bigint       not null,
+    guest_name    varchar(100) not null,
+    status        varchar(16)  not null check (status in ('WAITING','READY','FULFILLED','EXPIRED','CANCELLED')),
+    created_at    timestamp(6) with time zone not null,
+    expires_at    timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+alter table game_holds add constraint fk_game_holds_board_game foreign key (board_game_id) references board_games;
+create index idx_game_holds_queue on game_holds (board_game_id, status, id);
+create index idx_game_holds_status on game_holds (status);
@@ -0,0 +1,27 @@
+-- Normalized board game genres. board_games.genre stays the displayed text; its comma-separated parts are
+-- linked here so the genre filter is an indexed join instead of a substring scan. V9 fills the tables in from
+-- the existing text.
+
+create sequence board_game_genres_seq start with 1 increment by 1;
+
+create table board_game_genres (
+    id       bigint       not null,
+    name     varchar(100) not null,
+    name_key varchar(100) not null,
+    primary key (id)
+);
+
+alter table board_game_genres add constraint uk_board_game_genres_name_key unique (name_key);
+
+create table board_game_genre_links (
+    board_game_id bigint not null,
+    genre_id      bigint not null,
+    primary key (board_game_id, genre_id)
+);
+
+alter table board_game_genre_links add constraint fk_board_game_genre_links_game foreign key (board_game_id) references board_games;
+alter table board_game_genre_links add constraint fk_board_game_genre_links_genre foreign key (genre_id) references board_game_genres;
+create index idx_board_game_genre_links_genre on board_game_genre_links (genre_id, board_game_id);
+
+-- The genre filter no longer reads board_games.genre
+drop index if exists idx_board_games_genre_trgm;
@@ -0,0 +1,167 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import edu.wisc.union.websiteBackend.FlywayConfig;
+import edu.wisc.union.websiteBackend.HibernateBatchingConfig;
+import edu.wisc.union.websiteBackend.HibernateCacheConfig;
+import edu.wisc.union.websiteBackend.HibernateCacheProperties;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.Location;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * The repository queries and migrations that differ between databases, run against each database the backend
+ * supports by the subclasses. The schema comes from the Flyway migrations and Hibernate validates the entities
+ * against it, as in production; each test rolls back.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({FlywayConfig.class, HibernateBatchingConfig.class, HibernateCacheConfig.class, HibernateCacheProperties.class})
+@TestPropertySource(properties = "spring.jpa.hibernate.ddl-auto=validate")
+abstract class BoardGameRepositoryTests {
+
+    @Autowired
+    private BoardGameRepository boardGameRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * @return the directory under {@code db/migration} the database's migrations live in
+     */
+    abstract String migrations();
+
+    @Test
+    void migratesFromTheVendorDirectory() {
+        assertThat(flyway.getConfiguration().getLocations())
+                .extracting(Location::getDescriptor)
+                .containsExactly("classpath:db/migration/" + migrations());
+        assertThat(flyway.info().applied()).isNotEmpty();
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    // Databases from release 1.2.0 have the key in this order, so the date ranges of the stats need the index
+    @Test
+    void checkoutsAreKeyedByGameAndIndexedByDate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? "BOARD_GAME_CHECKOUT" : "board_game_checkout";
+            Map<Integer, String> key = new TreeMap<>();
+            try (ResultSet columns = metaData.getPrimaryKeys(null, null, table)) {
+                while (columns.next()) {
+                    key.put(columns.getInt("KEY_SEQ"), columns.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+            assertThat(key.values()).containsExactly("board_game_id", "date");
+
+            List<String> leading = new ArrayList<>();
+            try (ResultSet columns = metaData.getIndexInfo(null, null, table, false, false)) {
+                while (columns.next()) {
+                    if (columns.getShort("ORDINAL_POSITION") == 1 && columns.getString("COLUMN_NAME") != null) {
+                        leading.add(columns.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            assertThat(leading).contains("date");
+        }
+    }
+
+    @Test
+    void nameLowerFollowsTheName() {
+        BoardGame game = game("Ticket to Ride", 2, 2);
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(entityManager.find(BoardGame.class, game.getId()).getNameLower()).isEqualTo("ticket to ride");
+        assertThat(boardGameRepository.existsByNameIgnoreCase("TICKET TO RIDE")).isTrue();
+        assertThat(boardGameRepository.existsByNameIgnoreCase("Ticket to Ride Europe")).isFalse();
+
+        BoardGame renamed = entityManager.find(BoardGame.class, game.getId());
+        renamed.setName("Ticket to Ride Europe");
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(entityManager.find(BoardGame.class, game.getId()).getNameLower()).isEqualTo("ticket to ride europe");
+        assertThat(boardGameRepository.existsByNameIgnoreCase("ticket to ride")).isFalse();
+    }
+
+    @Test
+    void findFilteredTakesNullFilters() {
+        game("Azul", 1, 1);
+        game("Azul: Summer Pavilion", 1, 1);
+        game("Catan", 1, 1);
+        entityManager.flush();
+
+        assertThat(boardGameRepository.findFiltered("azul", null, null, null, null, Sort.by("name")))
+                .extracting(BoardGame::getName)
+                .containsExactly("Azul", "Azul: Summer Pavilion");
+        assertThat(boardGameRepository.findFiltered(null, null, null, null, null, Sort.by("name")))
+                .extracting(BoardGame::getName)
+                .containsExactly("Azul", "Azul: Summer Pavilion", "Catan");
+    }
+
+    // IS DISTINCT FROM counts two unset columns as equal and one unset column as different
+    @Test
+    void findOutstandingForUpdateSkipsGamesWithEveryCopyIn() {
+        game("Shelved", 3, 3);
+        BoardGame out = game("Out", 3, 1);
+        game("Never set", null, null);
+        BoardGame unsetCopies = game("Unset copies", 2, null);
+        entityManager.flush();
+
+        assertThat(boardGameRepository.findOutstandingForUpdate())
+                .extracting(BoardGameRepository.OutstandingGame::getId, BoardGameRepository.OutstandingGame::getName,
+                        BoardGameRepository.OutstandingGame::getQuantity,
+                        BoardGameRepository.OutstandingGame::getAvailableCopies)
+                .containsExactly(tuple(out.getId(), "Out", 3, 1), tuple(unsetCopies.getId(), "Unset copies", 2, null));
+    }
+
+    @Test
+    void returnAllCopiesUpdatesTheOutstandingGames() {
+        game("Shelved", 3, 3);
+        game("Out", 3, 1);
+        game("Never set", null, null);
+        game("Unset copies", 2, null);
+        entityManager.flush();
+
+        assertThat(boardGameRepository.returnAllCopies()).isEqualTo(2);
+        entityManager.clear();
+        assertThat(boardGameRepository.findAll(Sort.by("name")))
+                .extracting(BoardGame::getName, BoardGame::getAvailableCopies)
+                .containsExactly(tuple("Never set", null), tuple("Out", 3), tuple("Shelved", 3),
+                        tuple("Unset copies", 2));
+        assertThat(boardGameRepository.findOutstandingForUpdate()).isEmpty();
+    }
+
+    private BoardGame game(String name, Integer quantity, Integer availableCopies) {
+        BoardGame game = new BoardGame();
+        game.setName(name);
+        game.setQuantity(quantity);
+        game.setAvailableCopies(availableCopies);
+        return entityManager.persist(game);
+    }
+}
@@ -0,0 +1,16 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:repository-tests;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+class H2BoardGameRepositoryTests extends BoardGameRepositoryTests {
+
+    @Override
+    String migrations() {
+        return "h2";
+    }
+}
@@ -0,0 +1,45 @@
+package edu.wisc.union.websiteBackend.jpa;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Runs against a real PostgreSQL server started from the embedded binaries, under the {@code postgres} profile.
+ */
+@ActiveProfiles("postgres")
+class PostgresBoardGameRepositoryTests extends BoardGameRepositoryTests {
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        assumeFalse("root".equals(System.getProperty("user.name")), "initdb refuses to run as root");
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Override
+    String migrations() {
+        return "postgresql";
+    }
+}
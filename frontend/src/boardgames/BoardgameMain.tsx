@@ -290,6 +290,9 @@ export const FilterPopup = ({ isOpen, onClose }) => {
     );
 };
 
+// Radix selects cannot use "" as an item value
+const ALL_GENRES = "__all__";
+
 const InlineFilters = () => {
     const [isVisible, setIsVisible] = useState(false);
     const [filters, setFilters] = useState({
@@ -301,7 +304,7 @@ const InlineFilters = () => {
     const [sortField, setSortField] = useState("name");
     const [sortDirection, setSortDirection] = useState("asc");
 
-    const { updateFiltersAndSort } = useGameManager();
+    const { genres, updateFiltersAndSort } = useGameManager();
 
     // Update filters whenever they change
     useEffect(() => {
@@ -354,12 +357,20 @@ const InlineFilters = () => {
                         </div>
                         <div>
                             <Label>Genre</Label>
-                            <Input
-                                type="text"
-                                value={filters.genre}
-                                onChange={(e) => setFilters({ ...filters, genre: e.target.value })}
-                                placeholder="Filter by genre..."
-                            />
+                            <Select
+                                value={filters.genre || ALL_GENRES}
+                                onValueChange={(value) => setFilters({ ...filters, genre: value === ALL_GENRES ? "" : value })}
+                            >
+                                <SelectTrigger className="w-full">
+                                    <SelectValue placeholder="Filter by genre..." />
+                                </SelectTrigger>
+                                <SelectContent>
+                                    <SelectItem value={ALL_GENRES}>All genres</SelectItem>
+                                    {genres.map((genre) => (
+                                        <SelectItem key={genre} value={genre}>{genre}</SelectItem>
+                                    ))}
+                                </SelectContent>
+                            </Select>
                         </div>
                         <div>
                             <Label>Playtime</Label>
@@ -568,7 +579,7 @@ const GameCard: React.FC<GameCardProps> = ({ game }) => {
 
     // Disable logic
     const isReturnDisabled = game.availableCopies === game.quantity;
-    const isCheckoutDisabled = game.availableCopies === null || game.availableCopies <= 0;
+    const isCheckoutDisabled = game.availableCopies == null || game.availableCopies <= 0;
 
     return (
         <>
@@ -590,8 +601,9 @@ const GameCard: React.FC<GameCardProps> = ({ game }) => {
                 <div className="relative w-1/3">
                     {game.boxImageUrl && (
                         <img
-                            src={game.boxImageUrl || "/api/placeholder/200/200"}
+                            src={`/api/images/${game.id}?w=320`}
                             alt={game.name}
+                            loading="lazy"
                             className="w-full h-40 object-contain rounded-tr-lg"
                         />
                     )}
@@ -691,7 +703,7 @@ const GameCard: React.FC<GameCardProps> = ({ game }) => {
                         <div className="flex justify-center">
                             {game.boxImageUrl && (
                                 <img
-                                    src={game.boxImageUrl}
+                                    src={`/api/images/${game.id}`}
                                     alt={game.name}
                                     className="w-full max-h-64 object-contain rounded-lg"
                                 />
@@ -38,15 +38,19 @@ export const GameManagerContext = createContext(null);
 export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) => {
     const [allGames, setAllGames] = useState<Game[]>([]);
     const [games, setGames] = useState<Game[]>([]);
+    const [genres, setGenres] = useState<string[]>([]);
     const [loading, setLoading] = useState(true);
     const { auth } = useAuth();
     const [filters, setFilters] = useState<Filters>({});
     const [sortData, setSortData] = useState<SortData>({ field: "name", direction: "asc" });
 
+    // The genre filter is an exact match on one of a game's genres, so the backend applies it
     const fetchGames = async () => {
         setLoading(true);
+        const params = new URLSearchParams();
+        if (filters.genre) params.append('genre', filters.genre);
         try {
-            const response = await fetch(`${API_BASE_URL}/games`, {
+            const response = await fetch(`${API_BASE_URL}/games?${params.toString()}`, {
                 headers: auth ? { Authorization: `Bearer ${auth.token}` } : {},
             });
             if (response.ok) {
@@ -63,6 +67,25 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
         }
     };
 
+    const fetchGenres = async () => {
+        try {
+            const response = await fetch(`${API_BASE_URL}/games/genres`);
+            if (response.ok) {
+                setGenres(await response.json());
+            } else {
+                console.error('Failed to fetch genres');
+            }
+        } catch (error) {
+            console.error('Error fetching genres:', error);
+        }
+    };
+
+    // Writes can add or remove genres as well as games
+    const refresh = () => {
+        fetchGames();
+        fetchGenres();
+    };
+
     const getComparableValue = (value: any) => {
         return typeof value === 'string' ? value.toLowerCase() : value;
     };
@@ -77,11 +100,6 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
                     game.name && game.name.toLowerCase().includes(filters.name!.toLowerCase())
                 );
             }
-            if (filters.genre) {
-                filteredGames = filteredGames.filter((game) =>
-                    game.genre && game.genre.toLowerCase().includes(filters.genre!.toLowerCase())
-                );
-            }
             if (filters.playtime !== undefined) {
                 filteredGames = filteredGames.filter(
 
@@ -137,7 +155,7 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
                 body: JSON.stringify(gameData),
             });
             if (response.ok) {
-                fetchGames();
+                refresh();
             } else {
                 console.error('Failed to add game');
             }
@@ -155,7 +173,7 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
                 },
             });
             if (response.ok) {
-                fetchGames();
+                refresh();
             } else {
                 console.error('Failed to delete game');
             }
@@ -220,7 +238,7 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
                 body: JSON.stringify(gameData),
             });
             if (response.ok) {
-                fetchGames();
+                refresh();
             } else {
                 console.error('Failed to update game');
             }
@@ -249,7 +267,7 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
                 body: formData,
             });
 
-            fetchGames();
+            refresh();
         } catch (error) {
             console.error('Error updating filters and sort:', error);
         }
@@ -321,7 +339,11 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
 
     useEffect(() => {
         fetchGames();
-    }, [auth]);
+    }, [auth, filters.genre || ""]);
+
+    useEffect(() => {
+        fetchGenres();
+    }, []);
 
     useEffect(() => {
         if (allGames.length > 0) {
@@ -330,7 +352,7 @@ export const GameManagerProvider: React.FC<GameManagerProps> = ({ children }) =>
     }, [filters, sortData]);
 
     return (
-        <GameManagerContext.Provider value={{ games, loading, fetchGames, addGame, deleteGame, updateGame, checkout, returnGame, updateFiltersAndSort, importFile, exportFile, fetchGameStats, returnAllGames }}>
+        <GameManagerContext.Provider value={{ games, genres, loading, fetchGames, addGame, deleteGame, updateGame, checkout, returnGame, updateFiltersAndSort, importFile, exportFile, fetchGameStats, returnAllGames }}>
     {children}
     </GameManagerContext.Provider>
 );
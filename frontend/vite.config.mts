@@ -1,11 +1,49 @@
-import { defineConfig } from 'vite'
+/// <reference types="node" />
+import { defineConfig, type Plugin } from 'vite'
 import react from '@vitejs/plugin-react-swc'
 import tailwindcss from 'tailwindcss'
 import tsconfigPaths from 'vite-tsconfig-paths'
+import { writeFile } from 'node:fs/promises'
+import { join } from 'node:path'
+import { brotliCompressSync, constants, gzipSync } from 'node:zlib'
+
+// Write .br and .gz next to every compressible output file; the backend serves them to clients that accept them
+function precompress(): Plugin {
+    const compressible = /\.(js|mjs|css|html|svg|json|txt|csv)$/
+    return {
+        name: 'precompress',
+        apply: 'build',
+        async writeBundle(options, bundle) {
+            const outDir = options.dir ?? 'dist'
+            await Promise.all(Object.values(bundle).map(async (file) => {
+                if (!compressible.test(file.fileName)) return
+                const source = file.type === 'chunk' ? file.code : file.source
+                const bytes = typeof source === 'string' ? Buffer.from(source) : Buffer.from(source.buffer, source.byteOffset, source.byteLength)
+                if (bytes.length < 1024) return
+
+                const path = join(outDir, file.fileName)
+                const brotli = brotliCompressSync(bytes, {
+                    params: {
+                        [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+                        [constants.BROTLI_PARAM_SIZE_HINT]: bytes.length,
+                    },
+                })
+                const gzip = gzipSync(bytes, { level: 9 })
+                if (brotli.length < bytes.length) await writeFile(`${path}.br`, brotli)
+                if (gzip.length < bytes.length) await writeFile(`${path}.gz`, gzip)
+            }))
+        },
+    }
+}
+
 // https://vitejs.dev/config/
 export default defineConfig({
     base: '/',
-    plugins: [react(), tsconfigPaths()],
+    plugins: [react(), tsconfigPaths(), precompress()],
+    build: {
+        // Hashed file names under assets/ are served with immutable caching by the backend
+        assetsDir: 'assets',
+    },
     css: {
         postcss: {
             plugins: [tailwindcss()],